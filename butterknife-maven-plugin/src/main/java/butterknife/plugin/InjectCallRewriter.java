@@ -0,0 +1,175 @@
+package butterknife.plugin;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldInsnNode;
+import org.objectweb.asm.tree.InsnList;
+import org.objectweb.asm.tree.LdcInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.analysis.Analyzer;
+import org.objectweb.asm.tree.analysis.AnalyzerException;
+import org.objectweb.asm.tree.analysis.BasicInterpreter;
+import org.objectweb.asm.tree.analysis.BasicValue;
+import org.objectweb.asm.tree.analysis.Frame;
+
+/**
+ * Rewrites the calls of {@code ButterKnife.inject} whose target's static type has a generated
+ * injector to {@code ButterKnife.injectDirect}, passing along that type and the shared
+ * {@code INSTANCE} of its injector, so that a call neither looks the injector up nor allocates
+ * one. The injector is only bypassed at runtime if the target is of a subclass, which may have
+ * bindings of its own. Calls whose target type is not known at the call site are left as they
+ * are.
+ */
+final class InjectCallRewriter {
+  /** Must match {@code InjectViewProcessor.SUFFIX}. */
+  static final String SUFFIX = "$$ViewInjector";
+  /** The static field of generated injectors which holds their shared instance. */
+  static final String INSTANCE = "INSTANCE";
+
+  /** The newest class file version which the version of ASM in use can read. */
+  static final int MAX_VERSION = Opcodes.V1_7;
+
+  /** The bits of a class file version which hold its major version. */
+  private static final int MAJOR_VERSION = 0xFFFF;
+  /** The offset of the major version in a class file, after its magic and minor version. */
+  private static final int MAJOR_VERSION_OFFSET = 6;
+  private static final int UNSIGNED_BYTE = 0xFF;
+  private static final String BUTTERKNIFE = "butterknife/ButterKnife";
+  private static final String INJECT = "inject";
+  private static final String INJECT_DIRECT = "injectDirect";
+  private static final String DIRECT_ARGUMENTS =
+      "Ljava/lang/Class;Lbutterknife/ButterKnife$Injector;";
+  private static final String UNBINDER = "Lbutterknife/ButterKnife$Unbinder;";
+  /** The overloads of {@code inject} which have an {@code injectDirect} counterpart. */
+  private static final Set<String> DESCRIPTORS = new HashSet<String>(Arrays.asList(
+      "(Landroid/app/Activity;)" + UNBINDER,
+      "(Landroid/view/View;)" + UNBINDER,
+      "(Ljava/lang/Object;Landroid/app/Activity;)" + UNBINDER,
+      "(Ljava/lang/Object;Landroid/view/View;)" + UNBINDER,
+      "(Ljava/lang/Object;Lbutterknife/ViewIndex;)" + UNBINDER));
+
+  private final Set<String> targets;
+
+  /** @param targets The internal names of the classes which have a generated injector. */
+  InjectCallRewriter(Set<String> targets) {
+    this.targets = targets;
+  }
+
+  /** The major version of {@code classFile}. */
+  static int majorVersion(byte[] classFile) {
+    return (classFile[MAJOR_VERSION_OFFSET] & UNSIGNED_BYTE) << Byte.SIZE
+        | classFile[MAJOR_VERSION_OFFSET + 1] & UNSIGNED_BYTE;
+  }
+
+  /** Whether {@code classFile} is of a version which can be rewritten at all. */
+  static boolean canRead(byte[] classFile) {
+    return majorVersion(classFile) <= MAX_VERSION;
+  }
+
+  /**
+   * The rewritten class, or null if it has no calls to rewrite. The class must be of a version
+   * which {@link #canRead can be read}.
+   */
+  byte[] rewrite(byte[] classFile) throws AnalyzerException {
+    ClassNode classNode = new ClassNode();
+    new ClassReader(classFile).accept(classNode, 0);
+    if ((classNode.version & MAJOR_VERSION) < Opcodes.V1_5) {
+      return null; // Class constants cannot be loaded.
+    }
+    boolean rewritten = false;
+    for (MethodNode method : methods(classNode)) {
+      if (rewrite(classNode.name, method)) {
+        rewritten = true;
+      }
+    }
+    if (!rewritten) {
+      return null;
+    }
+    // The calls are replaced in place, so the stack map frames stay valid.
+    ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+    classNode.accept(writer);
+    return writer.toByteArray();
+  }
+
+  @SuppressWarnings("unchecked") // Raw in ASM 4.
+  private static List<MethodNode> methods(ClassNode classNode) {
+    return classNode.methods;
+  }
+
+  private boolean rewrite(String owner, MethodNode method) throws AnalyzerException {
+    AbstractInsnNode[] instructions = method.instructions.toArray();
+    Frame[] frames = null; // Not generic in ASM 4.
+    boolean rewritten = false;
+    for (int i = 0; i < instructions.length; i++) {
+      if (!isInject(instructions[i])) {
+        continue;
+      }
+      if (frames == null) {
+        // Only analyze the methods which inject.
+        frames = new Analyzer(new TypeInterpreter()).analyze(owner, method);
+      }
+      Frame frame = frames[i];
+      if (frame == null) {
+        continue; // Unreachable.
+      }
+      MethodInsnNode call = (MethodInsnNode) instructions[i];
+      int arguments = Type.getArgumentTypes(call.desc).length;
+      Type type = ((BasicValue) frame.getStack(frame.getStackSize() - arguments)).getType();
+      if (type == null || type.getSort() != Type.OBJECT
+          || !targets.contains(type.getInternalName())) {
+        continue;
+      }
+      String injector = type.getInternalName() + SUFFIX;
+      InsnList load = new InsnList();
+      load.add(new LdcInsnNode(type));
+      load.add(new FieldInsnNode(Opcodes.GETSTATIC, injector, INSTANCE, "L" + injector + ";"));
+      method.instructions.insertBefore(call, load);
+      call.name = INJECT_DIRECT;
+      call.desc = call.desc.replace(")", DIRECT_ARGUMENTS + ")");
+      rewritten = true;
+    }
+    return rewritten;
+  }
+
+  private static boolean isInject(AbstractInsnNode instruction) {
+    if (instruction.getOpcode() != Opcodes.INVOKESTATIC) {
+      return false;
+    }
+    MethodInsnNode call = (MethodInsnNode) instruction;
+    return BUTTERKNIFE.equals(call.owner) && INJECT.equals(call.name)
+        && DESCRIPTORS.contains(call.desc);
+  }
+
+  /**
+   * Tracks the static type of each reference, e.g., the type of {@code this} or of the field it
+   * was read from, as long as it is the same on all paths.
+   */
+  static final class TypeInterpreter extends BasicInterpreter {
+    TypeInterpreter() {
+      super(Opcodes.ASM4);
+    }
+
+    @Override public BasicValue newValue(Type type) {
+      if (type != null && type.getSort() == Type.OBJECT) {
+        return new BasicValue(type);
+      }
+      return super.newValue(type);
+    }
+
+    @Override public BasicValue merge(BasicValue v, BasicValue w) {
+      if (!v.equals(w) && v.isReference() && w.isReference()) {
+        return BasicValue.REFERENCE_VALUE;
+      }
+      return super.merge(v, w);
+    }
+  }
+}
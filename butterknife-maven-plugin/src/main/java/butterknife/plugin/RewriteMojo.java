@@ -0,0 +1,152 @@
+package butterknife.plugin;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.objectweb.asm.tree.analysis.AnalyzerException;
+
+import static butterknife.plugin.InjectCallRewriter.MAX_VERSION;
+import static butterknife.plugin.InjectCallRewriter.SUFFIX;
+import static butterknife.plugin.InjectCallRewriter.canRead;
+import static butterknife.plugin.InjectCallRewriter.majorVersion;
+
+/**
+ * Rewrites the calls of {@code ButterKnife.inject} in the compiled classes to use the generated
+ * injector of the target's static type directly rather than looking it up at runtime. Run it
+ * after the classes, and with them the injectors, were compiled:
+ * <pre>{@code
+ * <plugin>
+ *   <groupId>com.jakewharton</groupId>
+ *   <artifactId>butterknife-maven-plugin</artifactId>
+ *   <executions>
+ *     <execution>
+ *       <goals>
+ *         <goal>rewrite</goal>
+ *       </goals>
+ *     </execution>
+ *   </executions>
+ * </plugin>
+ * }</pre>
+ * Injectors merged with the {@code butterknife.merge} option are still looked up. Classes which
+ * are newer than the class file version this plugin can read are skipped with a warning, and
+ * their calls look their injectors up.
+ *
+ * @goal rewrite
+ * @phase process-classes
+ * @threadSafe
+ */
+public class RewriteMojo extends AbstractMojo {
+  private static final String CLASS_EXTENSION = ".class";
+  private static final int BUFFER_SIZE = 8192;
+
+  /**
+   * The directory of the compiled classes and injectors.
+   *
+   * @parameter default-value="${project.build.outputDirectory}"
+   * @required
+   */
+  private File classesDirectory;
+
+  @Override public void execute() throws MojoExecutionException {
+    if (!classesDirectory.isDirectory()) {
+      getLog().info("No classes to rewrite.");
+      return;
+    }
+    List<File> classFiles = new ArrayList<File>();
+    findClassFiles(classesDirectory, classFiles);
+
+    Set<String> targets = new HashSet<String>();
+    for (File classFile : classFiles) {
+      String name = internalName(classFile);
+      if (name.endsWith(SUFFIX)) {
+        targets.add(name.substring(0, name.length() - SUFFIX.length()));
+      }
+    }
+    if (targets.isEmpty()) {
+      getLog().info("No injectors found.");
+      return;
+    }
+
+    InjectCallRewriter rewriter = new InjectCallRewriter(targets);
+    int rewritten = 0;
+    for (File classFile : classFiles) {
+      if (internalName(classFile).endsWith(SUFFIX)) {
+        continue;
+      }
+      try {
+        byte[] original = read(classFile);
+        if (!canRead(original)) {
+          getLog().warn("Skipping " + classFile + ": class file version "
+              + majorVersion(original) + " is newer than the supported " + MAX_VERSION + ".");
+          continue;
+        }
+        byte[] bytes = rewriter.rewrite(original);
+        if (bytes != null) {
+          write(classFile, bytes);
+          rewritten++;
+        }
+      } catch (IOException e) {
+        throw new MojoExecutionException("Unable to rewrite " + classFile, e);
+      } catch (AnalyzerException e) {
+        throw new MojoExecutionException("Unable to rewrite " + classFile, e);
+      }
+    }
+    getLog().info("Rewrote calls of ButterKnife.inject in " + rewritten + " classes.");
+  }
+
+  private static void findClassFiles(File directory, List<File> classFiles) {
+    File[] files = directory.listFiles();
+    if (files == null) {
+      return;
+    }
+    for (File file : files) {
+      if (file.isDirectory()) {
+        findClassFiles(file, classFiles);
+      } else if (file.getName().endsWith(CLASS_EXTENSION)) {
+        classFiles.add(file);
+      }
+    }
+  }
+
+  private String internalName(File classFile) {
+    String path = classFile.getPath();
+    path = path.substring(classesDirectory.getPath().length() + 1,
+        path.length() - CLASS_EXTENSION.length());
+    return path.replace(File.separatorChar, '/');
+  }
+
+  private static byte[] read(File file) throws IOException {
+    InputStream in = new FileInputStream(file);
+    try {
+      ByteArrayOutputStream out = new ByteArrayOutputStream((int) file.length());
+      byte[] buffer = new byte[BUFFER_SIZE];
+      int count = in.read(buffer);
+      while (count != -1) {
+        out.write(buffer, 0, count);
+        count = in.read(buffer);
+      }
+      return out.toByteArray();
+    } finally {
+      in.close();
+    }
+  }
+
+  private static void write(File file, byte[] bytes) throws IOException {
+    OutputStream out = new FileOutputStream(file);
+    try {
+      out.write(bytes);
+    } finally {
+      out.close();
+    }
+  }
+}
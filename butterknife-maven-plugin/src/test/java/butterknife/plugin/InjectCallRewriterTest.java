@@ -0,0 +1,295 @@
+package butterknife.plugin;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldInsnNode;
+import org.objectweb.asm.tree.LdcInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+public class InjectCallRewriterTest {
+  private static final String INJECT_ACTIVITY =
+      "(Landroid/app/Activity;)Lbutterknife/ButterKnife$Unbinder;";
+  private static final String INJECT_VIEW =
+      "(Ljava/lang/Object;Landroid/view/View;)Lbutterknife/ButterKnife$Unbinder;";
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final InjectCallRewriter rewriter =
+      new InjectCallRewriter(Collections.singleton("test/Test"));
+
+  @Test public void rewrittenCompiledCallPassesSharedInjector() throws Exception {
+    File classes = compile(
+        "package android.view;\n"
+            + "public class View {\n"
+            + "}\n",
+        // Only what the call sites and injectors need, recording what injectDirect receives.
+        "package butterknife;\n"
+            + "import android.view.View;\n"
+            + "public class ButterKnife {\n"
+            + "  public static Object lastInjector;\n"
+            + "  public interface Unbinder {\n"
+            + "  }\n"
+            + "  public abstract static class Injector<T> {\n"
+            + "  }\n"
+            + "  public static Unbinder inject(Object target, View source) {\n"
+            + "    throw new AssertionError();\n"
+            + "  }\n"
+            + "  public static Unbinder injectDirect(Object target, View source,\n"
+            + "      Class<?> targetClass, Injector<Object> injector) {\n"
+            + "    lastInjector = injector;\n"
+            + "    return null;\n"
+            + "  }\n"
+            + "}\n",
+        "package test;\n"
+            + "import android.view.View;\n"
+            + "import butterknife.ButterKnife;\n"
+            + "public class Test implements Runnable {\n"
+            + "  @Override public void run() {\n"
+            + "    ButterKnife.inject(this, new View());\n"
+            + "  }\n"
+            + "}\n",
+        "package test;\n"
+            + "import butterknife.ButterKnife.Injector;\n"
+            + "public class Test$$ViewInjector<T extends Test> extends Injector<T> {\n"
+            + "  public static final Test$$ViewInjector<Test> INSTANCE =\n"
+            + "      new Test$$ViewInjector<Test>();\n"
+            + "}\n");
+    File classFile = new File(classes, "test/Test.class");
+    byte[] rewritten = rewriter.rewrite(read(classFile));
+    assertThat(rewritten).isNotNull();
+
+    ClassNode classNode = new ClassNode();
+    new ClassReader(rewritten).accept(classNode, 0);
+    List<Integer> opcodes = new ArrayList<Integer>();
+    for (Object method : classNode.methods) {
+      if (((MethodNode) method).name.equals("run")) {
+        for (AbstractInsnNode instruction : ((MethodNode) method).instructions.toArray()) {
+          if (instruction.getOpcode() != -1) { // Not a label or line number.
+            opcodes.add(instruction.getOpcode());
+          }
+        }
+      }
+    }
+    // The target, the new source view, then the target type and the shared injector.
+    assertThat(opcodes).isEqualTo(Arrays.asList(Opcodes.ALOAD, Opcodes.NEW, Opcodes.DUP,
+        Opcodes.INVOKESPECIAL, Opcodes.LDC, Opcodes.GETSTATIC, Opcodes.INVOKESTATIC, Opcodes.POP,
+        Opcodes.RETURN));
+
+    // The verifier accepts the rewritten class, and calling it passes the shared instance.
+    write(classFile, rewritten);
+    ClassLoader loader = new URLClassLoader(new URL[] { classes.toURI().toURL() }, null);
+    ((Runnable) loader.loadClass("test.Test").newInstance()).run();
+    Field lastInjector = loader.loadClass("butterknife.ButterKnife").getField("lastInjector");
+    Field instance = loader.loadClass("test.Test$$ViewInjector").getField("INSTANCE");
+    assertThat(lastInjector.get(null)).isNotNull().isSameAs(instance.get(null));
+  }
+
+  @Test public void rewritesInjectOfThis() throws Exception {
+    ClassWriter writer = newClass("test/Test");
+    MethodVisitor method = writer.visitMethod(0, "onCreate", "()V", null, null);
+    method.visitCode();
+    method.visitVarInsn(Opcodes.ALOAD, 0);
+    method.visitMethodInsn(Opcodes.INVOKESTATIC, "butterknife/ButterKnife", "inject",
+        INJECT_ACTIVITY);
+    method.visitInsn(Opcodes.POP);
+    method.visitInsn(Opcodes.RETURN);
+    method.visitMaxs(0, 0);
+    method.visitEnd();
+
+    AbstractInsnNode[] instructions = rewrite(writer, "onCreate");
+    assertThat(((LdcInsnNode) instructions[1]).cst).isEqualTo(Type.getObjectType("test/Test"));
+    FieldInsnNode instance = (FieldInsnNode) instructions[2];
+    assertThat(instance.getOpcode()).isEqualTo(Opcodes.GETSTATIC);
+    assertThat(instance.owner).isEqualTo("test/Test$$ViewInjector");
+    assertThat(instance.name).isEqualTo("INSTANCE");
+    assertThat(instance.desc).isEqualTo("Ltest/Test$$ViewInjector;");
+    MethodInsnNode call = (MethodInsnNode) instructions[3];
+    assertThat(call.name).isEqualTo("injectDirect");
+    assertThat(call.desc).isEqualTo("(Landroid/app/Activity;Ljava/lang/Class;"
+        + "Lbutterknife/ButterKnife$Injector;)Lbutterknife/ButterKnife$Unbinder;");
+  }
+
+  @Test public void rewritesInjectOfFieldIntoView() throws Exception {
+    ClassWriter writer = newClass("test/Other");
+    writer.visitField(0, "holder", "Ltest/Test;", null, null).visitEnd();
+    MethodVisitor method = writer.visitMethod(0, "bind", "(Landroid/view/View;)V", null, null);
+    method.visitCode();
+    method.visitVarInsn(Opcodes.ALOAD, 0);
+    method.visitFieldInsn(Opcodes.GETFIELD, "test/Other", "holder", "Ltest/Test;");
+    method.visitVarInsn(Opcodes.ALOAD, 1);
+    method.visitMethodInsn(Opcodes.INVOKESTATIC, "butterknife/ButterKnife", "inject",
+        INJECT_VIEW);
+    method.visitInsn(Opcodes.POP);
+    method.visitInsn(Opcodes.RETURN);
+    method.visitMaxs(0, 0);
+    method.visitEnd();
+
+    AbstractInsnNode[] instructions = rewrite(writer, "bind");
+    assertThat(((MethodInsnNode) instructions[5]).name).isEqualTo("injectDirect");
+  }
+
+  @Test public void ignoresTargetsWithoutInjector() throws Exception {
+    ClassWriter writer = newClass("test/Other");
+    MethodVisitor method =
+        writer.visitMethod(0, "inject", "(Landroid/app/Activity;)V", null, null);
+    method.visitCode();
+    method.visitVarInsn(Opcodes.ALOAD, 1);
+    method.visitMethodInsn(Opcodes.INVOKESTATIC, "butterknife/ButterKnife", "inject",
+        INJECT_ACTIVITY);
+    method.visitInsn(Opcodes.POP);
+    method.visitInsn(Opcodes.RETURN);
+    method.visitMaxs(0, 0);
+    method.visitEnd();
+
+    assertThat(rewriter.rewrite(finish(writer))).isNull();
+  }
+
+  @Test public void ignoresTargetsOfDifferentTypesOnDifferentPaths() throws Exception {
+    ClassWriter writer = newClass("test/Other");
+    MethodVisitor method =
+        writer.visitMethod(0, "inject", "(ZLtest/Test;Landroid/view/View;)V", null, null);
+    method.visitCode();
+    Label other = new Label();
+    Label call = new Label();
+    method.visitVarInsn(Opcodes.ILOAD, 1);
+    method.visitJumpInsn(Opcodes.IFEQ, other);
+    method.visitVarInsn(Opcodes.ALOAD, 2);
+    method.visitJumpInsn(Opcodes.GOTO, call);
+    method.visitLabel(other);
+    method.visitVarInsn(Opcodes.ALOAD, 0);
+    method.visitLabel(call);
+    method.visitVarInsn(Opcodes.ALOAD, 3);
+    method.visitMethodInsn(Opcodes.INVOKESTATIC, "butterknife/ButterKnife", "inject",
+        INJECT_VIEW);
+    method.visitInsn(Opcodes.POP);
+    method.visitInsn(Opcodes.RETURN);
+    method.visitMaxs(0, 0);
+    method.visitEnd();
+
+    assertThat(rewriter.rewrite(finish(writer))).isNull();
+  }
+
+  @Test public void detectsUnsupportedClassFileVersions() throws Exception {
+    byte[] classFile = finish(newClass("test/Other"));
+    assertThat(InjectCallRewriter.majorVersion(classFile)).isEqualTo(Opcodes.V1_6);
+    assertThat(InjectCallRewriter.canRead(classFile)).isTrue();
+
+    // Java 8 class files, which ASM 4 rejects.
+    classFile[7] = (byte) (InjectCallRewriter.MAX_VERSION + 1);
+    assertThat(InjectCallRewriter.majorVersion(classFile))
+        .isEqualTo(InjectCallRewriter.MAX_VERSION + 1);
+    assertThat(InjectCallRewriter.canRead(classFile)).isFalse();
+  }
+
+  /** Compile {@code sources} for the Java version of Android and return the class directory. */
+  private File compile(String... sources) throws IOException {
+    File sourceDirectory = temporaryFolder.newFolder("sources");
+    File classes = temporaryFolder.newFolder("classes");
+    List<File> files = new ArrayList<File>();
+    for (String source : sources) {
+      String packageName = source.substring("package ".length(), source.indexOf(';'));
+      int nameStart = source.indexOf("public class ") + "public class ".length();
+      int nameEnd = nameStart;
+      while (Character.isJavaIdentifierPart(source.charAt(nameEnd))) {
+        nameEnd++;
+      }
+      File file = new File(sourceDirectory,
+          packageName.replace('.', '/') + "/" + source.substring(nameStart, nameEnd) + ".java");
+      file.getParentFile().mkdirs();
+      Writer writer = new FileWriter(file);
+      try {
+        writer.write(source);
+      } finally {
+        writer.close();
+      }
+      files.add(file);
+    }
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
+    try {
+      boolean compiled = compiler.getTask(null, fileManager, null,
+          Arrays.asList("-source", "1.6", "-target", "1.6", "-nowarn", "-d", classes.getPath()),
+          null, fileManager.getJavaFileObjectsFromFiles(files)).call();
+      assertThat(compiled).isTrue();
+    } finally {
+      fileManager.close();
+    }
+    return classes;
+  }
+
+  private static byte[] read(File file) throws IOException {
+    byte[] bytes = new byte[(int) file.length()];
+    InputStream in = file.toURI().toURL().openStream();
+    try {
+      int offset = 0;
+      while (offset < bytes.length) {
+        offset += in.read(bytes, offset, bytes.length - offset);
+      }
+    } finally {
+      in.close();
+    }
+    return bytes;
+  }
+
+  private static void write(File file, byte[] bytes) throws IOException {
+    OutputStream out = new FileOutputStream(file);
+    try {
+      out.write(bytes);
+    } finally {
+      out.close();
+    }
+  }
+
+  private static ClassWriter newClass(String name) {
+    ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+    writer.visit(Opcodes.V1_6, Opcodes.ACC_PUBLIC, name, null, "java/lang/Object", null);
+    return writer;
+  }
+
+  private static byte[] finish(ClassWriter writer) {
+    writer.visitEnd();
+    return writer.toByteArray();
+  }
+
+  private AbstractInsnNode[] rewrite(ClassWriter writer, String methodName) throws Exception {
+    byte[] rewritten = rewriter.rewrite(finish(writer));
+    assertThat(rewritten).isNotNull();
+    ClassNode classNode = new ClassNode();
+    new ClassReader(rewritten).accept(classNode, 0);
+    for (Object method : classNode.methods) {
+      if (((MethodNode) method).name.equals(methodName)) {
+        return ((MethodNode) method).instructions.toArray();
+      }
+    }
+    throw new AssertionError("No method " + methodName);
+  }
+}
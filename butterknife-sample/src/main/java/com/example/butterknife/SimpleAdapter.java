@@ -6,7 +6,9 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.widget.BaseAdapter;
 import android.widget.TextView;
+import butterknife.BindText;
 import butterknife.ButterKnife;
+import butterknife.ButterKnife.Injector;
 import butterknife.InjectView;
 
 public class SimpleAdapter extends BaseAdapter {
@@ -14,9 +16,14 @@ public class SimpleAdapter extends BaseAdapter {
       "The quick brown fox jumps over the lazy dog".split(" ");
 
   private final LayoutInflater inflater;
+  // Bound to the rows as they are, so that binding a row does not allocate a model.
+  private final Word[] words = new Word[CONTENTS.length];
 
   public SimpleAdapter(Context context) {
     inflater = LayoutInflater.from(context);
+    for (int i = 0; i < words.length; i++) {
+      words[i] = new Word(CONTENTS[i], i);
+    }
   }
 
   @Override public int getCount() {
@@ -41,22 +48,49 @@ public class SimpleAdapter extends BaseAdapter {
       view.setTag(holder);
     }
 
-    String word = getItem(position);
-    holder.word.setText("Word: " + word);
-    holder.length.setText("Length: " + word.length());
-    holder.position.setText("Position: " + position);
-    // Note: don't actually do string concatenation like this in an adapter's getView.
+    holder.bind(words[position]);
 
     return view;
   }
 
+  static final class Word {
+    final String text;
+    final int position;
+
+    Word(String text, int position) {
+      this.text = text;
+      this.position = position;
+    }
+  }
+
   static class ViewHolder {
+    // Look the injector up once rather than for every row which is inflated.
+    private static final Injector<ViewHolder> INJECTOR = ButterKnife.getInjector(ViewHolder.class);
+
     @InjectView(R.id.word) TextView word;
     @InjectView(R.id.length) TextView length;
     @InjectView(R.id.position) TextView position;
 
     ViewHolder(View view) {
-      ButterKnife.inject(this, view);
+      INJECTOR.inject(this, view);
+    }
+
+    /** Only the texts which differ from those of the recycled row are set. */
+    void bind(Word word) {
+      INJECTOR.bind(this, word);
+    }
+
+    // Note: don't actually do string concatenation like this in an adapter's getView.
+    @BindText(R.id.word) CharSequence wordText(Word word) {
+      return "Word: " + word.text;
+    }
+
+    @BindText(R.id.length) CharSequence lengthText(Word word) {
+      return "Length: " + word.text.length();
+    }
+
+    @BindText(R.id.position) CharSequence positionText(Word word) {
+      return "Position: " + word.position;
     }
   }
 }
@@ -0,0 +1,48 @@
+package com.example.butterknife;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Counts the bytes allocated by the current thread while running an operation. Backed by the
+ * HotSpot per-thread allocation counter which is exact apart from the counter's own bookkeeping.
+ */
+final class Allocations {
+  private static final com.sun.management.ThreadMXBean THREADS =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+  private static final int BATCHES = 5;
+
+  interface Operation {
+    void run();
+  }
+
+  private Allocations() {
+    // No instances.
+  }
+
+  /**
+   * Run {@code operation} {@code count} times to reach a steady state and then return the fewest
+   * bytes allocated per run over several batches of another {@code count} runs. Taking the
+   * smallest batch filters out allocations made while the JIT is still settling.
+   */
+  static long perOperation(int count, Operation operation) {
+    if (!THREADS.isThreadAllocatedMemorySupported()) {
+      throw new AssertionError("Allocation counting is not supported on this VM.");
+    }
+    THREADS.setThreadAllocatedMemoryEnabled(true);
+
+    for (int i = 0; i < count; i++) {
+      operation.run();
+    }
+    long threadId = Thread.currentThread().getId();
+    long fewest = Long.MAX_VALUE;
+    for (int batch = 0; batch < BATCHES; batch++) {
+      long before = THREADS.getThreadAllocatedBytes(threadId);
+      for (int i = 0; i < count; i++) {
+        operation.run();
+      }
+      long after = THREADS.getThreadAllocatedBytes(threadId);
+      fewest = Math.min(fewest, (after - before) / count);
+    }
+    return fewest;
+  }
+}
@@ -0,0 +1,89 @@
+package com.example.butterknife;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Times a scenario and compares it against the baseline recorded in
+ * {@code benchmark-baselines.properties}.
+ * <p>
+ * A scenario fails when its median time per operation exceeds its baseline by more than the
+ * threshold factor. Since the times depend on the machine, the benchmarks only run in the
+ * {@code benchmarks} profile, {@code mvn test -Pbenchmarks}, and the baselines are those of the
+ * reference configuration named in the baselines file. Add {@code -Dbenchmark.record=true} to print
+ * fresh values for that file instead of asserting, and {@code -Dbenchmark.threshold=<factor>} to
+ * override the recorded threshold on other machines.
+ */
+final class Benchmark {
+  private static final String BASELINES = "benchmark-baselines.properties";
+  private static final int WARMUP_RUNS = 3;
+  private static final int MEASURED_RUNS = 7;
+
+  interface Scenario {
+    /** Perform {@code count} operations of this scenario. */
+    void run(int count);
+  }
+
+  private static Properties baselines;
+
+  private Benchmark() {
+    // No instances.
+  }
+
+  /**
+   * Measure {@code scenario} in runs of {@code count} operations and assert that the median time
+   * per operation is within the threshold of the recorded baseline for {@code name}.
+   */
+  static void assertWithinBaseline(String name, int count, Scenario scenario) {
+    for (int i = 0; i < WARMUP_RUNS; i++) {
+      scenario.run(count);
+    }
+    long[] runs = new long[MEASURED_RUNS];
+    for (int i = 0; i < MEASURED_RUNS; i++) {
+      long start = System.nanoTime();
+      scenario.run(count);
+      runs[i] = (System.nanoTime() - start) / count;
+    }
+    Arrays.sort(runs);
+    long median = runs[MEASURED_RUNS / 2];
+
+    if (Boolean.getBoolean("benchmark.record")) {
+      System.out.println(name + ".nanos=" + median);
+      return;
+    }
+
+    Properties baselines = baselines();
+    String baseline = baselines.getProperty(name + ".nanos");
+    if (baseline == null) {
+      throw new AssertionError("No baseline recorded for '" + name + "' in " + BASELINES + ".");
+    }
+    double threshold = Double.parseDouble(
+        System.getProperty("benchmark.threshold", baselines.getProperty("threshold")));
+    long allowed = (long) (Long.parseLong(baseline) * threshold);
+    if (median > allowed) {
+      throw new AssertionError(String.format(
+          "Scenario '%s' regressed: median %d ns/op exceeds baseline %s ns/op by more than %.1fx.",
+          name, median, baseline, threshold));
+    }
+  }
+
+  private static synchronized Properties baselines() {
+    if (baselines == null) {
+      Properties properties = new Properties();
+      InputStream in = Benchmark.class.getClassLoader().getResourceAsStream(BASELINES);
+      if (in == null) {
+        throw new AssertionError("Missing " + BASELINES + " on the test classpath.");
+      }
+      try {
+        properties.load(in);
+        in.close();
+      } catch (IOException e) {
+        throw new AssertionError(e);
+      }
+      baselines = properties;
+    }
+    return baselines;
+  }
+}
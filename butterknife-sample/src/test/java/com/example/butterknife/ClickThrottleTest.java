@@ -0,0 +1,50 @@
+package com.example.butterknife;
+
+import android.content.Context;
+import android.view.View;
+import android.widget.FrameLayout;
+import butterknife.ButterKnife;
+import butterknife.OnClick;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+@RunWith(RobolectricTestRunner.class)
+public class ClickThrottleTest {
+  static class Form {
+    int submits;
+
+    @OnClick(value = { R.id.word, R.id.length }, minInterval = 1000,
+        throttle = OnClick.Throttle.TARGET)
+    void submit() {
+      submits++;
+    }
+  }
+
+  @Test public void throttlePerTargetSpansReInjectedViews() {
+    Context context = Robolectric.application;
+    FrameLayout root = new FrameLayout(context);
+    View word = new View(context);
+    word.setId(R.id.word);
+    root.addView(word);
+    View length = new View(context);
+    length.setId(R.id.length);
+    root.addView(length);
+
+    Form form = new Form();
+    ButterKnife.inject(form, root);
+    word.performClick();
+
+    View rebound = new View(context);
+    rebound.setId(R.id.length);
+    root.removeView(length);
+    root.addView(rebound);
+    ButterKnife.inject(form, root, R.id.length);
+    // Within the interval of the click of the original view.
+    rebound.performClick();
+    assertThat(form.submits).isEqualTo(1);
+  }
+}
@@ -0,0 +1,216 @@
+package com.example.butterknife;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+import butterknife.ButterKnife;
+import butterknife.InjectHolder;
+import butterknife.InjectView;
+import butterknife.OnClick;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import static com.example.butterknife.Allocations.Operation;
+import static com.example.butterknife.Allocations.perOperation;
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.robolectric.Robolectric.shadowOf;
+
+/**
+ * Allocation budgets for steady-state injection, reset, and click dispatch, in bytes allocated per
+ * operation on top of doing the same work by hand. Re-injection, reset and clicks allocate
+ * nothing. A full injection allocates only what it must hand out: the unbinders of the target and
+ * its holders, and the listeners it attaches. Sizes assume a 64-bit VM with compressed
+ * references, where an object is a 12-byte header plus 4 bytes per reference, padded to a multiple
+ * of 8. Unlike the timings of {@link InjectionBenchmarkTest}, these do not depend on the machine,
+ * so they run with the regular tests.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class InjectionAllocationTest {
+  private static final int COUNT = 10000;
+
+  /** The unbinder: a header and references to its injector and the target, plus listener views. */
+  private static final long UNBINDER_BUDGET = 24;
+  /** A generated click listener: a header and references to its injector and the target. */
+  private static final long LISTENER_BUDGET = 24;
+  /**
+   * A target with two holders: its unbinder, which refers to its injector and to the unbinder of
+   * each holder, plus those two unbinders.
+   */
+  private static final long HOLDERS_BUDGET = 3 * UNBINDER_BUDGET;
+
+  private static final int FIRST_ROW = 1;
+  private static final int SECOND_ROW = 2;
+
+  private View root;
+  private FieldHolder fieldHolder;
+  private ClickHolder holder;
+  private View rows;
+  private RowsHolder rowsHolder;
+
+  @Before public void setUp() {
+    ButterKnife.setDebug(false); // Debug logging allocates its messages.
+    root = LayoutInflater.from(Robolectric.application).inflate(R.layout.simple_list_item, null);
+    fieldHolder = new FieldHolder();
+    ButterKnife.inject(fieldHolder, root);
+    holder = new ClickHolder();
+    ButterKnife.inject(holder, root);
+
+    LayoutInflater inflater = LayoutInflater.from(Robolectric.application);
+    LinearLayout rows = new LinearLayout(Robolectric.application);
+    View firstRow = inflater.inflate(R.layout.simple_list_item, rows, false);
+    firstRow.setId(FIRST_ROW);
+    rows.addView(firstRow);
+    View secondRow = inflater.inflate(R.layout.simple_list_item, rows, false);
+    secondRow.setId(SECOND_ROW);
+    rows.addView(secondRow);
+    this.rows = rows;
+    rowsHolder = new RowsHolder();
+    ButterKnife.inject(rowsHolder, rows);
+  }
+
+  @Test public void injectRecycledHolderAllocatesOnlyUnbinder() {
+    long manual = perOperation(COUNT, new Operation() {
+      @Override public void run() {
+        fieldHolder.word = (TextView) root.findViewById(R.id.word);
+        fieldHolder.length = (TextView) root.findViewById(R.id.length);
+        fieldHolder.position = (TextView) root.findViewById(R.id.position);
+      }
+    });
+    long injected = perOperation(COUNT, new Operation() {
+      @Override public void run() {
+        ButterKnife.inject(fieldHolder, root);
+      }
+    });
+    assertThat(injected - manual).isLessThanOrEqualTo(UNBINDER_BUDGET);
+  }
+
+  @Test public void injectRecycledHolderAllocatesOnlyUnbinderAndListener() {
+    long manual = perOperation(COUNT, new Operation() {
+      @Override public void run() {
+        holder.word = (TextView) root.findViewById(R.id.word);
+        holder.length = (TextView) root.findViewById(R.id.length);
+        holder.position = (TextView) root.findViewById(R.id.position);
+        root.findViewById(R.id.word).setOnClickListener(null);
+      }
+    });
+    long injected = perOperation(COUNT, new Operation() {
+      @Override public void run() {
+        ButterKnife.inject(holder, root);
+      }
+    });
+    assertThat(injected - manual).isLessThanOrEqualTo(UNBINDER_BUDGET + LISTENER_BUDGET);
+  }
+
+  @Test public void injectRecycledHoldersAllocatesOnlyUnbinders() {
+    long manual = perOperation(COUNT, new Operation() {
+      @Override public void run() {
+        injectByHand(rowsHolder.first, rows.findViewById(FIRST_ROW));
+        injectByHand(rowsHolder.second, rows.findViewById(SECOND_ROW));
+      }
+    });
+    long injected = perOperation(COUNT, new Operation() {
+      @Override public void run() {
+        ButterKnife.inject(rowsHolder, rows);
+      }
+    });
+    assertThat(injected - manual).isLessThanOrEqualTo(HOLDERS_BUDGET);
+  }
+
+  @Test public void reInjectRecycledHolder() {
+    final int[] ids = { R.id.word, R.id.length, R.id.position };
+    long manual = perOperation(COUNT, new Operation() {
+      @Override public void run() {
+        fieldHolder.word = (TextView) root.findViewById(R.id.word);
+        fieldHolder.length = (TextView) root.findViewById(R.id.length);
+        fieldHolder.position = (TextView) root.findViewById(R.id.position);
+      }
+    });
+    long injected = perOperation(COUNT, new Operation() {
+      @Override public void run() {
+        ButterKnife.inject(fieldHolder, root, ids);
+      }
+    });
+    assertThat(injected - manual).isLessThanOrEqualTo(0);
+  }
+
+  @Test public void reset() {
+    long manual = perOperation(COUNT, new Operation() {
+      @Override public void run() {
+        holder.word = null;
+        holder.length = null;
+        holder.position = null;
+      }
+    });
+    long reset = perOperation(COUNT, new Operation() {
+      @Override public void run() {
+        ButterKnife.reset(holder);
+      }
+    });
+    assertThat(reset - manual).isLessThanOrEqualTo(0);
+  }
+
+  @Test public void resetHolders() {
+    long manual = perOperation(COUNT, new Operation() {
+      @Override public void run() {
+        resetByHand(rowsHolder.first);
+        resetByHand(rowsHolder.second);
+      }
+    });
+    long reset = perOperation(COUNT, new Operation() {
+      @Override public void run() {
+        ButterKnife.reset(rowsHolder);
+      }
+    });
+    assertThat(reset - manual).isLessThanOrEqualTo(0);
+  }
+
+  @Test public void clickDispatch() {
+    final View word = holder.word;
+    final View.OnClickListener listener = shadowOf(word).getOnClickListener();
+    long clicks = perOperation(COUNT, new Operation() {
+      @Override public void run() {
+        listener.onClick(word);
+      }
+    });
+    assertThat(clicks).isEqualTo(0);
+    assertThat(holder.clicks).isGreaterThan(COUNT);
+  }
+
+  private static void injectByHand(FieldHolder holder, View row) {
+    holder.word = (TextView) row.findViewById(R.id.word);
+    holder.length = (TextView) row.findViewById(R.id.length);
+    holder.position = (TextView) row.findViewById(R.id.position);
+  }
+
+  private static void resetByHand(FieldHolder holder) {
+    holder.word = null;
+    holder.length = null;
+    holder.position = null;
+  }
+
+  static class FieldHolder {
+    @InjectView(R.id.word) TextView word;
+    @InjectView(R.id.length) TextView length;
+    @InjectView(R.id.position) TextView position;
+  }
+
+  static class ClickHolder {
+    @InjectView(R.id.word) TextView word;
+    @InjectView(R.id.length) TextView length;
+    @InjectView(R.id.position) TextView position;
+    int clicks;
+
+    @OnClick(R.id.word) void onWordClicked() {
+      clicks++;
+    }
+  }
+
+  static class RowsHolder {
+    @InjectHolder(FIRST_ROW) FieldHolder first;
+    @InjectHolder(SECOND_ROW) FieldHolder second;
+  }
+}
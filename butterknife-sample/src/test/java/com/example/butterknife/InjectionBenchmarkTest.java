@@ -0,0 +1,109 @@
+package com.example.butterknife;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+import butterknife.ButterKnife;
+import butterknife.InjectView;
+import butterknife.OnClick;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import static com.example.butterknife.Benchmark.Scenario;
+import static com.example.butterknife.Benchmark.assertWithinBaseline;
+
+/**
+ * Scenario benchmarks for the injection paths users hit. Baselines live in the test resources.
+ * These are excluded from the regular build; run them with {@code mvn test -Pbenchmarks}.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class InjectionBenchmarkTest {
+  private static final int VISIBLE_ROWS = 10;
+  private static final int HIERARCHY_DEPTH = 12;
+  private static final int VIEWS_PER_LEVEL = 4;
+
+  @Test public void activityCreateAndInject() {
+    assertWithinBaseline("activityCreateAndInject", 3, new Scenario() {
+      @Override public void run(int count) {
+        for (int i = 0; i < count; i++) {
+          Robolectric.buildActivity(SimpleActivity.class).create();
+        }
+      }
+    });
+  }
+
+  @Test public void adapterScroll() {
+    final Context context = Robolectric.application;
+    final ViewGroup parent = new FrameLayout(context);
+    assertWithinBaseline("adapterScroll", 5000, new Scenario() {
+      @Override public void run(int count) {
+        SimpleAdapter adapter = new SimpleAdapter(context);
+        View[] rows = new View[VISIBLE_ROWS];
+        for (int i = 0; i < count; i++) {
+          int row = i % VISIBLE_ROWS;
+          rows[row] = adapter.getView(i % adapter.getCount(), rows[row], parent);
+        }
+      }
+    });
+  }
+
+  @Test public void deepHierarchyInject() {
+    final View root = deepHierarchy(Robolectric.application);
+    final DeepHolder holder = new DeepHolder();
+    assertWithinBaseline("deepHierarchyInject", 2000, new Scenario() {
+      @Override public void run(int count) {
+        for (int i = 0; i < count; i++) {
+          ButterKnife.inject(holder, root);
+        }
+      }
+    });
+  }
+
+  /**
+   * Build a hierarchy {@value #HIERARCHY_DEPTH} levels deep with {@value #VIEWS_PER_LEVEL} views
+   * on each level. Views are given sequential IDs starting at 1 from the root downward.
+   */
+  private static View deepHierarchy(Context context) {
+    LinearLayout root = new LinearLayout(context);
+    LinearLayout parent = root;
+    int id = 1;
+    for (int depth = 0; depth < HIERARCHY_DEPTH; depth++) {
+      for (int i = 0; i < VIEWS_PER_LEVEL; i++) {
+        TextView child = new TextView(context);
+        child.setId(id++);
+        parent.addView(child);
+      }
+      LinearLayout next = new LinearLayout(context);
+      parent.addView(next);
+      parent = next;
+    }
+    return root;
+  }
+
+  static class DeepHolder {
+    @InjectView(1) TextView view1;
+    @InjectView(4) TextView view4;
+    @InjectView(7) TextView view7;
+    @InjectView(10) TextView view10;
+    @InjectView(13) TextView view13;
+    @InjectView(16) TextView view16;
+    @InjectView(19) TextView view19;
+    @InjectView(22) TextView view22;
+    @InjectView(25) TextView view25;
+    @InjectView(28) TextView view28;
+    @InjectView(31) TextView view31;
+    @InjectView(34) TextView view34;
+    @InjectView(37) TextView view37;
+    @InjectView(40) TextView view40;
+    @InjectView(43) TextView view43;
+    @InjectView(46) TextView view46;
+
+    @OnClick({ 2, 24, 48 }) void onClick() {
+    }
+  }
+}
@@ -3,6 +3,7 @@ package com.example.butterknife;
 import android.content.Context;
 import android.view.LayoutInflater;
 import android.view.View;
+import android.widget.FrameLayout;
 import butterknife.ButterKnife;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -29,4 +30,19 @@ public class SimpleAdapterTest {
     assertThat(holder.length).isNull();
     assertThat(holder.position).isNull();
   }
+
+  @Test public void verifyRowIsBound() {
+    SimpleAdapter adapter = new SimpleAdapter(Robolectric.application);
+    FrameLayout parent = new FrameLayout(Robolectric.application);
+
+    View row = adapter.getView(2, null, parent);
+    ViewHolder holder = (ViewHolder) row.getTag();
+    assertThat(holder.word).hasText("Word: brown");
+    assertThat(holder.length).hasText("Length: 5");
+    assertThat(holder.position).hasText("Position: 2");
+
+    adapter.getView(3, row, parent);
+    assertThat(holder.word).hasText("Word: fox");
+    assertThat(holder.position).hasText("Position: 3");
+  }
 }
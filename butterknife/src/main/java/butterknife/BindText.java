@@ -0,0 +1,26 @@
+package butterknife;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.CLASS;
+
+/**
+ * Bind the text returned by a method to the {@code TextView} injected with the specified ID.
+ * The method takes the model passed to {@link ButterKnife#bind(Object, Object)} and returns a
+ * {@code CharSequence}:
+ * <pre>{@code
+ * @InjectView(R.id.title) TextView title;
+ *
+ * @BindText(R.id.title) CharSequence title(Item item) {
+ *   return item.getTitle();
+ * }
+ * }</pre>
+ * The text is only set if it differs from the one the view shows, so binding an unchanged model
+ * again does not request a layout.
+ */
+@Retention(CLASS) @Target(METHOD)
+public @interface BindText {
+  int value();
+}
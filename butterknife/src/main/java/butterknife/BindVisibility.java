@@ -0,0 +1,17 @@
+package butterknife;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.CLASS;
+
+/**
+ * Bind the visibility returned by a method, e.g., {@code View.GONE}, to the view injected with
+ * the specified ID. The method takes the model passed to {@link ButterKnife#bind(Object, Object)}
+ * and returns an {@code int}. The visibility is only set if it differs from the current one.
+ */
+@Retention(CLASS) @Target(METHOD)
+public @interface BindVisibility {
+  int value();
+}
@@ -1,12 +1,20 @@
 package butterknife;
 
 import android.app.Activity;
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 import android.view.View;
+import android.view.ViewStub;
 import butterknife.internal.InjectViewProcessor;
-import java.lang.reflect.Method;
+import java.lang.ref.WeakReference;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /** View injection utilities. */
 public class ButterKnife {
@@ -19,37 +27,380 @@ public class ButterKnife {
       @Override public View findById(Object source, int id) {
         return ((View) source).findViewById(id);
       }
+
+      @Override public Context getContext(Object source) {
+        return ((View) source).getContext();
+      }
     },
     ACTIVITY {
       @Override public View findById(Object source, int id) {
         return ((Activity) source).findViewById(id);
       }
+
+      @Override public Context getContext(Object source) {
+        return (Activity) source;
+      }
+    },
+    INDEX {
+      @Override public View findById(Object source, int id) {
+        return ((ViewIndex) source).findById(id);
+      }
+
+      @Override public Context getContext(Object source) {
+        return ((ViewIndex) source).getRoot().getContext();
+      }
     };
 
     public abstract View findById(Object source, int id);
+
+    /** The context whose resources are used for resource bindings. */
+    public abstract Context getContext(Object source);
+  }
+
+  /**
+   * Injects and resets instances of {@code T}. Get the injector of a type once with
+   * {@link ButterKnife#getInjector(Class)} and keep it, e.g., in a static field, to skip looking it
+   * up on every injection:
+   * <pre>{@code
+   * private static final Injector<ViewHolder> INJECTOR = ButterKnife.getInjector(ViewHolder.class);
+   *
+   * ViewHolder(View view) {
+   *   INJECTOR.inject(this, view);
+   * }
+   * }</pre>
+   * Unlike the static methods of {@link ButterKnife}, exceptions thrown while injecting (e.g.,
+   * because a required view is missing) are not wrapped.
+   */
+  public abstract static class Injector<T> {
+    /** Inject {@code target} using the {@code source} activity's content view as the view root. */
+    public final Unbinder inject(T target, Activity source) {
+      return inject(Finder.ACTIVITY, target, source);
+    }
+
+    /** Inject {@code target} using {@code source} and its children as the view root. */
+    public final Unbinder inject(T target, View source) {
+      return inject(Finder.VIEW, target, source);
+    }
+
+    /** Inject {@code target} using the views of a shared {@link ViewIndex}. */
+    public final Unbinder inject(T target, ViewIndex source) {
+      return inject(Finder.INDEX, target, source);
+    }
+
+    /**
+     * Re-inject only the views with {@code ids} into {@code target}, looking them up in the
+     * {@code source} activity's content view. Other bindings are left as they are.
+     */
+    public final void inject(T target, Activity source, int... ids) {
+      inject(Finder.ACTIVITY, target, source, ids);
+    }
+
+    /**
+     * Re-inject only the views with {@code ids} into {@code target}, looking them up in
+     * {@code source} and its children. Other bindings are left as they are.
+     */
+    public final void inject(T target, View source, int... ids) {
+      inject(Finder.VIEW, target, source, ids);
+    }
+
+    /** DO NOT USE: Implemented by generated code. */
+    public abstract Unbinder inject(Finder finder, T target, Object source);
+
+    /**
+     * DO NOT USE: Implemented by generated code. Injectors generated before it existed re-inject
+     * every binding.
+     */
+    public void inject(Finder finder, T target, Object source, int[] ids) {
+      inject(finder, target, source);
+    }
+
+    /** Reset the fields of {@code target} annotated with {@link InjectView} to {@code null}. */
+    public abstract void reset(T target);
+
+    /**
+     * Apply {@code model} to the injected views of {@code target} with its {@link BindText} and
+     * {@link BindVisibility} methods. Views whose value did not change are left untouched.
+     * Targets without such methods ignore the model.
+     */
+    public void bind(T target, Object model) {
+    }
+  }
+
+  /**
+   * Undoes a single injection. Unlike {@link ButterKnife#reset(Object)} it also removes the
+   * listeners the injection attached, so that views which outlive the target, e.g., in a pool or
+   * cache, no longer reference it.
+   */
+  public interface Unbinder {
+    /** Unbinds nothing. Returned for injections which did not bind any views. */
+    Unbinder EMPTY = new Unbinder() {
+      @Override public void unbind() {
+      }
+    };
+
+    /**
+     * Reset the fields of the target annotated with {@link InjectView} to {@code null} and remove
+     * the click listeners from the views the injection bound.
+     */
+    void unbind();
+  }
+
+  /** DO NOT USE: Implemented by the generated injector merged from all targets of a package. */
+  public interface InjectorGroup {
+    /**
+     * The injector of {@code targetClass}, or null if the type is not part of this group. It is
+     * the same instance every time, which the class of the group keeps alive.
+     */
+    Injector<Object> getInjector(Class<?> targetClass);
+  }
+
+  /** DO NOT USE: Implemented by generated code for the {@link InStub} bindings of a stub. */
+  public interface StubInjection {
+    /** Inject the views inflated by the stub, looking them up in {@code source}. */
+    void inject(Finder finder, Object source);
+  }
+
+  /**
+   * Receives the durations measured by injectors generated with the {@code butterknife.timing}
+   * processor option.
+   */
+  public interface TimingListener {
+    /**
+     * Called after each timed step of injecting an instance of {@code targetClass}.
+     *
+     * @param id The id of the view the step concerns.
+     * @param step {@code "findById"} for the view lookup, otherwise a description of the field
+     * assigned or the method bound.
+     * @param nanos The duration of the step in nanoseconds.
+     */
+    void onTiming(Class<?> targetClass, int id, String step, long nanos);
+  }
+
+  /**
+   * Receives the {@code @OnClick} methods which took longer than the slow click threshold in
+   * injectors generated with the {@code butterknife.watchdog} processor option.
+   */
+  public interface SlowClickListener {
+    /**
+     * Called after a click of {@code method} of an instance of {@code targetClass} which took
+     * {@code nanos} nanoseconds. Background methods report the time they ran on the executor.
+     */
+    void onSlowClick(Class<?> targetClass, String method, long nanos);
   }
 
   private static final String TAG = "ButterKnife";
+  /**
+   * How long a click may take before it is reported as slow by default: 16 milliseconds, one frame
+   * at 60 frames per second, after which the main thread misses drawing the next frame.
+   */
+  static final long DEFAULT_SLOW_CLICK_MILLIS = 16;
+
   private static boolean debug = false;
+  private static boolean reflection = false;
+  private static TimingListener timingListener;
+  private static Executor clickExecutor;
+  private static SlowClickListener slowClickListener;
+  private static long slowClickNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_SLOW_CLICK_MILLIS);
 
-  static final Map<Class<?>, Method> INJECTORS = new LinkedHashMap<Class<?>, Method>();
-  static final Map<Class<?>, Method> RESETTERS = new LinkedHashMap<Class<?>, Method>();
-  static final Method NO_OP = null;
+  static final InjectorCache INJECTORS = new InjectorCache();
+  static final TargetThrottles TARGET_THROTTLES = new TargetThrottles();
+  /**
+   * The merged injectors by package, scoped to the class loader which loaded them. Packages
+   * without one map to {@link #NO_GROUP}.
+   */
+  static final Map<ClassLoader, Map<String, WeakReference<InjectorGroup>>> GROUPS =
+      new WeakHashMap<ClassLoader, Map<String, WeakReference<InjectorGroup>>>();
+  static final InjectorGroup NO_GROUP = new InjectorGroup() {
+    @Override public Injector<Object> getInjector(Class<?> targetClass) {
+      return null;
+    }
+  };
+  static final Injector<Object> NO_OP = new Injector<Object>() {
+    @Override public Unbinder inject(Finder finder, Object target, Object source) {
+      return Unbinder.EMPTY;
+    }
+
+    @Override public void inject(Finder finder, Object target, Object source, int[] ids) {
+    }
+
+    @Override public void reset(Object target) {
+    }
+  };
 
   /** Control whether debug logging is enabled. */
   public static void setDebug(boolean debug) {
     ButterKnife.debug = debug;
   }
 
+  /**
+   * Control whether targets without a generated injector are injected by reflecting on their
+   * {@link butterknife.reflect.InjectView} and {@link butterknife.reflect.OnClick} annotations, so
+   * that debug builds can skip the annotation processor. These are retained at runtime only for the
+   * targets which opt in by using them instead of {@link InjectView} and {@link OnClick}. Other
+   * bindings, such as resources or holders, need a generated injector. Release builds should keep
+   * generating injectors, which are faster.
+   */
+  public static void setReflection(boolean reflection) {
+    ButterKnife.reflection = reflection;
+    // Forget the targets which were found to have no injector before.
+    INJECTORS.clear();
+  }
+
+  /**
+   * Control how many injectors which are not generated, such as reflective ones, are held
+   * softly, least recently used first, or 0 for none. The default is 32. Generated injectors
+   * are kept alive by their own class, and all injectors are otherwise held weakly per class
+   * loader, so that targets loaded by a discarded class loader, such as that of an unloaded plugin
+   * module, can be collected along with it.
+   *
+   * @throws IllegalArgumentException if {@code maxSize} is negative.
+   */
+  public static void setMaxCachedInjectors(int maxSize) {
+    INJECTORS.setMaxSize(maxSize);
+  }
+
+  /**
+   * Set the listener which receives the timings of injectors generated with the
+   * {@code butterknife.timing} processor option, or {@code null} to stop receiving them.
+   */
+  public static void setTimingListener(TimingListener timingListener) {
+    ButterKnife.timingListener = timingListener;
+  }
+
+  /** DO NOT USE: Exposed for generated code. */
+  public static void reportTiming(Class<?> targetClass, int id, String step, long nanos) {
+    TimingListener listener = timingListener;
+    if (listener != null) {
+      listener.onTiming(targetClass, id, step, nanos);
+    }
+  }
+
+  /**
+   * Set the listener which receives the slow clicks of injectors generated with the
+   * {@code butterknife.watchdog} processor option, or {@code null} to stop receiving them.
+   */
+  public static void setSlowClickListener(SlowClickListener slowClickListener) {
+    ButterKnife.slowClickListener = slowClickListener;
+  }
+
+  /**
+   * Set how long an {@code @OnClick} method may take before it is reported to the slow click
+   * listener. Defaults to 16 milliseconds, one frame at 60 frames per second.
+   *
+   * @throws IllegalArgumentException if {@code threshold} is negative.
+   */
+  public static void setSlowClickThreshold(long threshold, TimeUnit unit) {
+    if (threshold < 0) {
+      throw new IllegalArgumentException("threshold < 0: " + threshold);
+    }
+    slowClickNanos = unit.toNanos(threshold);
+  }
+
+  /** DO NOT USE: Exposed for generated code. */
+  public static void reportClick(Class<?> targetClass, String method, long nanos) {
+    if (nanos > slowClickNanos) {
+      SlowClickListener listener = slowClickListener;
+      if (listener != null) {
+        listener.onSlowClick(targetClass, method, nanos);
+      }
+    }
+  }
+
+  /**
+   * Set the executor which runs {@code @OnClick(background = true)} methods, or {@code null} to
+   * use the default, a single thread running them one after another in the order of the clicks.
+   */
+  public static void setClickExecutor(Executor clickExecutor) {
+    ButterKnife.clickExecutor = clickExecutor;
+  }
+
+  /**
+   * DO NOT USE: Exposed for generated code. The time before which clicks of the methods of
+   * {@code target} throttled per target are dropped, which outlives re-injecting its views.
+   */
+  public static long[] getTargetThrottle(Object target) {
+    return TARGET_THROTTLES.get(target);
+  }
+
+  /** DO NOT USE: Exposed for generated code. */
+  public static void executeClick(Runnable click) {
+    Executor executor = clickExecutor;
+    if (executor == null) {
+      executor = DefaultClickExecutor.INSTANCE;
+    }
+    executor.execute(click);
+  }
+
+  /** DO NOT USE: Exposed for generated code. */
+  public static void postToMainThread(Runnable result) {
+    MainThread.HANDLER.post(result);
+  }
+
+  /**
+   * DO NOT USE: Exposed for generated code. Runs {@code injection} against the views inflated by
+   * the {@code ViewStub} with {@code stubId} once it inflates, replacing its inflate listener, and
+   * returns the stub. If there is no such stub, e.g., because it already inflated, the views are
+   * injected from {@code source} right away and null is returned.
+   */
+  public static ViewStub injectStub(Finder finder, Object source, int stubId,
+      final StubInjection injection) {
+    View view = finder.findById(source, stubId);
+    if (!(view instanceof ViewStub)) {
+      injection.inject(finder, source);
+      return null;
+    }
+    ViewStub stub = (ViewStub) view;
+    stub.setOnInflateListener(new ViewStub.OnInflateListener() {
+      @Override public void onInflate(ViewStub stub, View inflated) {
+        injection.inject(Finder.VIEW, inflated);
+      }
+    });
+    return stub;
+  }
+
+  /**
+   * DO NOT USE: Exposed for generated code. Finds the view with {@code id} within
+   * {@code container}, or within {@code source} if the container is missing or {@code finder}
+   * looks views up in an index, which is faster than searching any subtree.
+   */
+  public static View findInContainer(Finder finder, Object source, View container, int id) {
+    if (container == null || finder == Finder.INDEX) {
+      return finder.findById(source, id);
+    }
+    return container.findViewById(id);
+  }
+
+  /** Holds the default click executor so that its thread is only started once it is needed. */
+  private static final class DefaultClickExecutor {
+    static final Executor INSTANCE = Executors.newSingleThreadExecutor();
+  }
+
+  private static final class MainThread {
+    static final Handler HANDLER = new Handler(Looper.getMainLooper());
+  }
+
+  /**
+   * Get the injector for instances of {@code targetClass}. Types without any injections of their
+   * own use the injector of their nearest ancestor which has some, if any.
+   *
+   * @throws UnableToInjectException if the injector could not be created.
+   */
+  @SuppressWarnings("unchecked") // The injector of a type accepts instances of its subtypes.
+  public static <T> Injector<T> getInjector(Class<T> targetClass) {
+    if (debug) Log.d(TAG, "Looking up view injector for " + targetClass.getName());
+    return (Injector<T>) findInjectorForClass(targetClass);
+  }
+
   /**
    * Inject fields annotated with {@link InjectView} in the specified {@link Activity}. The current
    * content view is used as the view root.
    *
    * @param target Target activity for field injection.
+   * @return An {@link Unbinder} which undoes this injection.
    * @throws UnableToInjectException if injection could not be performed.
    */
-  public static void inject(Activity target) {
-    inject(target, target, Finder.ACTIVITY);
+  public static Unbinder inject(Activity target) {
+    return inject(target, target, Finder.ACTIVITY);
   }
 
   /**
@@ -57,10 +408,11 @@ public class ButterKnife {
    * its children are used as the view root.
    *
    * @param target Target view for field injection.
+   * @return An {@link Unbinder} which undoes this injection.
    * @throws UnableToInjectException if injection could not be performed.
    */
-  public static void inject(View target) {
-    inject(target, target, Finder.VIEW);
+  public static Unbinder inject(View target) {
+    return inject(target, target, Finder.VIEW);
   }
 
   /**
@@ -69,10 +421,11 @@ public class ButterKnife {
    *
    * @param target Target class for field injection.
    * @param source Activity on which IDs will be looked up.
+   * @return An {@link Unbinder} which undoes this injection.
    * @throws UnableToInjectException if injection could not be performed.
    */
-  public static void inject(Object target, Activity source) {
-    inject(target, source, Finder.ACTIVITY);
+  public static Unbinder inject(Object target, Activity source) {
+    return inject(target, source, Finder.ACTIVITY);
   }
 
   /**
@@ -81,10 +434,59 @@ public class ButterKnife {
    *
    * @param target Target class for field injection.
    * @param source View root on which IDs will be looked up.
+   * @return An {@link Unbinder} which undoes this injection.
+   * @throws UnableToInjectException if injection could not be performed.
+   */
+  public static Unbinder inject(Object target, View source) {
+    return inject(target, source, Finder.VIEW);
+  }
+
+  /**
+   * Inject fields annotated with {@link InjectView} in the specified {@code target} using the
+   * views of a shared {@link ViewIndex}. Injecting multiple targets against the same index only
+   * walks the view hierarchy once.
+   *
+   * @param target Target class for field injection.
+   * @param source Index of the view root on which IDs will be looked up.
+   * @return An {@link Unbinder} which undoes this injection.
+   * @throws UnableToInjectException if injection could not be performed.
+   */
+  public static Unbinder inject(Object target, ViewIndex source) {
+    return inject(target, source, Finder.INDEX);
+  }
+
+  /**
+   * Re-inject only the fields and methods bound to the views with {@code ids} in the specified
+   * {@code target} using the {@code source} {@link Activity} as the view root, e.g., after a part
+   * of its layout was replaced. Resources and the bindings of other views are left as they are.
+   * <p>
+   * The {@link Unbinder} of the original injection still resets every field but only removes the
+   * listeners from the views it bound itself.
+   *
+   * @param target Target class for field injection.
+   * @param source Activity on which IDs will be looked up.
+   * @param ids IDs of the views to look up again. IDs which are not bound are ignored.
+   * @throws UnableToInjectException if injection could not be performed.
+   */
+  public static void inject(Object target, Activity source, int... ids) {
+    inject(target, source, Finder.ACTIVITY, ids);
+  }
+
+  /**
+   * Re-inject only the fields and methods bound to the views with {@code ids} in the specified
+   * {@code target} using the {@code source} {@link View} as the view root. Passing the container
+   * whose children were replaced as {@code source} limits the lookups to that container.
+   * <p>
+   * The {@link Unbinder} of the original injection still resets every field but only removes the
+   * listeners from the views it bound itself.
+   *
+   * @param target Target class for field injection.
+   * @param source View root on which IDs will be looked up.
+   * @param ids IDs of the views to look up again. IDs which are not bound are ignored.
    * @throws UnableToInjectException if injection could not be performed.
    */
-  public static void inject(Object target, View source) {
-    inject(target, source, Finder.VIEW);
+  public static void inject(Object target, View source, int... ids) {
+    inject(target, source, Finder.VIEW, ids);
   }
 
   /**
@@ -97,78 +499,195 @@ public class ButterKnife {
    */
   public static void reset(Object target) {
     Class<?> targetClass = target.getClass();
+    if (debug) Log.d(TAG, "Looking up view injector for " + targetClass.getName());
+    Injector<Object> injector = findInjectorForClass(targetClass);
     try {
-      if (debug) Log.d(TAG, "Looking up view injector for " + targetClass.getName());
-      Method reset = findResettersForClass(targetClass);
-      if (reset != null) {
-        reset.invoke(null, target);
-      }
+      injector.reset(target);
     } catch (RuntimeException e) {
-      throw e;
-    } catch (Exception e) {
       throw new UnableToResetException("Unable to reset views for " + target, e);
     }
   }
 
-  static void inject(Object target, Object source, Finder finder) {
+  /**
+   * Apply {@code model} to the views injected into {@code target} with the methods annotated with
+   * {@link BindText} and {@link BindVisibility}. Only the values which differ from those the views
+   * show are set, so rebinding a recycled view to the same or a similar model is cheap.
+   *
+   * @param target Target class whose views were injected.
+   * @param model Model of the type taken by the binding methods of {@code target}.
+   * @throws UnableToBindException if the model could not be applied.
+   */
+  public static void bind(Object target, Object model) {
     Class<?> targetClass = target.getClass();
+    if (debug) Log.d(TAG, "Looking up view injector for " + targetClass.getName());
+    Injector<Object> injector = findInjectorForClass(targetClass);
     try {
-      if (debug) Log.d(TAG, "Looking up view injector for " + targetClass.getName());
-      Method inject = findInjectorForClass(targetClass);
-      if (inject != null) {
-        inject.invoke(null, finder, target, source);
-      }
+      injector.bind(target, model);
     } catch (RuntimeException e) {
-      throw e;
-    } catch (Exception e) {
-      throw new UnableToInjectException("Unable to inject views for " + target, e);
+      throw new UnableToBindException("Unable to bind " + model + " to " + target, e);
     }
   }
 
-  static Method findInjectorForClass(Class<?> cls) throws NoSuchMethodException {
-    Method inject = INJECTORS.get(cls);
-    if (inject != null) {
-      if (debug) Log.d(TAG, "HIT: Cached in injector map.");
-      return inject;
+  /** DO NOT USE: Call sites of {@link #inject(Activity)} are rewritten to this at build time. */
+  public static Unbinder injectDirect(Activity target, Class<?> targetClass,
+      Injector<Object> injector) {
+    return injectDirect(target, target, Finder.ACTIVITY, targetClass, injector);
+  }
+
+  /** DO NOT USE: Call sites of {@link #inject(View)} are rewritten to this at build time. */
+  public static Unbinder injectDirect(View target, Class<?> targetClass,
+      Injector<Object> injector) {
+    return injectDirect(target, target, Finder.VIEW, targetClass, injector);
+  }
+
+  /**
+   * DO NOT USE: Call sites of {@link #inject(Object, Activity)} are rewritten to this at build
+   * time.
+   */
+  public static Unbinder injectDirect(Object target, Activity source, Class<?> targetClass,
+      Injector<Object> injector) {
+    return injectDirect(target, source, Finder.ACTIVITY, targetClass, injector);
+  }
+
+  /**
+   * DO NOT USE: Call sites of {@link #inject(Object, View)} are rewritten to this at build time.
+   */
+  public static Unbinder injectDirect(Object target, View source, Class<?> targetClass,
+      Injector<Object> injector) {
+    return injectDirect(target, source, Finder.VIEW, targetClass, injector);
+  }
+
+  /**
+   * DO NOT USE: Call sites of {@link #inject(Object, ViewIndex)} are rewritten to this at build
+   * time.
+   */
+  public static Unbinder injectDirect(Object target, ViewIndex source, Class<?> targetClass,
+      Injector<Object> injector) {
+    return injectDirect(target, source, Finder.INDEX, targetClass, injector);
+  }
+
+  /**
+   * Inject with the generated {@code injector} of {@code targetClass}, the static type of the
+   * target at the rewritten call site, unless the target is actually of a subclass which may have
+   * bindings of its own.
+   */
+  private static Unbinder injectDirect(Object target, Object source, Finder finder,
+      Class<?> targetClass, Injector<Object> injector) {
+    if (target.getClass() != targetClass) {
+      return inject(target, source, finder);
     }
-    String clsName = cls.getName();
-    if (clsName.startsWith("android.") || clsName.startsWith("java.")) {
-      if (debug) Log.d(TAG, "MISS: Reached framework class. Abandoning search.");
-      return NO_OP;
+    return inject(target, source, finder, injector);
+  }
+
+  static Unbinder inject(Object target, Object source, Finder finder) {
+    Class<?> targetClass = target.getClass();
+    if (debug) Log.d(TAG, "Looking up view injector for " + targetClass.getName());
+    return inject(target, source, finder, findInjectorForClass(targetClass));
+  }
+
+  private static Unbinder inject(Object target, Object source, Finder finder,
+      Injector<Object> injector) {
+    try {
+      return injector.inject(finder, target, source);
+    } catch (RuntimeException e) {
+      throw new UnableToInjectException("Unable to inject views for " + target, e);
     }
+  }
+
+  static void inject(Object target, Object source, Finder finder, int[] ids) {
+    Class<?> targetClass = target.getClass();
+    if (debug) Log.d(TAG, "Looking up view injector for " + targetClass.getName());
+    Injector<Object> injector = findInjectorForClass(targetClass);
     try {
-      Class<?> injector = Class.forName(clsName + InjectViewProcessor.SUFFIX);
-      inject = injector.getMethod("inject", Finder.class, cls, Object.class);
-      if (debug) Log.d(TAG, "HIT: Class loaded injection class.");
-    } catch (ClassNotFoundException e) {
-      if (debug) Log.d(TAG, "Not found. Trying superclass " + cls.getSuperclass().getName());
-      inject = findInjectorForClass(cls.getSuperclass());
+      injector.inject(finder, target, source, ids);
+    } catch (RuntimeException e) {
+      throw new UnableToInjectException("Unable to inject views for " + target, e);
     }
-    INJECTORS.put(cls, inject);
-    return inject;
   }
 
-  static Method findResettersForClass(Class<?> cls) throws NoSuchMethodException {
-    Method inject = RESETTERS.get(cls);
-    if (inject != null) {
+  @SuppressWarnings("unchecked") // Generated injectors of a type accept instances of that type.
+  static Injector<Object> findInjectorForClass(Class<?> cls) {
+    Injector<Object> injector = INJECTORS.get(cls);
+    if (injector != null) {
       if (debug) Log.d(TAG, "HIT: Cached in injector map.");
-      return inject;
+      return injector;
     }
     String clsName = cls.getName();
     if (clsName.startsWith("android.") || clsName.startsWith("java.")) {
       if (debug) Log.d(TAG, "MISS: Reached framework class. Abandoning search.");
       return NO_OP;
     }
+    // Whether the injector is kept alive by its own class rather than by the cache.
+    boolean shared;
     try {
-      Class<?> injector = Class.forName(clsName + InjectViewProcessor.SUFFIX);
-      inject = injector.getMethod("reset", cls);
-      if (debug) Log.d(TAG, "HIT: Class loaded injection class.");
+      injector = findGroupForClass(cls).getInjector(cls);
+      if (injector != null) {
+        if (debug) Log.d(TAG, "HIT: Found in merged injector of package.");
+        shared = true;
+      } else {
+        Class<?> injectorClass =
+            Class.forName(clsName + InjectViewProcessor.SUFFIX, true, cls.getClassLoader());
+        injector = (Injector<Object>) injectorClass.getField("INSTANCE").get(null);
+        if (debug) Log.d(TAG, "HIT: Class loaded injection class.");
+        shared = true;
+      }
     } catch (ClassNotFoundException e) {
-      if (debug) Log.d(TAG, "Not found. Trying superclass " + cls.getSuperclass().getName());
-      inject = findResettersForClass(cls.getSuperclass());
+      Class<?> superclass = cls.getSuperclass();
+      if (debug) Log.d(TAG, "Not found. Trying superclass " + superclass.getName());
+      injector = findInjectorForClass(superclass);
+      shared = injector == NO_OP || INJECTORS.isShared(superclass);
+      if (reflection) {
+        Injector<Object> reflectiveInjector = ReflectiveInjector.forClass(cls, injector);
+        if (reflectiveInjector != null) {
+          if (debug) Log.d(TAG, "HIT: Injecting by reflection.");
+          injector = reflectiveInjector;
+          shared = false;
+        }
+      }
+    } catch (NoSuchFieldException e) {
+      throw new UnableToInjectException("Unable to create injector for " + clsName, e);
+    } catch (InstantiationException e) {
+      throw new UnableToInjectException("Unable to create injector for " + clsName, e);
+    } catch (IllegalAccessException e) {
+      throw new UnableToInjectException("Unable to create injector for " + clsName, e);
     }
-    RESETTERS.put(cls, inject);
-    return inject;
+    INJECTORS.put(cls, injector, shared);
+    return injector;
+  }
+
+  /** The merged injector of the package of {@code cls} in its class loader, if it has one. */
+  private static InjectorGroup findGroupForClass(Class<?> cls)
+      throws InstantiationException, IllegalAccessException {
+    String clsName = cls.getName();
+    int lastDot = clsName.lastIndexOf('.');
+    String packageName = "";
+    if (lastDot != -1) {
+      packageName = clsName.substring(0, lastDot);
+    }
+    ClassLoader classLoader = cls.getClassLoader();
+    Map<String, WeakReference<InjectorGroup>> groups = GROUPS.get(classLoader);
+    if (groups == null) {
+      groups = new LinkedHashMap<String, WeakReference<InjectorGroup>>();
+      GROUPS.put(classLoader, groups);
+    }
+    WeakReference<InjectorGroup> reference = groups.get(packageName);
+    InjectorGroup group = null;
+    if (reference != null) {
+      group = reference.get();
+    }
+    if (group == null) {
+      String groupName = InjectViewProcessor.MERGED_NAME;
+      if (lastDot != -1) {
+        groupName = packageName + "." + groupName;
+      }
+      try {
+        group = (InjectorGroup) Class.forName(groupName, true, classLoader).newInstance();
+      } catch (ClassNotFoundException e) {
+        group = NO_GROUP;
+      }
+      groups.put(packageName, new WeakReference<InjectorGroup>(group));
+    }
+    return group;
   }
 
   /** Simpler version of {@link View#findViewById(int)} which infers the target type. */
@@ -194,4 +713,10 @@ public class ButterKnife {
       super(message, cause);
     }
   }
+
+  public static class UnableToBindException extends RuntimeException {
+    UnableToBindException(String message, Throwable cause) {
+      super(message, cause);
+    }
+  }
 }
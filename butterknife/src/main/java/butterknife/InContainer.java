@@ -0,0 +1,23 @@
+package butterknife;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.CLASS;
+
+/**
+ * Look the view of an {@link InjectView} field up within the container with the specified ID
+ * rather than in the whole hierarchy. The container is looked up once per injection and shared
+ * by all fields declared in it, so the lookups skip the rest of a large hierarchy:
+ * <pre>{@code
+ * @InContainer(R.id.stats) @InjectView(R.id.visits) TextView visits;
+ * @InContainer(R.id.stats) @InjectView(R.id.sales) TextView sales;
+ * }</pre>
+ * If the container is missing, or views are injected from a {@link ViewIndex}, they are looked up
+ * as usual. Re-injecting views by ID does not use the container either.
+ */
+@Retention(CLASS) @Target(FIELD)
+public @interface InContainer {
+  int value();
+}
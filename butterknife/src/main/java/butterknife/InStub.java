@@ -0,0 +1,23 @@
+package butterknife;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.CLASS;
+
+/**
+ * Inject an {@link InjectView} field only once the {@code ViewStub} with the specified ID
+ * inflates, rather than when its target is injected, so that the stub can stay uninflated until
+ * its views are needed:
+ * <pre>{@code
+ * @InStub(R.id.details_stub) @InjectView(R.id.details) TextView details;
+ * }</pre>
+ * The field stays {@code null} until then. If the stub already inflated when the target is
+ * injected, the field is injected right away. The injection is installed as the inflate listener
+ * of the stub, replacing any other, so the bindings of one stub must be declared by one class.
+ */
+@Retention(CLASS) @Target(FIELD)
+public @interface InStub {
+  int value();
+}
@@ -0,0 +1,16 @@
+package butterknife;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.CLASS;
+
+/**
+ * Bind an {@code int} or {@code ColorStateList} field to the color resource with the specified ID.
+ * The value is cached across injections until the configuration changes.
+ */
+@Retention(CLASS) @Target(FIELD)
+public @interface InjectColor {
+  int value();
+}
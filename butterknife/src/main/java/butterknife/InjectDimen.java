@@ -0,0 +1,17 @@
+package butterknife;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.CLASS;
+
+/**
+ * Bind a field to the dimension resource with the specified ID. {@code int} fields receive the
+ * size in pixels and {@code float} fields the raw dimension. The value is cached across injections
+ * until the configuration changes.
+ */
+@Retention(CLASS) @Target(FIELD)
+public @interface InjectDimen {
+  int value();
+}
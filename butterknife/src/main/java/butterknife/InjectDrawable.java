@@ -0,0 +1,16 @@
+package butterknife;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.CLASS;
+
+/**
+ * Bind a {@code Drawable} field to the drawable resource with the specified ID. Drawables are
+ * mutable so each injection receives a new instance.
+ */
+@Retention(CLASS) @Target(FIELD)
+public @interface InjectDrawable {
+  int value();
+}
@@ -0,0 +1,24 @@
+package butterknife;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.CLASS;
+
+/**
+ * Inject the bindings of a nested holder within the container view with the specified ID as part
+ * of injecting the enclosing target. The container is looked up once and the holder's injector is
+ * called directly, so a whole tree of reusable components is injected by one call with each view
+ * only searched for within its component:
+ * <pre>{@code
+ * @InjectHolder(R.id.header) HeaderHolder header;
+ * @InjectHolder(R.id.footer) FooterHolder footer;
+ * }</pre>
+ * A holder is created with its constructor without parameters if the field is still null. Its
+ * bindings are those of the field's declared type.
+ */
+@Retention(CLASS) @Target(FIELD)
+public @interface InjectHolder {
+  int value();
+}
@@ -0,0 +1,16 @@
+package butterknife;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.CLASS;
+
+/**
+ * Bind a {@code String} field to the string resource with the specified ID. The value is cached
+ * across injections until the configuration changes.
+ */
+@Retention(CLASS) @Target(FIELD)
+public @interface InjectString {
+  int value();
+}
@@ -0,0 +1,123 @@
+package butterknife;
+
+import butterknife.ButterKnife.Injector;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The injectors of target classes, grouped by the class loader of their target. Loaders are held
+ * weakly and injectors only through weak references, so that nothing here keeps the class loader
+ * of a discarded module alive.
+ * <p>
+ * Generated injectors are shared instances which their own class keeps alive for as long as its
+ * loader. Other injectors, such as reflective ones, would be collected as soon as they are no
+ * longer in use, so at most {@link #DEFAULT_MAX_SIZE} of the most recently used are also held
+ * softly. Those are tracked by their cache entry rather than by their class, and are released
+ * when memory is needed, so they do not keep a discarded loader alive either.
+ */
+final class InjectorCache {
+  /** How many injectors which are not shared are held softly by default. */
+  static final int DEFAULT_MAX_SIZE = 32;
+
+  private final Map<ClassLoader, Map<String, CachedInjector>> loaders =
+      new WeakHashMap<ClassLoader, Map<String, CachedInjector>>();
+  private final Map<CachedInjector, SoftReference<Injector<Object>>> recent =
+      new LinkedHashMap<CachedInjector, SoftReference<Injector<Object>>>(16, 0.75f, true) {
+        @Override protected boolean removeEldestEntry(
+            Map.Entry<CachedInjector, SoftReference<Injector<Object>>> eldest) {
+          return size() > maxSize;
+        }
+      };
+  private int maxSize = DEFAULT_MAX_SIZE;
+
+  /** Hold at most {@code maxSize} injectors which are not shared softly, or none if it is 0. */
+  void setMaxSize(int maxSize) {
+    if (maxSize < 0) {
+      throw new IllegalArgumentException("maxSize < 0: " + maxSize);
+    }
+    this.maxSize = maxSize;
+    // Evict the least recently used first.
+    Iterator<CachedInjector> references = recent.keySet().iterator();
+    while (recent.size() > maxSize) {
+      references.next();
+      references.remove();
+    }
+  }
+
+  /** The injector of {@code cls}, or null if it is not cached or has been collected. */
+  Injector<Object> get(Class<?> cls) {
+    Map<String, CachedInjector> injectors = loaders.get(cls.getClassLoader());
+    if (injectors == null) {
+      return null;
+    }
+    CachedInjector reference = injectors.get(cls.getName());
+    if (reference == null) {
+      return null;
+    }
+    Injector<Object> injector = reference.get();
+    if (injector != null && !reference.shared && maxSize > 0 && recent.get(reference) == null) {
+      recent.put(reference, new SoftReference<Injector<Object>>(injector));
+    }
+    return injector;
+  }
+
+  /**
+   * Cache the injector of {@code cls}. A {@code shared} injector must be kept alive elsewhere,
+   * such as by a static field of its own class, for as long as it may be used.
+   */
+  void put(Class<?> cls, Injector<Object> injector, boolean shared) {
+    ClassLoader loader = cls.getClassLoader();
+    Map<String, CachedInjector> injectors = loaders.get(loader);
+    if (injectors == null) {
+      injectors = new HashMap<String, CachedInjector>();
+      loaders.put(loader, injectors);
+    }
+    CachedInjector reference = new CachedInjector(injector, shared);
+    CachedInjector previous = injectors.put(cls.getName(), reference);
+    if (previous != null) {
+      recent.remove(previous);
+    }
+    if (!shared && maxSize > 0) {
+      recent.put(reference, new SoftReference<Injector<Object>>(injector));
+    }
+  }
+
+  /** Whether the cached injector of {@code cls} is shared, or false if it is not cached. */
+  boolean isShared(Class<?> cls) {
+    Map<String, CachedInjector> injectors = loaders.get(cls.getClassLoader());
+    if (injectors == null) {
+      return false;
+    }
+    CachedInjector reference = injectors.get(cls.getName());
+    return reference != null && reference.shared;
+  }
+
+  /** The number of injectors which are held softly. */
+  int softSize() {
+    return recent.size();
+  }
+
+  boolean isEmpty() {
+    return loaders.isEmpty();
+  }
+
+  void clear() {
+    loaders.clear();
+    recent.clear();
+  }
+
+  /** Compared by identity, so that tracking an entry does not reference its class. */
+  private static final class CachedInjector extends WeakReference<Injector<Object>> {
+    final boolean shared;
+
+    CachedInjector(Injector<Object> injector, boolean shared) {
+      super(injector);
+      this.shared = shared;
+    }
+  }
+}
@@ -9,4 +9,36 @@ import static java.lang.annotation.RetentionPolicy.CLASS;
 @Retention(CLASS) @Target(METHOD)
 public @interface OnClick {
   int[] value();
+
+  /**
+   * The minimum time in milliseconds between two calls of the method. Clicks which follow the last
+   * accepted one sooner, e.g., the second tap of a double tap, are ignored. 0 accepts every click.
+   */
+  int minInterval() default 0;
+
+  /** Which clicks share the {@link #minInterval() minimum interval}. */
+  Throttle throttle() default Throttle.VIEW;
+
+  /**
+   * Whether the method runs on the executor set with {@code ButterKnife.setClickExecutor} rather
+   * than on the main thread. It may then return a value for the {@link #result()} method.
+   */
+  boolean background() default false;
+
+  /**
+   * The name of a method of the target which is called on the main thread with the value returned
+   * by a {@link #background()} method, or without arguments if that returns {@code void}, once it
+   * completed. Empty for none.
+   */
+  String result() default "";
+
+  enum Throttle {
+    /** Each view waits for its own interval. */
+    VIEW,
+    /**
+     * A click on any view of the target restarts the interval of all its methods which are
+     * throttled per target. Methods inherited from superclasses may be throttled separately.
+     */
+    TARGET
+  }
 }
@@ -0,0 +1,157 @@
+package butterknife;
+
+import android.view.View;
+import butterknife.ButterKnife.Finder;
+import butterknife.ButterKnife.Injector;
+import butterknife.ButterKnife.Unbinder;
+
+/**
+ * DO NOT USE: Base of the injectors generated with the {@code butterknife.plan} processor option.
+ * Rather than a method body per target, these describe their bindings as a table which is
+ * interpreted here. Each row of the plan is the ID of a view followed by flags of what is bound
+ * to it. The generated {@link #bind} and {@link #click} only assign the fields and call the
+ * method of a row. Injectors of subclasses which are not planned extend these and call the
+ * interpreted {@code inject} and {@code reset} as those of their superclass.
+ */
+public abstract class PlanInjector<T> extends Injector<T> {
+  /** The fields of the row are assigned the view. */
+  protected static final int FIELDS = 1;
+  /** A click listener calling the method of the row is attached to the view, if it was found. */
+  protected static final int LISTENER = 2;
+  /** The view must be found. The message of the row is thrown otherwise. */
+  protected static final int REQUIRED = 4;
+
+  private static final int ROW_SIZE = 2;
+
+  private final int[] plan;
+  private final String[] messages;
+  private final Injector<T> parent;
+
+  /**
+   * @param messages The messages thrown if the views of the {@link #REQUIRED} rows are missing,
+   * or null for the other rows.
+   * @param parent The injector of the nearest injected ancestor, or null if there is none.
+   */
+  protected PlanInjector(int[] plan, String[] messages, Injector<T> parent) {
+    this.plan = plan;
+    this.messages = messages;
+    this.parent = parent;
+  }
+
+  /** Assign {@code view}, or null when resetting, to the fields of {@code row}. */
+  protected void bind(T target, int row, View view) {
+  }
+
+  /** Call the method of {@code row} for a click on {@code view}. */
+  protected void click(T target, int row, View view) {
+  }
+
+  @Override public Unbinder inject(Finder finder, T target, Object source) {
+    Unbinder parentUnbinder = null;
+    if (parent != null) {
+      parentUnbinder = parent.inject(finder, target, source);
+    }
+    View[] listenerViews = null;
+    for (int row = 0, rows = plan.length / ROW_SIZE; row < rows; row++) {
+      View listenerView = injectRow(finder, target, source, row);
+      if (listenerView != null) {
+        if (listenerViews == null) {
+          listenerViews = new View[rows];
+        }
+        listenerViews[row] = listenerView;
+      }
+    }
+    return new PlanUnbinder<T>(this, target, listenerViews, parentUnbinder);
+  }
+
+  @Override public void inject(Finder finder, T target, Object source, int[] ids) {
+    if (parent != null) {
+      parent.inject(finder, target, source, ids);
+    }
+    for (int id : ids) {
+      for (int row = 0, rows = plan.length / ROW_SIZE; row < rows; row++) {
+        if (plan[row * ROW_SIZE] == id) {
+          injectRow(finder, target, source, row);
+        }
+      }
+    }
+  }
+
+  @Override public void reset(T target) {
+    if (parent != null) {
+      parent.reset(target);
+    }
+    resetFields(target);
+  }
+
+  /** Inject {@code row}, returning its view if a listener was attached to it. */
+  private View injectRow(Finder finder, T target, Object source, int row) {
+    int flags = plan[row * ROW_SIZE + 1];
+    View view = finder.findById(source, plan[row * ROW_SIZE]);
+    if (view == null && (flags & REQUIRED) != 0) {
+      throw new IllegalStateException(messages[row]);
+    }
+    if ((flags & FIELDS) != 0) {
+      bind(target, row, view);
+    }
+    if ((flags & LISTENER) != 0 && view != null) {
+      view.setOnClickListener(new PlanClickListener<T>(this, target, row));
+      return view;
+    }
+    return null;
+  }
+
+  private void resetFields(T target) {
+    for (int row = 0, rows = plan.length / ROW_SIZE; row < rows; row++) {
+      if ((plan[row * ROW_SIZE + 1] & FIELDS) != 0) {
+        bind(target, row, null);
+      }
+    }
+  }
+
+  /** The one listener class shared by all planned injectors. */
+  private static final class PlanClickListener<T> implements View.OnClickListener {
+    private final PlanInjector<T> injector;
+    private final T target;
+    private final int row;
+
+    PlanClickListener(PlanInjector<T> injector, T target, int row) {
+      this.injector = injector;
+      this.target = target;
+      this.row = row;
+    }
+
+    @Override public void onClick(View view) {
+      injector.click(target, row, view);
+    }
+  }
+
+  private static final class PlanUnbinder<T> implements Unbinder {
+    private final PlanInjector<T> injector;
+    private final T target;
+    private final View[] listenerViews;
+    private final Unbinder parentUnbinder;
+
+    PlanUnbinder(PlanInjector<T> injector, T target, View[] listenerViews,
+        Unbinder parentUnbinder) {
+      this.injector = injector;
+      this.target = target;
+      this.listenerViews = listenerViews;
+      this.parentUnbinder = parentUnbinder;
+    }
+
+    @Override public void unbind() {
+      if (parentUnbinder != null) {
+        parentUnbinder.unbind();
+      }
+      injector.resetFields(target);
+      if (listenerViews != null) {
+        for (View view : listenerViews) {
+          if (view != null) {
+            view.setOnClickListener(null);
+          }
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,397 @@
+package butterknife;
+
+import android.os.SystemClock;
+import android.view.View;
+import android.view.ViewStub;
+import butterknife.ButterKnife.Finder;
+import butterknife.ButterKnife.Injector;
+import butterknife.ButterKnife.StubInjection;
+import butterknife.ButterKnife.UnableToInjectException;
+import butterknife.ButterKnife.Unbinder;
+import butterknife.reflect.InStub;
+import butterknife.reflect.InjectView;
+import butterknife.reflect.OnClick;
+import butterknife.reflect.Optional;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Injects the fields and methods of a target class which are annotated with the runtime-retained
+ * {@link InjectView} and {@link OnClick} by reflection rather than with generated code, for builds
+ * which skip the annotation processor. The fields and methods are resolved once when the injector
+ * is created and it is cached like a generated one. The other bindings are retained in class files
+ * only and so cannot be seen here; they, timing and the watchdog need a generated injector.
+ */
+final class ReflectiveInjector extends Injector<Object> {
+  private static final Object[] NO_ARGUMENTS = new Object[0];
+
+  private final Injector<Object> parent;
+  private final ViewField[] fields;
+  private final ClickMethod[] methods;
+  private final Stub[] stubs;
+
+  private ReflectiveInjector(Injector<Object> parent, List<ViewField> fields,
+      List<ClickMethod> methods, List<Stub> stubs) {
+    this.parent = parent;
+    this.fields = fields.toArray(new ViewField[fields.size()]);
+    this.methods = methods.toArray(new ClickMethod[methods.size()]);
+    this.stubs = stubs.toArray(new Stub[stubs.size()]);
+  }
+
+  /**
+   * The injector of {@code cls} which injects its {@code parent} first, or null if none of the
+   * fields and methods declared by {@code cls} itself are annotated.
+   *
+   * @throws UnableToInjectException if an annotated field or method could not be injected by the
+   * annotation processor either.
+   */
+  static ReflectiveInjector forClass(Class<?> cls, Injector<Object> parent) {
+    List<ViewField> fields = new ArrayList<ViewField>();
+    Map<Integer, List<ViewField>> stubFields = new LinkedHashMap<Integer, List<ViewField>>();
+    for (Field field : cls.getDeclaredFields()) {
+      InjectView injectView = field.getAnnotation(InjectView.class);
+      if (injectView != null) {
+        checkModifiers(cls, field.getModifiers(), "fields", field.getName());
+        field.setAccessible(true);
+        ViewField viewField = new ViewField(field, injectView.value(),
+            !field.isAnnotationPresent(Optional.class));
+        InStub inStub = field.getAnnotation(InStub.class);
+        if (inStub == null) {
+          fields.add(viewField);
+        } else {
+          List<ViewField> inThisStub = stubFields.get(inStub.value());
+          if (inThisStub == null) {
+            inThisStub = new ArrayList<ViewField>();
+            stubFields.put(inStub.value(), inThisStub);
+          }
+          inThisStub.add(viewField);
+        }
+      }
+    }
+    List<Stub> stubs = new ArrayList<Stub>();
+    for (Map.Entry<Integer, List<ViewField>> stub : stubFields.entrySet()) {
+      stubs.add(new Stub(stub.getKey(), stub.getValue()));
+    }
+    List<ClickMethod> methods = new ArrayList<ClickMethod>();
+    for (Method method : cls.getDeclaredMethods()) {
+      OnClick onClick = method.getAnnotation(OnClick.class);
+      if (onClick != null) {
+        checkModifiers(cls, method.getModifiers(), "methods", method.getName());
+        if (method.getParameterTypes().length > 1) {
+          throw new UnableToInjectException("@OnClick methods may have at most one parameter ("
+              + cls.getName() + "." + method.getName() + ").", null);
+        }
+        Method resultMethod = findResultMethod(cls, method, onClick);
+        method.setAccessible(true);
+        boolean required = !method.isAnnotationPresent(Optional.class);
+        for (int id : onClick.value()) {
+          methods.add(new ClickMethod(method, id, required, onClick, resultMethod));
+        }
+      }
+    }
+    if (fields.isEmpty() && methods.isEmpty() && stubs.isEmpty()) {
+      return null;
+    }
+    return new ReflectiveInjector(parent, fields, methods, stubs);
+  }
+
+  private static void checkModifiers(Class<?> cls, int modifiers, String kind, String name) {
+    if (Modifier.isPrivate(modifiers) || Modifier.isStatic(modifiers)) {
+      throw new UnableToInjectException("Injected " + kind + " must not be private or static ("
+          + cls.getName() + "." + name + ").", null);
+    }
+  }
+
+  /** The method of {@code cls} named by {@link OnClick#result()}, or null if there is none. */
+  private static Method findResultMethod(Class<?> cls, Method method, OnClick onClick) {
+    String name = onClick.result();
+    if (name.length() == 0) {
+      if (method.getReturnType() != void.class) {
+        throw new UnableToInjectException("@OnClick methods must return void unless they have a "
+            + "result method (" + cls.getName() + "." + method.getName() + ").", null);
+      }
+      return null;
+    }
+    if (!onClick.background()) {
+      throw new UnableToInjectException("@OnClick result requires background = true ("
+          + cls.getName() + "." + method.getName() + ").", null);
+    }
+    Class<?> returnType = method.getReturnType();
+    for (Class<?> type = cls; type != null; type = type.getSuperclass()) {
+      for (Method candidate : type.getDeclaredMethods()) {
+        int modifiers = candidate.getModifiers();
+        if (!candidate.getName().equals(name)
+            || Modifier.isPrivate(modifiers) || Modifier.isStatic(modifiers)) {
+          continue;
+        }
+        if (acceptsResult(candidate, returnType)) {
+          candidate.setAccessible(true);
+          return candidate;
+        }
+      }
+    }
+    throw new UnableToInjectException("@OnClick result method " + name + " not found in "
+        + cls.getName() + ". It must not be private or static.", null);
+  }
+
+  /** Whether {@code method} can be called with the result of a method returning {@code type}. */
+  private static boolean acceptsResult(Method method, Class<?> type) {
+    Class<?>[] parameterTypes = method.getParameterTypes();
+    if (type == void.class) {
+      return parameterTypes.length == 0;
+    }
+    return parameterTypes.length == 1 && box(parameterTypes[0]).isAssignableFrom(box(type));
+  }
+
+  private static Class<?> box(Class<?> type) {
+    if (!type.isPrimitive()) {
+      return type;
+    }
+    if (type == boolean.class) return Boolean.class;
+    if (type == byte.class) return Byte.class;
+    if (type == char.class) return Character.class;
+    if (type == short.class) return Short.class;
+    if (type == int.class) return Integer.class;
+    if (type == long.class) return Long.class;
+    if (type == float.class) return Float.class;
+    return Double.class;
+  }
+
+  @Override public Unbinder inject(Finder finder, final Object target, Object source) {
+    final Unbinder parentUnbinder = parent.inject(finder, target, source);
+    for (ViewField field : fields) {
+      field.inject(finder, target, source);
+    }
+    final View[] listenerViews = new View[methods.length];
+    for (int i = 0; i < methods.length; i++) {
+      listenerViews[i] = methods[i].inject(finder, target, source);
+    }
+    final ViewStub[] stubViews = new ViewStub[stubs.length];
+    for (int i = 0; i < stubs.length; i++) {
+      stubViews[i] = stubs[i].inject(finder, target, source);
+    }
+    return new Unbinder() {
+      @Override public void unbind() {
+        parentUnbinder.unbind();
+        resetFields(target);
+        for (View view : listenerViews) {
+          if (view != null) {
+            view.setOnClickListener(null);
+          }
+        }
+        for (ViewStub stub : stubViews) {
+          if (stub != null) {
+            stub.setOnInflateListener(null);
+          }
+        }
+      }
+    };
+  }
+
+  @Override public void inject(Finder finder, Object target, Object source, int[] ids) {
+    parent.inject(finder, target, source, ids);
+    for (int id : ids) {
+      for (ViewField field : fields) {
+        if (field.id == id) {
+          field.inject(finder, target, source);
+        }
+      }
+      for (ClickMethod method : methods) {
+        if (method.id == id) {
+          method.inject(finder, target, source);
+        }
+      }
+      for (Stub stub : stubs) {
+        if (stub.id == id) {
+          stub.inject(finder, target, source);
+        }
+      }
+    }
+  }
+
+  @Override public void reset(Object target) {
+    parent.reset(target);
+    resetFields(target);
+  }
+
+  private void resetFields(Object target) {
+    for (ViewField field : fields) {
+      field.set(target, null);
+    }
+    for (Stub stub : stubs) {
+      for (ViewField field : stub.fields) {
+        field.set(target, null);
+      }
+    }
+  }
+
+  private static View findRequired(Finder finder, Object source, int id, boolean required,
+      String description) {
+    View view = finder.findById(source, id);
+    if (view == null && required) {
+      throw new IllegalStateException("Required view with id '" + id + "' for " + description
+          + " was not found. If this view is optional add '@Optional' annotation.");
+    }
+    return view;
+  }
+
+  private static final class ViewField {
+    final Field field;
+    final int id;
+    final boolean required;
+    final String description;
+
+    ViewField(Field field, int id, boolean required) {
+      this.field = field;
+      this.id = id;
+      this.required = required;
+      this.description = "field '" + field.getName() + "'";
+    }
+
+    void inject(Finder finder, Object target, Object source) {
+      set(target, findRequired(finder, source, id, required, description));
+    }
+
+    void set(Object target, View view) {
+      try {
+        field.set(target, view);
+      } catch (IllegalAccessException e) {
+        throw new AssertionError(e); // Made accessible when resolved.
+      }
+    }
+  }
+
+  /** The fields injected with the views inside a {@code ViewStub} once it inflated. */
+  private static final class Stub {
+    final int id;
+    final ViewField[] fields;
+
+    Stub(int id, List<ViewField> fields) {
+      this.id = id;
+      this.fields = fields.toArray(new ViewField[fields.size()]);
+    }
+
+    /** Returns the stub if the fields are injected once it inflates, or null if they were now. */
+    ViewStub inject(Finder finder, final Object target, Object source) {
+      return ButterKnife.injectStub(finder, source, id, new StubInjection() {
+        @Override public void inject(Finder finder, Object source) {
+          for (ViewField field : fields) {
+            field.inject(finder, target, source);
+          }
+        }
+      });
+    }
+  }
+
+  private static final class ClickMethod {
+    final Method method;
+    final int id;
+    final boolean required;
+    final int minInterval;
+    final boolean throttledPerTarget;
+    final boolean background;
+    final Method resultMethod;
+    final String description;
+
+    ClickMethod(Method method, int id, boolean required, OnClick onClick, Method resultMethod) {
+      this.method = method;
+      this.id = id;
+      this.required = required;
+      this.minInterval = onClick.minInterval();
+      this.throttledPerTarget = onClick.throttle() == butterknife.OnClick.Throttle.TARGET;
+      this.background = onClick.background();
+      this.resultMethod = resultMethod;
+      this.description = "method '" + method.getName() + "'";
+    }
+
+    /** Attach the listener to the view with the id, returning it, or null if it is missing. */
+    View inject(Finder finder, Object target, Object source) {
+      View view = findRequired(finder, source, id, required, description);
+      if (view != null) {
+        long[] nextClick;
+        if (throttledPerTarget) {
+          nextClick = ButterKnife.getTargetThrottle(target);
+        } else {
+          nextClick = new long[1];
+        }
+        view.setOnClickListener(new ClickListener(this, target, nextClick));
+      }
+      return view;
+    }
+
+    void click(final Object target, View view) {
+      final Object[] arguments = arguments(method, view);
+      if (!background) {
+        invoke(method, target, arguments);
+        return;
+      }
+      ButterKnife.executeClick(new Runnable() {
+        @Override public void run() {
+          final Object result = invoke(method, target, arguments);
+          if (resultMethod != null) {
+            ButterKnife.postToMainThread(new Runnable() {
+              @Override public void run() {
+                invoke(resultMethod, target, arguments(resultMethod, result));
+              }
+            });
+          }
+        }
+      });
+    }
+
+    /** The arguments of {@code method}, which takes either nothing or {@code argument}. */
+    private static Object[] arguments(Method method, Object argument) {
+      if (method.getParameterTypes().length == 0) {
+        return NO_ARGUMENTS;
+      }
+      return new Object[] {argument};
+    }
+
+    private static Object invoke(Method method, Object target, Object[] arguments) {
+      try {
+        return method.invoke(target, arguments);
+      } catch (IllegalAccessException e) {
+        throw new AssertionError(e); // Made accessible when resolved.
+      } catch (InvocationTargetException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+          throw (Error) cause;
+        }
+        throw new RuntimeException(cause);
+      }
+    }
+  }
+
+  private static final class ClickListener implements View.OnClickListener {
+    private final ClickMethod method;
+    private final Object target;
+    /** The uptime before which clicks are ignored, shared by the methods throttled per target. */
+    private final long[] nextClick;
+
+    ClickListener(ClickMethod method, Object target, long[] nextClick) {
+      this.method = method;
+      this.target = target;
+      this.nextClick = nextClick;
+    }
+
+    @Override public void onClick(View view) {
+      if (method.minInterval > 0) {
+        long now = SystemClock.uptimeMillis();
+        if (now < nextClick[0]) {
+          return;
+        }
+        nextClick[0] = now + method.minInterval;
+      }
+      method.click(target, view);
+    }
+  }
+}
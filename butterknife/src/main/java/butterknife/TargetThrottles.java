@@ -0,0 +1,77 @@
+package butterknife;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The time before which clicks of the methods of each target which are throttled per target are
+ * dropped. Targets are held weakly and compared by identity, so that the state lasts exactly as
+ * long as its target, across however many times some or all of its views are injected. Like
+ * injection itself, it is only used on the main thread.
+ */
+final class TargetThrottles {
+  private final ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+  private final Map<Key, long[]> nextClicks = new HashMap<Key, long[]>();
+  private final Probe probe = new Probe();
+
+  /** The state of {@code target}, created the first time it is asked for. */
+  long[] get(Object target) {
+    expungeCollected();
+    probe.target = target;
+    long[] nextClick = nextClicks.get(probe);
+    probe.target = null;
+    if (nextClick == null) {
+      nextClick = new long[1];
+      nextClicks.put(new Key(target, queue), nextClick);
+    }
+    return nextClick;
+  }
+
+  private void expungeCollected() {
+    Reference<?> collected = queue.poll();
+    while (collected != null) {
+      nextClicks.remove(collected);
+      collected = queue.poll();
+    }
+  }
+
+  private static final class Key extends WeakReference<Object> {
+    private final int hash;
+
+    Key(Object target, ReferenceQueue<Object> queue) {
+      super(target, queue);
+      hash = System.identityHashCode(target);
+    }
+
+    @Override public int hashCode() {
+      return hash;
+    }
+
+    @Override public boolean equals(Object o) {
+      if (o == this) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Object target = get();
+      return target != null && target == ((Key) o).get();
+    }
+  }
+
+  /** Finds the key of a target without allocating one. */
+  private static final class Probe {
+    Object target;
+
+    @Override public int hashCode() {
+      return System.identityHashCode(target);
+    }
+
+    @Override public boolean equals(Object o) {
+      return o instanceof Key && ((Key) o).get() == target;
+    }
+  }
+}
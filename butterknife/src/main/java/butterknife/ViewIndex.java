@@ -0,0 +1,110 @@
+package butterknife;
+
+import android.app.Activity;
+import android.util.SparseArray;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+
+/**
+ * An index of the views in a hierarchy by their ID. The hierarchy is walked once on the first
+ * lookup and every injection which uses the same index shares the result.
+ * <p>
+ * Use this when multiple targets are injected against the same root (e.g., an activity and its
+ * header and footer holders):
+ * <pre>{@code
+ * ViewIndex index = ViewIndex.of(this);
+ * ButterKnife.inject(this, index);
+ * ButterKnife.inject(header, index);
+ * ButterKnife.inject(footer, index);
+ * }</pre>
+ * An ID which was not in the hierarchy when it was indexed is not found until {@link #invalidate()}
+ * is called, so that looking up optional views which are missing does not walk the hierarchy
+ * again. Views which are removed from the hierarchy or moved within it are detected on lookup and
+ * searched for again. Call {@link #invalidate()} after adding views or changing IDs so that the
+ * hierarchy is indexed afresh. IDs are expected to be unique within the root.
+ */
+public final class ViewIndex {
+  private final View root;
+  private final SparseArray<View> views = new SparseArray<View>();
+  private boolean indexed;
+
+  private ViewIndex(View root) {
+    this.root = root;
+  }
+
+  /** Create an index of the specified view and its children. */
+  public static ViewIndex of(View root) {
+    if (root == null) {
+      throw new IllegalArgumentException("Root view must not be null.");
+    }
+    return new ViewIndex(root);
+  }
+
+  /** Create an index of the current content of the specified {@link Activity}. */
+  public static ViewIndex of(Activity activity) {
+    return of(activity.getWindow().getDecorView());
+  }
+
+  /** The view whose hierarchy is indexed. */
+  public View getRoot() {
+    return root;
+  }
+
+  /** Discard the index. The hierarchy will be walked again on the next lookup. */
+  public void invalidate() {
+    views.clear();
+    indexed = false;
+  }
+
+  /**
+   * Equivalent to {@link View#findViewById(int)} on the root as it was when it was indexed, apart
+   * from views which have since been added.
+   */
+  public View findById(int id) {
+    if (!indexed) {
+      index(root);
+      indexed = true;
+    }
+    View indexedView = views.get(id);
+    if (indexedView == null) {
+      // The whole hierarchy was indexed in one pass, so the ID is not in it.
+      return null;
+    }
+    if (indexedView.getId() == id && isInHierarchy(indexedView)) {
+      return indexedView;
+    }
+    // The view has since been moved or removed. Search the live hierarchy.
+    View view = root.findViewById(id);
+    if (view != null) {
+      views.put(id, view);
+    }
+    // Otherwise keep the stale entry so that a view which takes its place is found again.
+    return view;
+  }
+
+  private void index(View view) {
+    int id = view.getId();
+    // Only keep the first occurrence of an ID to match the traversal of findViewById.
+    if (id != View.NO_ID && views.get(id) == null) {
+      views.put(id, view);
+    }
+    if (view instanceof ViewGroup) {
+      ViewGroup group = (ViewGroup) view;
+      for (int i = 0, count = group.getChildCount(); i < count; i++) {
+        index(group.getChildAt(i));
+      }
+    }
+  }
+
+  private boolean isInHierarchy(View view) {
+    while (view != root) {
+      ViewParent parent = view.getParent();
+      if (!(parent instanceof View)) {
+        return false;
+      }
+      view = (View) parent;
+    }
+    return true;
+  }
+}
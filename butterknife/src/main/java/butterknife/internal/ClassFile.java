@@ -0,0 +1,594 @@
+package butterknife.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A minimal writer of the class file format covering what generated injectors use. Classes are
+ * written as version 49.0 so that the VM infers stack map frames itself.
+ */
+final class ClassFile {
+  static final int ACC_PUBLIC = 0x0001;
+  static final int ACC_PRIVATE = 0x0002;
+  static final int ACC_STATIC = 0x0008;
+  static final int ACC_FINAL = 0x0010;
+  static final int ACC_SUPER = 0x0020;
+  static final int ACC_BRIDGE = 0x0040;
+  static final int ACC_SYNTHETIC = 0x1000;
+
+  private static final int MAGIC = 0xCAFEBABE;
+  private static final int MAJOR_VERSION = 49;
+
+  private static final int CONSTANT_UTF8 = 1;
+  private static final int CONSTANT_INTEGER = 3;
+  private static final int CONSTANT_CLASS = 7;
+  private static final int CONSTANT_STRING = 8;
+  private static final int CONSTANT_FIELD = 9;
+  private static final int CONSTANT_METHOD = 10;
+  private static final int CONSTANT_INTERFACE_METHOD = 11;
+  private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+  /** The largest index an instruction with a one byte operand can refer to. */
+  private static final int MAX_BYTE_INDEX = 0xff;
+
+  private final Map<String, Integer> constants = new LinkedHashMap<String, Integer>();
+  private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+  private final DataOutputStream poolOut = new DataOutputStream(pool);
+  private int poolCount = 1;
+
+  private final int access;
+  private final int thisClass;
+  private final int superClass;
+  private final int[] interfaces;
+  private final ByteArrayOutputStream fields = new ByteArrayOutputStream();
+  private final ByteArrayOutputStream methods = new ByteArrayOutputStream();
+  private int fieldCount;
+  private int methodCount;
+  private String signature;
+
+  /** Names are internal names, e.g. {@code android/view/View$OnClickListener}. */
+  ClassFile(int access, String name, String superName, String... interfaceNames) {
+    this.access = access;
+    thisClass = classRef(name);
+    superClass = classRef(superName);
+    interfaces = new int[interfaceNames.length];
+    for (int i = 0; i < interfaceNames.length; i++) {
+      interfaces[i] = classRef(interfaceNames[i]);
+    }
+  }
+
+  /**
+   * Set the generic signature of the class, e.g.
+   * {@code <T:Ljava/lang/Number;>Ljava/util/List<TT;>;}.
+   */
+  void setSignature(String signature) {
+    // Constants must be added before the pool is written out.
+    utf8("Signature");
+    utf8(signature);
+    this.signature = signature;
+  }
+
+  void addField(int access, String name, String descriptor) {
+    DataOutputStream out = new DataOutputStream(fields);
+    try {
+      out.writeShort(access);
+      out.writeShort(utf8(name));
+      out.writeShort(utf8(descriptor));
+      out.writeShort(0); // Attributes.
+    } catch (IOException e) {
+      throw new AssertionError(e);
+    }
+    fieldCount++;
+  }
+
+  /** Begin a method. Its code is added to this class by {@link Code#end()}. */
+  Code addMethod(int access, String name, String descriptor) {
+    return addMethod(access, name, descriptor, null);
+  }
+
+  /** Begin a method which has a generic {@code signature}. */
+  Code addMethod(int access, String name, String descriptor, String signature) {
+    int maxLocals = argumentSlots(descriptor);
+    if ((access & ACC_STATIC) == 0) {
+      maxLocals++; // this.
+    }
+    return new Code(access, name, descriptor, signature, maxLocals);
+  }
+
+  byte[] toByteArray() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    try {
+      out.writeInt(MAGIC);
+      out.writeShort(0);
+      out.writeShort(MAJOR_VERSION);
+      out.writeShort(poolCount);
+      pool.writeTo(out);
+      out.writeShort(access);
+      out.writeShort(thisClass);
+      out.writeShort(superClass);
+      out.writeShort(interfaces.length);
+      for (int index : interfaces) {
+        out.writeShort(index);
+      }
+      out.writeShort(fieldCount);
+      fields.writeTo(out);
+      out.writeShort(methodCount);
+      methods.writeTo(out);
+      if (signature == null) {
+        out.writeShort(0); // Attributes.
+      } else {
+        out.writeShort(1);
+        writeSignature(out, signature);
+      }
+      out.flush();
+    } catch (IOException e) {
+      throw new AssertionError(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  private void writeSignature(DataOutputStream out, String signature) throws IOException {
+    out.writeShort(utf8("Signature"));
+    out.writeInt(2);
+    out.writeShort(utf8(signature));
+  }
+
+  private int utf8(String value) {
+    String key = "U" + value;
+    Integer index = constants.get(key);
+    if (index == null) {
+      try {
+        poolOut.writeByte(CONSTANT_UTF8);
+        poolOut.writeUTF(value);
+      } catch (IOException e) {
+        throw new AssertionError(e);
+      }
+      index = addConstant(key);
+    }
+    return index;
+  }
+
+  private int classRef(String internalName) {
+    return reference("C", CONSTANT_CLASS, utf8(internalName));
+  }
+
+  private int string(String value) {
+    return reference("S", CONSTANT_STRING, utf8(value));
+  }
+
+  private int integer(int value) {
+    String key = "I" + value;
+    Integer index = constants.get(key);
+    if (index == null) {
+      try {
+        poolOut.writeByte(CONSTANT_INTEGER);
+        poolOut.writeInt(value);
+      } catch (IOException e) {
+        throw new AssertionError(e);
+      }
+      index = addConstant(key);
+    }
+    return index;
+  }
+
+  private int member(int tag, String owner, String name, String descriptor) {
+    int nameAndType = reference("N", CONSTANT_NAME_AND_TYPE, utf8(name), utf8(descriptor));
+    return reference("M" + tag, tag, classRef(owner), nameAndType);
+  }
+
+  private int reference(String kind, int tag, int... operands) {
+    StringBuilder key = new StringBuilder(kind);
+    for (int operand : operands) {
+      key.append(':').append(operand);
+    }
+    Integer index = constants.get(key.toString());
+    if (index == null) {
+      try {
+        poolOut.writeByte(tag);
+        for (int operand : operands) {
+          poolOut.writeShort(operand);
+        }
+      } catch (IOException e) {
+        throw new AssertionError(e);
+      }
+      index = addConstant(key.toString());
+    }
+    return index;
+  }
+
+  private int addConstant(String key) {
+    int index = poolCount++;
+    constants.put(key, index);
+    return index;
+  }
+
+  /** The number of local variable slots taken by the arguments of a method descriptor. */
+  static int argumentSlots(String descriptor) {
+    int slots = 0;
+    int i = 1;
+    while (descriptor.charAt(i) != ')') {
+      if (isWide(descriptor.charAt(i))) {
+        slots += 2;
+      } else {
+        slots++;
+      }
+      while (descriptor.charAt(i) == '[') {
+        i++;
+      }
+      if (descriptor.charAt(i) == 'L') {
+        i = descriptor.indexOf(';', i);
+      }
+      i++;
+    }
+    return slots;
+  }
+
+  /** The number of stack slots taken by a value of the type {@code descriptor}. */
+  static int slots(String descriptor) {
+    char c = descriptor.charAt(0);
+    if (c == 'V') {
+      return 0;
+    }
+    if (isWide(c)) {
+      return 2;
+    }
+    return 1;
+  }
+
+  /** Whether a value of the type {@code c} takes two slots, i.e., is a long or a double. */
+  private static boolean isWide(char c) {
+    return c == 'J' || c == 'D';
+  }
+
+  /** A position in a method's code which branches can target before it is known. */
+  static final class Label {
+    private int position = -1;
+    private final List<Integer> branches = new ArrayList<Integer>();
+  }
+
+  /** The instructions of a single method. Tracks the stack depth of the straight-line code. */
+  final class Code {
+    private static final int ILOAD = 0x15;
+    private static final int ILOAD_0 = 0x1a;
+    private static final int ALOAD = 0x19;
+    private static final int ALOAD_0 = 0x2a;
+    private static final int IALOAD = 0x2e;
+    private static final int ISTORE = 0x36;
+    private static final int ISTORE_0 = 0x3b;
+    private static final int ASTORE = 0x3a;
+    private static final int ASTORE_0 = 0x4b;
+    private static final int ACONST_NULL = 0x01;
+    private static final int ICONST_0 = 0x03;
+    private static final int ICONST_MAX = 5;
+    private static final int BIPUSH = 0x10;
+    private static final int SIPUSH = 0x11;
+    private static final int LDC = 0x12;
+    private static final int LDC_W = 0x13;
+    private static final int DUP = 0x59;
+    private static final int IINC = 0x84;
+    private static final int IFNE = 0x9a;
+    private static final int IF_ICMPNE = 0xa0;
+    private static final int IF_ICMPGE = 0xa2;
+    private static final int IF_ACMPNE = 0xa6;
+    private static final int GOTO = 0xa7;
+    private static final int ARETURN = 0xb0;
+    private static final int RETURN = 0xb1;
+    private static final int GETSTATIC = 0xb2;
+    private static final int PUTSTATIC = 0xb3;
+    private static final int GETFIELD = 0xb4;
+    private static final int PUTFIELD = 0xb5;
+    private static final int INVOKEVIRTUAL = 0xb6;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKESTATIC = 0xb8;
+    private static final int INVOKEINTERFACE = 0xb9;
+    private static final int NEW = 0xbb;
+    private static final int ARRAYLENGTH = 0xbe;
+    private static final int ATHROW = 0xbf;
+    private static final int CHECKCAST = 0xc0;
+    private static final int IFNULL = 0xc6;
+    private static final int IFNONNULL = 0xc7;
+
+    /** The highest local which has a short {@code <op>_<n>} form of its load and store. */
+    private static final int MAX_SHORT_FORM_LOCAL = 3;
+    /** The stack depth change of a comparison which pops its two operands. */
+    private static final int POP_TWO_OPERANDS = -2;
+    /** The max_stack, max_locals, code_length and empty exception table and attributes. */
+    private static final int CODE_HEADER_LENGTH = 12;
+
+    private final int access;
+    private final String name;
+    private final String descriptor;
+    private final String signature;
+    private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+    private final List<Label> labels = new ArrayList<Label>();
+    private int maxLocals;
+    private int stack;
+    private int maxStack;
+
+    private Code(int access, String name, String descriptor, String signature, int maxLocals) {
+      this.access = access;
+      this.name = name;
+      this.descriptor = descriptor;
+      this.signature = signature;
+      this.maxLocals = maxLocals;
+    }
+
+    Code aload(int local) {
+      return local(ALOAD, ALOAD_0, local, 1);
+    }
+
+    Code astore(int local) {
+      return local(ASTORE, ASTORE_0, local, -1);
+    }
+
+    Code iload(int local) {
+      return local(ILOAD, ILOAD_0, local, 1);
+    }
+
+    Code istore(int local) {
+      return local(ISTORE, ISTORE_0, local, -1);
+    }
+
+    /** Add {@code increment} to the int in {@code local}. */
+    Code iinc(int local, int increment) {
+      if (increment < Byte.MIN_VALUE || increment > Byte.MAX_VALUE) {
+        throw new IllegalArgumentException("Increment out of range: " + increment);
+      }
+      local(IINC, -1, local, 0);
+      code.write(increment);
+      return this;
+    }
+
+    /** {@code shortOpcode} is the opcode of the {@code <op>_0} form, or -1 if there is none. */
+    private Code local(int opcode, int shortOpcode, int local, int delta) {
+      if (local > MAX_BYTE_INDEX) {
+        throw new IllegalArgumentException("Too many local variables in " + name + descriptor);
+      }
+      if (local <= MAX_SHORT_FORM_LOCAL && shortOpcode != -1) {
+        // The <op>_<n> forms of locals 0 to 3 follow each other in opcode order.
+        op(shortOpcode + local, delta);
+      } else {
+        op(opcode, delta);
+        code.write(local);
+      }
+      maxLocals = Math.max(maxLocals, local + 1);
+      return this;
+    }
+
+    Code arrayLength() {
+      return op(ARRAYLENGTH, 0);
+    }
+
+    /** Load the element of an int array at an index, both on the stack. */
+    Code iaload() {
+      return op(IALOAD, -1);
+    }
+
+    Code pushNull() {
+      return op(ACONST_NULL, 1);
+    }
+
+    Code pushInt(int value) {
+      if (value >= -1 && value <= ICONST_MAX) {
+        op(ICONST_0 + value, 1);
+      } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+        op(BIPUSH, 1);
+        code.write(value);
+      } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+        op(SIPUSH, 1);
+        writeShort(value);
+      } else {
+        ldc(integer(value));
+      }
+      return this;
+    }
+
+    Code pushString(String value) {
+      ldc(string(value));
+      return this;
+    }
+
+    private void ldc(int index) {
+      if (index <= MAX_BYTE_INDEX) {
+        op(LDC, 1);
+        code.write(index);
+      } else {
+        op(LDC_W, 1);
+        writeShort(index);
+      }
+    }
+
+    Code dup() {
+      return op(DUP, 1);
+    }
+
+    Code newInstance(String type) {
+      op(NEW, 1);
+      writeShort(classRef(type));
+      return this;
+    }
+
+    Code checkcast(String type) {
+      op(CHECKCAST, 0);
+      writeShort(classRef(type));
+      return this;
+    }
+
+    Code getField(String owner, String name, String descriptor) {
+      return member(GETFIELD, CONSTANT_FIELD, owner, name, descriptor, slots(descriptor) - 1);
+    }
+
+    Code putField(String owner, String name, String descriptor) {
+      return member(PUTFIELD, CONSTANT_FIELD, owner, name, descriptor, -slots(descriptor) - 1);
+    }
+
+    Code getStatic(String owner, String name, String descriptor) {
+      return member(GETSTATIC, CONSTANT_FIELD, owner, name, descriptor, slots(descriptor));
+    }
+
+    Code putStatic(String owner, String name, String descriptor) {
+      return member(PUTSTATIC, CONSTANT_FIELD, owner, name, descriptor, -slots(descriptor));
+    }
+
+    Code invokeVirtual(String owner, String name, String descriptor) {
+      return invoke(INVOKEVIRTUAL, CONSTANT_METHOD, owner, name, descriptor, 1);
+    }
+
+    Code invokeSpecial(String owner, String name, String descriptor) {
+      return invoke(INVOKESPECIAL, CONSTANT_METHOD, owner, name, descriptor, 1);
+    }
+
+    Code invokeStatic(String owner, String name, String descriptor) {
+      return invoke(INVOKESTATIC, CONSTANT_METHOD, owner, name, descriptor, 0);
+    }
+
+    Code invokeInterface(String owner, String name, String descriptor) {
+      invoke(INVOKEINTERFACE, CONSTANT_INTERFACE_METHOD, owner, name, descriptor, 1);
+      code.write(argumentSlots(descriptor) + 1);
+      code.write(0);
+      return this;
+    }
+
+    private Code invoke(int opcode, int tag, String owner, String name, String descriptor,
+        int receiver) {
+      String returnType = descriptor.substring(descriptor.indexOf(')') + 1);
+      int delta = slots(returnType) - argumentSlots(descriptor) - receiver;
+      return member(opcode, tag, owner, name, descriptor, delta);
+    }
+
+    private Code member(int opcode, int tag, String owner, String name, String descriptor,
+        int delta) {
+      op(opcode, delta);
+      writeShort(ClassFile.this.member(tag, owner, name, descriptor));
+      return this;
+    }
+
+    Code ifNull(Label label) {
+      return branch(IFNULL, label, -1);
+    }
+
+    Code ifNonNull(Label label) {
+      return branch(IFNONNULL, label, -1);
+    }
+
+    /** Branch if the int on the stack is not zero, i.e., a boolean is true. */
+    Code ifNonZero(Label label) {
+      return branch(IFNE, label, -1);
+    }
+
+    /** Branch if the two ints on the stack are not equal. */
+    Code ifIntsNotEqual(Label label) {
+      return branch(IF_ICMPNE, label, POP_TWO_OPERANDS);
+    }
+
+    /** Branch if the first of the two ints on the stack is greater than or equal to the second. */
+    Code ifIntsGreaterOrEqual(Label label) {
+      return branch(IF_ICMPGE, label, POP_TWO_OPERANDS);
+    }
+
+    /** Branch if the two references on the stack are not the same. */
+    Code ifReferencesNotSame(Label label) {
+      return branch(IF_ACMPNE, label, POP_TWO_OPERANDS);
+    }
+
+    Code goTo(Label label) {
+      return branch(GOTO, label, 0);
+    }
+
+    private Code branch(int opcode, Label label, int delta) {
+      label.branches.add(code.size());
+      if (!labels.contains(label)) {
+        labels.add(label);
+      }
+      op(opcode, delta);
+      writeShort(0); // Patched once every label is marked.
+      return this;
+    }
+
+    Code mark(Label label) {
+      label.position = code.size();
+      if (!labels.contains(label)) {
+        labels.add(label);
+      }
+      return this;
+    }
+
+    Code athrow() {
+      op(ATHROW, -1);
+      stack = 0; // Nothing follows on this path.
+      return this;
+    }
+
+    Code returnVoid() {
+      op(RETURN, 0);
+      stack = 0;
+      return this;
+    }
+
+    Code returnObject() {
+      op(ARETURN, -1);
+      stack = 0;
+      return this;
+    }
+
+    private Code op(int opcode, int delta) {
+      code.write(opcode);
+      stack += delta;
+      maxStack = Math.max(maxStack, stack);
+      return this;
+    }
+
+    private void writeShort(int value) {
+      code.write(value >>> Byte.SIZE);
+      code.write(value);
+    }
+
+    /** Add this method to the class. */
+    void end() {
+      byte[] bytes = code.toByteArray();
+      for (Label label : labels) {
+        if (label.position == -1) {
+          throw new IllegalStateException("Label was never marked in " + name + descriptor);
+        }
+        for (int branch : label.branches) {
+          int offset = label.position - branch;
+          if (offset < Short.MIN_VALUE || offset > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Method is too large: " + name + descriptor);
+          }
+          bytes[branch + 1] = (byte) (offset >>> Byte.SIZE);
+          bytes[branch + 2] = (byte) offset;
+        }
+      }
+
+      DataOutputStream out = new DataOutputStream(methods);
+      try {
+        out.writeShort(access);
+        out.writeShort(utf8(name));
+        out.writeShort(utf8(descriptor));
+        if (signature == null) {
+          out.writeShort(1); // Attributes.
+        } else {
+          out.writeShort(2);
+          writeSignature(out, signature);
+        }
+        out.writeShort(utf8("Code"));
+        out.writeInt(CODE_HEADER_LENGTH + bytes.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        out.writeShort(0); // Exception table.
+        out.writeShort(0); // Attributes.
+      } catch (IOException e) {
+        throw new AssertionError(e);
+      }
+      methodCount++;
+    }
+  }
+}
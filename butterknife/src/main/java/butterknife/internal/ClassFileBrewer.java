@@ -0,0 +1,629 @@
+package butterknife.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import butterknife.internal.ClassFile.Code;
+import butterknife.internal.ClassFile.Label;
+
+import static butterknife.internal.ClassFile.ACC_BRIDGE;
+import static butterknife.internal.ClassFile.ACC_FINAL;
+import static butterknife.internal.ClassFile.ACC_PRIVATE;
+import static butterknife.internal.ClassFile.ACC_PUBLIC;
+import static butterknife.internal.ClassFile.ACC_STATIC;
+import static butterknife.internal.ClassFile.ACC_SUPER;
+import static butterknife.internal.ClassFile.ACC_SYNTHETIC;
+import static butterknife.internal.InjectViewProcessor.VIEW_TYPE;
+
+/**
+ * Writes the injector of a {@link TargetClass} as class files rather than source. The bytecode
+ * does exactly what the source from {@link TargetClass#brewJava()} does, instruction for
+ * statement, but spares javac another round to parse and compile it.
+ */
+final class ClassFileBrewer {
+  /** Resolves canonical type names as written in source to binary names. */
+  interface BinaryNames {
+    /** Returns null if there is no type with {@code canonicalName}. */
+    String get(String canonicalName);
+  }
+
+  private static final String OBJECT = "java/lang/Object";
+  private static final String VIEW = "android/view/View";
+  private static final String ON_CLICK_LISTENER = "android/view/View$OnClickListener";
+  private static final String FINDER = "butterknife/ButterKnife$Finder";
+  private static final String INJECTOR = "butterknife/ButterKnife$Injector";
+  private static final String UNBINDER = "butterknife/ButterKnife$Unbinder";
+  private static final String CONTEXT = "android/content/Context";
+  private static final String RESOURCES = "android/content/res/Resources";
+  private static final String CONFIGURATION = "android/content/res/Configuration";
+  private static final String WEAK_REFERENCE = "java/lang/ref/WeakReference";
+  private static final String ILLEGAL_STATE = "java/lang/IllegalStateException";
+
+  // Local variables of inject(Finder, T, Object).
+  private static final int THIS_LOCAL = 0;
+  private static final int FINDER_LOCAL = 1;
+  private static final int TARGET_LOCAL = 2;
+  private static final int SOURCE_LOCAL = 3;
+  private static final int VIEW_LOCAL = 4;
+  private static final int RESOURCES_LOCAL = 5;
+  private static final int PARENT_UNBINDER_LOCAL = 6;
+  /** The views of the listeners are kept in consecutive locals from this one on. */
+  private static final int LISTENER_VIEW_LOCAL = 7;
+
+  // Local variables of inject(Finder, T, Object, int[]) besides those shared with inject.
+  private static final int IDS_ARGUMENT = 4;
+  /** The IDs are moved here out of the way of the view, which is stored as in inject. */
+  private static final int IDS_LOCAL = 5;
+  private static final int INDEX_LOCAL = 6;
+  private static final int ID_LOCAL = 7;
+
+  private final TargetClass targetClass;
+  private final BinaryNames binaryNames;
+  private final Map<String, byte[]> classFiles = new LinkedHashMap<String, byte[]>();
+  private String injectorName;
+  private String superName;
+  private String targetName;
+  private int anonymousCount;
+
+  ClassFileBrewer(TargetClass targetClass, BinaryNames binaryNames) {
+    this.targetClass = targetClass;
+    this.binaryNames = binaryNames;
+  }
+
+  /**
+   * The class files of the injector and its listeners keyed by binary name, or null if one of the
+   * types it references cannot be resolved or it has to be written as source.
+   */
+  Map<String, byte[]> brew() {
+    if (targetClass.isSourceOnly()) {
+      return null;
+    }
+    try {
+      injectorName = injectorName(targetClass);
+      targetName = internalName(targetClass.getTargetType());
+      TargetClass chainedParent = targetClass.getChainedParent();
+      if (chainedParent != null) {
+        superName = injectorName(chainedParent);
+      } else {
+        superName = INJECTOR;
+      }
+
+      List<ResourceBinding> resourceBindings = targetClass.getResourceBindings();
+      Map<String, ResourceBinding> cachedResources =
+          TargetClass.getCachedResources(resourceBindings);
+
+      ClassFile injector = new ClassFile(ACC_PUBLIC | ACC_SUPER, injectorName, superName);
+      // Signature: <T extends Target> extends Injector<T> (or the parent injector).
+      injector.setSignature("<T:" + objectDescriptor(targetName) + ">L" + superName + "<TT;>;");
+      if (!cachedResources.isEmpty()) {
+        injector.addField(ACC_PRIVATE | ACC_STATIC, "cachedResources",
+            objectDescriptor(WEAK_REFERENCE));
+        injector.addField(ACC_PRIVATE | ACC_STATIC, "cachedConfiguration",
+            objectDescriptor(CONFIGURATION));
+        for (ResourceBinding binding : cachedResources.values()) {
+          injector.addField(ACC_PRIVATE | ACC_STATIC, binding.getCacheName(),
+              descriptor(binding.getType()));
+        }
+      }
+      injector.addField(ACC_PUBLIC | ACC_STATIC | ACC_FINAL, "INSTANCE",
+          objectDescriptor(injectorName));
+      emitConstructor(injector);
+      emitInstance(injector);
+      emitInject(injector, resourceBindings, cachedResources);
+      emitPartialInject(injector);
+      emitReset(injector);
+      emitBridges(injector);
+      classFiles.put(targetClass.getFqcn(), injector.toByteArray());
+      return classFiles;
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private void emitConstructor(ClassFile injector) {
+    injector.addMethod(ACC_PUBLIC, "<init>", "()V")
+        .aload(THIS_LOCAL)
+        .invokeSpecial(superName, "<init>", "()V")
+        .returnVoid()
+        .end();
+  }
+
+  /** Emit the static initializer creating the shared instance. */
+  private void emitInstance(ClassFile injector) {
+    injector.addMethod(ACC_STATIC, "<clinit>", "()V")
+        .newInstance(injectorName)
+        .dup()
+        .invokeSpecial(injectorName, "<init>", "()V")
+        .putStatic(injectorName, "INSTANCE", objectDescriptor(injectorName))
+        .returnVoid()
+        .end();
+  }
+
+  private void emitInject(ClassFile injector, List<ResourceBinding> resourceBindings,
+      Map<String, ResourceBinding> cachedResources) {
+    Code code = injector.addMethod(ACC_PUBLIC, "inject", injectDescriptor(targetName),
+        "(" + objectDescriptor(FINDER) + "TT;Ljava/lang/Object;)" + objectDescriptor(UNBINDER));
+
+    // Call the superclass injector, if any.
+    TargetClass chainedParent = targetClass.getChainedParent();
+    if (chainedParent != null) {
+      code.aload(THIS_LOCAL)
+          .aload(FINDER_LOCAL)
+          .aload(TARGET_LOCAL)
+          .aload(SOURCE_LOCAL)
+          .invokeSpecial(superName, "inject",
+              injectDescriptor(internalName(chainedParent.getTargetType())))
+          .astore(PARENT_UNBINDER_LOCAL);
+    }
+
+    int listeners = 0;
+    for (ViewInjection injection : targetClass.getViewInjections()) {
+      emitViewInjection(code, injection);
+      if (injection.getMethodBinding() != null) {
+        // Keep the view for the unbinder to remove the listener from.
+        code.aload(VIEW_LOCAL).astore(LISTENER_VIEW_LOCAL + listeners++);
+      }
+    }
+
+    if (!resourceBindings.isEmpty()) {
+      emitResourceBindings(code, resourceBindings, cachedResources);
+    }
+
+    emitUnbinder(code, listeners);
+    code.returnObject().end();
+  }
+
+  /** Push the unbinder of the injection, capturing the views of its {@code listeners}. */
+  private void emitUnbinder(Code code, int listeners) {
+    boolean hasParent = targetClass.getChainedParent() != null;
+    List<ViewInjection> viewInjections = new ArrayList<ViewInjection>(
+        targetClass.getViewInjections());
+    if (viewInjections.isEmpty()) {
+      if (hasParent) {
+        code.aload(PARENT_UNBINDER_LOCAL);
+      } else {
+        code.getStatic(UNBINDER, "EMPTY", objectDescriptor(UNBINDER));
+      }
+      return;
+    }
+
+    // Numbered after the listeners like javac numbers the anonymous classes of the source.
+    String binaryName = targetClass.getFqcn() + "$" + ++anonymousCount;
+    String name = binaryName.replace('.', '/');
+    String targetDescriptor = objectDescriptor(targetName);
+    String unbinderDescriptor = objectDescriptor(UNBINDER);
+    String viewDescriptor = objectDescriptor(VIEW);
+
+    StringBuilder constructorDescriptor = new StringBuilder("(").append(targetDescriptor);
+    if (hasParent) {
+      constructorDescriptor.append(unbinderDescriptor);
+    }
+    for (int i = 0; i < listeners; i++) {
+      constructorDescriptor.append(viewDescriptor);
+    }
+    constructorDescriptor.append(")V");
+
+    ClassFile unbinder = new ClassFile(ACC_FINAL | ACC_SUPER, name, OBJECT, UNBINDER);
+    unbinder.addField(ACC_FINAL | ACC_SYNTHETIC, "val$target", targetDescriptor);
+    if (hasParent) {
+      unbinder.addField(ACC_FINAL | ACC_SYNTHETIC, "val$parentUnbinder", unbinderDescriptor);
+    }
+    for (int i = 1; i <= listeners; i++) {
+      unbinder.addField(ACC_FINAL | ACC_SYNTHETIC, "val$" + TargetClass.listenerView(i),
+          viewDescriptor);
+    }
+
+    Code constructor = unbinder.addMethod(0, "<init>", constructorDescriptor.toString())
+        .aload(0)
+        .invokeSpecial(OBJECT, "<init>", "()V")
+        .aload(0)
+        .aload(1)
+        .putField(name, "val$target", targetDescriptor);
+    int parameter = 2;
+    if (hasParent) {
+      constructor.aload(0)
+          .aload(parameter++)
+          .putField(name, "val$parentUnbinder", unbinderDescriptor);
+    }
+    for (int i = 1; i <= listeners; i++) {
+      constructor.aload(0)
+          .aload(parameter++)
+          .putField(name, "val$" + TargetClass.listenerView(i), viewDescriptor);
+    }
+    constructor.returnVoid().end();
+
+    Code unbind = unbinder.addMethod(ACC_PUBLIC, "unbind", "()V");
+    if (hasParent) {
+      unbind.aload(0)
+          .getField(name, "val$parentUnbinder", unbinderDescriptor)
+          .invokeInterface(UNBINDER, "unbind", "()V");
+    }
+    for (ViewInjection injection : viewInjections) {
+      for (FieldBinding fieldBinding : injection.getFieldBindings()) {
+        unbind.aload(0)
+            .getField(name, "val$target", targetDescriptor)
+            .pushNull()
+            .putField(fieldOwner(fieldBinding.getDeclaringType()), fieldBinding.getName(),
+                descriptor(fieldBinding.getViewType()));
+      }
+    }
+    int listener = 0;
+    for (ViewInjection injection : viewInjections) {
+      if (injection.getMethodBinding() == null) {
+        continue;
+      }
+      String field = "val$" + TargetClass.listenerView(++listener);
+      Label skip = null;
+      if (targetClass.isListenerGuarded(injection)) {
+        skip = new Label();
+        unbind.aload(0).getField(name, field, viewDescriptor).ifNull(skip);
+      }
+      unbind.aload(0)
+          .getField(name, field, viewDescriptor)
+          .pushNull()
+          .invokeVirtual(VIEW, "setOnClickListener",
+              "(" + objectDescriptor(ON_CLICK_LISTENER) + ")V");
+      if (skip != null) {
+        unbind.mark(skip);
+      }
+    }
+    unbind.returnVoid().end();
+    classFiles.put(binaryName, unbinder.toByteArray());
+
+    code.newInstance(name)
+        .dup()
+        .aload(TARGET_LOCAL);
+    if (hasParent) {
+      code.aload(PARENT_UNBINDER_LOCAL);
+    }
+    for (int i = 0; i < listeners; i++) {
+      code.aload(LISTENER_VIEW_LOCAL + i);
+    }
+    code.invokeSpecial(name, "<init>", constructorDescriptor.toString());
+  }
+
+  private void emitPartialInject(ClassFile injector) {
+    Code code = injector.addMethod(ACC_PUBLIC, "inject", partialInjectDescriptor(targetName),
+        "(" + objectDescriptor(FINDER) + "TT;Ljava/lang/Object;[I)V");
+
+    // The superclass injector re-injects the IDs bound by ancestors first.
+    TargetClass chainedParent = targetClass.getChainedParent();
+    if (chainedParent != null) {
+      code.aload(THIS_LOCAL)
+          .aload(FINDER_LOCAL)
+          .aload(TARGET_LOCAL)
+          .aload(SOURCE_LOCAL)
+          .aload(IDS_ARGUMENT)
+          .invokeSpecial(superName, "inject",
+              partialInjectDescriptor(internalName(chainedParent.getTargetType())));
+    }
+
+    Collection<ViewInjection> viewInjections = targetClass.getViewInjections();
+    if (!viewInjections.isEmpty()) {
+      // for (int id : ids) with a comparison of id for each view injection.
+      Label loop = new Label();
+      Label done = new Label();
+      code.aload(IDS_ARGUMENT)
+          .astore(IDS_LOCAL)
+          .pushInt(0)
+          .istore(INDEX_LOCAL)
+          .mark(loop)
+          .iload(INDEX_LOCAL)
+          .aload(IDS_LOCAL)
+          .arrayLength()
+          .ifIntsGreaterOrEqual(done)
+          .aload(IDS_LOCAL)
+          .iload(INDEX_LOCAL)
+          .iaload()
+          .istore(ID_LOCAL);
+      Label next = new Label();
+      for (ViewInjection injection : viewInjections) {
+        Label otherId = new Label();
+        code.iload(ID_LOCAL)
+            .pushInt(injection.getId())
+            .ifIntsNotEqual(otherId);
+        emitViewInjection(code, injection);
+        code.goTo(next)
+            .mark(otherId);
+      }
+      code.mark(next)
+          .iinc(INDEX_LOCAL, 1)
+          .goTo(loop)
+          .mark(done);
+    }
+    code.returnVoid().end();
+  }
+
+  private void emitViewInjection(Code code, ViewInjection injection) {
+    FieldBinding ancestorField = targetClass.findAncestorField(injection.getId());
+    if (ancestorField != null) {
+      // The ancestor injector has already looked this view up. Re-use its result.
+      code.aload(TARGET_LOCAL)
+          .getField(internalName(ancestorField.getDeclaringType()), ancestorField.getName(),
+              descriptor(ancestorField.getViewType()));
+    } else {
+      code.aload(FINDER_LOCAL)
+          .aload(SOURCE_LOCAL)
+          .pushInt(injection.getId())
+          .invokeVirtual(FINDER, "findById", "(Ljava/lang/Object;I)" + objectDescriptor(VIEW));
+    }
+    code.astore(VIEW_LOCAL);
+
+    if (targetClass.isCheckedForNull(injection)) {
+      List<Binding> requiredBindings = injection.getRequiredBindings();
+      Label found = new Label();
+      code.aload(VIEW_LOCAL)
+          .ifNonNull(found)
+          .newInstance(ILLEGAL_STATE)
+          .dup()
+          .pushString(TargetClass.missingViewMessage(injection.getId(), requiredBindings))
+          .invokeSpecial(ILLEGAL_STATE, "<init>", "(Ljava/lang/String;)V")
+          .athrow()
+          .mark(found);
+    }
+
+    for (FieldBinding fieldBinding : injection.getFieldBindings()) {
+      code.aload(TARGET_LOCAL).aload(VIEW_LOCAL);
+      emitCastIfNeeded(code, fieldBinding.getViewType());
+      code.putField(fieldOwner(fieldBinding.getDeclaringType()), fieldBinding.getName(),
+          descriptor(fieldBinding.getViewType()));
+    }
+
+    MethodBinding methodBinding = injection.getMethodBinding();
+    if (methodBinding != null) {
+      Label skip = null;
+      if (targetClass.isListenerGuarded(injection)) {
+        skip = new Label();
+        code.aload(VIEW_LOCAL).ifNull(skip);
+      }
+      String listener = emitListener(methodBinding);
+      code.aload(VIEW_LOCAL)
+          .newInstance(listener)
+          .dup()
+          .aload(TARGET_LOCAL)
+          .invokeSpecial(listener, "<init>", "(" + objectDescriptor(targetName) + ")V")
+          .invokeVirtual(VIEW, "setOnClickListener",
+              "(" + objectDescriptor(ON_CLICK_LISTENER) + ")V");
+      if (skip != null) {
+        code.mark(skip);
+      }
+    }
+  }
+
+  /** Writes the equivalent of the anonymous listener class and returns its internal name. */
+  private String emitListener(MethodBinding methodBinding) {
+    // Numbered like javac numbers the anonymous classes of the source.
+    String binaryName = targetClass.getFqcn() + "$" + ++anonymousCount;
+    String name = binaryName.replace('.', '/');
+    String targetDescriptor = objectDescriptor(targetName);
+
+    ClassFile listener = new ClassFile(ACC_FINAL | ACC_SUPER, name, OBJECT, ON_CLICK_LISTENER);
+    listener.addField(ACC_FINAL | ACC_SYNTHETIC, "val$target", targetDescriptor);
+    listener.addMethod(0, "<init>", "(" + targetDescriptor + ")V")
+        .aload(0)
+        .invokeSpecial(OBJECT, "<init>", "()V")
+        .aload(0)
+        .aload(1)
+        .putField(name, "val$target", targetDescriptor)
+        .returnVoid()
+        .end();
+
+    Code onClick = listener.addMethod(ACC_PUBLIC, "onClick", "(" + objectDescriptor(VIEW) + ")V")
+        .aload(0)
+        .getField(name, "val$target", targetDescriptor);
+    String parameterType = methodBinding.getViewType();
+    if (parameterType == null) {
+      onClick.invokeVirtual(targetName, methodBinding.getName(), "()V");
+    } else {
+      onClick.aload(1);
+      emitCastIfNeeded(onClick, parameterType);
+      onClick.invokeVirtual(targetName, methodBinding.getName(),
+          "(" + descriptor(parameterType) + ")V");
+    }
+    onClick.returnVoid().end();
+
+    classFiles.put(binaryName, listener.toByteArray());
+    return name;
+  }
+
+  private void emitResourceBindings(Code code, List<ResourceBinding> bindings,
+      Map<String, ResourceBinding> cachedResources) {
+    String configurationDescriptor = objectDescriptor(CONFIGURATION);
+    String getConfiguration = "()" + configurationDescriptor;
+    String weakReferenceDescriptor = objectDescriptor(WEAK_REFERENCE);
+
+    code.aload(FINDER_LOCAL)
+        .aload(SOURCE_LOCAL)
+        .invokeVirtual(FINDER, "getContext", "(Ljava/lang/Object;)" + objectDescriptor(CONTEXT))
+        .invokeVirtual(CONTEXT, "getResources", "()" + objectDescriptor(RESOURCES))
+        .astore(RESOURCES_LOCAL);
+
+    if (!cachedResources.isEmpty()) {
+      Label resolve = new Label();
+      Label resolved = new Label();
+      code.getStatic(injectorName, "cachedResources", weakReferenceDescriptor)
+          .ifNull(resolve)
+          .getStatic(injectorName, "cachedResources", weakReferenceDescriptor)
+          .invokeVirtual(WEAK_REFERENCE, "get", "()Ljava/lang/Object;")
+          .aload(RESOURCES_LOCAL)
+          .ifReferencesNotSame(resolve)
+          .getStatic(injectorName, "cachedConfiguration", configurationDescriptor)
+          .aload(RESOURCES_LOCAL)
+          .invokeVirtual(RESOURCES, "getConfiguration", getConfiguration)
+          .invokeVirtual(CONFIGURATION, "equals", "(" + configurationDescriptor + ")Z")
+          .ifNonZero(resolved)
+          .mark(resolve);
+      for (ResourceBinding binding : cachedResources.values()) {
+        String descriptor = descriptor(binding.getType());
+        code.aload(RESOURCES_LOCAL)
+            .pushInt(binding.getId())
+            .invokeVirtual(RESOURCES, binding.getMethod(), "(I)" + descriptor)
+            .putStatic(injectorName, binding.getCacheName(), descriptor);
+      }
+      code.newInstance(CONFIGURATION)
+          .dup()
+          .aload(RESOURCES_LOCAL)
+          .invokeVirtual(RESOURCES, "getConfiguration", getConfiguration)
+          .invokeSpecial(CONFIGURATION, "<init>", "(" + configurationDescriptor + ")V")
+          .putStatic(injectorName, "cachedConfiguration", configurationDescriptor)
+          .newInstance(WEAK_REFERENCE)
+          .dup()
+          .aload(RESOURCES_LOCAL)
+          .invokeSpecial(WEAK_REFERENCE, "<init>", "(Ljava/lang/Object;)V")
+          .putStatic(injectorName, "cachedResources", weakReferenceDescriptor)
+          .mark(resolved);
+    }
+
+    for (ResourceBinding binding : bindings) {
+      String descriptor = descriptor(binding.getType());
+      code.aload(TARGET_LOCAL);
+      if (binding.isCacheable()) {
+        code.getStatic(injectorName, binding.getCacheName(), descriptor);
+      } else {
+        code.aload(RESOURCES_LOCAL)
+            .pushInt(binding.getId())
+            .invokeVirtual(RESOURCES, binding.getMethod(), "(I)" + descriptor);
+      }
+      code.putField(fieldOwner(binding.getDeclaringType()), binding.getName(), descriptor);
+    }
+  }
+
+  private void emitReset(ClassFile injector) {
+    Code code = injector.addMethod(ACC_PUBLIC, "reset", resetDescriptor(targetName), "(TT;)V");
+    TargetClass chainedParent = targetClass.getChainedParent();
+    if (chainedParent != null) {
+      code.aload(0)
+          .aload(1)
+          .invokeSpecial(superName, "reset",
+              resetDescriptor(internalName(chainedParent.getTargetType())));
+    }
+    for (ViewInjection injection : targetClass.getViewInjections()) {
+      for (FieldBinding fieldBinding : injection.getFieldBindings()) {
+        code.aload(1)
+            .pushNull()
+            .putField(fieldOwner(fieldBinding.getDeclaringType()), fieldBinding.getName(),
+                descriptor(fieldBinding.getViewType()));
+      }
+    }
+    code.returnVoid().end();
+  }
+
+  /**
+   * Emit the bridge methods javac adds for the erasures of the methods this injector overrides:
+   * those of {@code Injector<Object>} and of each ancestor injector.
+   */
+  private void emitBridges(ClassFile injector) {
+    List<String> erasures = new ArrayList<String>();
+    erasures.add(OBJECT);
+    for (TargetClass ancestor = targetClass.getChainedParent(); ancestor != null;
+        ancestor = ancestor.getChainedParent()) {
+      erasures.add(internalName(ancestor.getTargetType()));
+    }
+    for (String erasure : erasures) {
+      injector.addMethod(ACC_PUBLIC | ACC_BRIDGE | ACC_SYNTHETIC, "inject",
+          injectDescriptor(erasure))
+          .aload(THIS_LOCAL)
+          .aload(FINDER_LOCAL)
+          .aload(TARGET_LOCAL)
+          .checkcast(targetName)
+          .aload(SOURCE_LOCAL)
+          .invokeVirtual(injectorName, "inject", injectDescriptor(targetName))
+          .returnObject()
+          .end();
+      injector.addMethod(ACC_PUBLIC | ACC_BRIDGE | ACC_SYNTHETIC, "inject",
+          partialInjectDescriptor(erasure))
+          .aload(THIS_LOCAL)
+          .aload(FINDER_LOCAL)
+          .aload(TARGET_LOCAL)
+          .checkcast(targetName)
+          .aload(SOURCE_LOCAL)
+          .aload(IDS_ARGUMENT)
+          .invokeVirtual(injectorName, "inject", partialInjectDescriptor(targetName))
+          .returnVoid()
+          .end();
+      injector.addMethod(ACC_PUBLIC | ACC_BRIDGE | ACC_SYNTHETIC, "reset",
+          resetDescriptor(erasure))
+          .aload(0)
+          .aload(1)
+          .checkcast(targetName)
+          .invokeVirtual(injectorName, "reset", resetDescriptor(targetName))
+          .returnVoid()
+          .end();
+    }
+  }
+
+  private void emitCastIfNeeded(Code code, String viewType) {
+    // Only emit a cast if the type is not View.
+    if (!VIEW_TYPE.equals(viewType)) {
+      code.checkcast(internalName(viewType));
+    }
+  }
+
+  /** The class on which a field declared by {@code declaringType} is accessed. */
+  private String fieldOwner(String declaringType) {
+    if (declaringType == null) {
+      return targetName;
+    }
+    return internalName(declaringType);
+  }
+
+  private static String injectDescriptor(String targetName) {
+    return "(" + objectDescriptor(FINDER) + objectDescriptor(targetName) + "Ljava/lang/Object;)"
+        + objectDescriptor(UNBINDER);
+  }
+
+  private static String partialInjectDescriptor(String targetName) {
+    return "(" + objectDescriptor(FINDER) + objectDescriptor(targetName)
+        + "Ljava/lang/Object;[I)V";
+  }
+
+  private static String resetDescriptor(String targetName) {
+    return "(" + objectDescriptor(targetName) + ")V";
+  }
+
+  private static String injectorName(TargetClass targetClass) {
+    // Injector names are already binary names.
+    return targetClass.getFqcn().replace('.', '/');
+  }
+
+  private String descriptor(String type) {
+    if ("boolean".equals(type)) {
+      return "Z";
+    } else if ("byte".equals(type)) {
+      return "B";
+    } else if ("char".equals(type)) {
+      return "C";
+    } else if ("short".equals(type)) {
+      return "S";
+    } else if ("int".equals(type)) {
+      return "I";
+    } else if ("long".equals(type)) {
+      return "J";
+    } else if ("float".equals(type)) {
+      return "F";
+    } else if ("double".equals(type)) {
+      return "D";
+    }
+    return objectDescriptor(internalName(type));
+  }
+
+  private static String objectDescriptor(String internalName) {
+    return "L" + internalName + ";";
+  }
+
+  private String internalName(String type) {
+    // Type arguments are erased in bytecode.
+    int typeArguments = type.indexOf('<');
+    if (typeArguments != -1) {
+      type = type.substring(0, typeArguments);
+    }
+    String binaryName = binaryNames.get(type);
+    if (binaryName == null) {
+      throw new IllegalArgumentException("Unable to resolve type " + type);
+    }
+    return binaryName.replace('.', '/');
+  }
+}
@@ -0,0 +1,48 @@
+package butterknife.internal;
+
+/** How the clicks which call a {@link MethodBinding} are throttled and where the method runs. */
+final class ClickPolicy {
+  private final int minInterval;
+  private final boolean throttledPerTarget;
+  private final boolean background;
+  private final String returnType;
+  private final String resultMethod;
+
+  ClickPolicy(int minInterval, boolean throttledPerTarget, boolean background, String returnType,
+      String resultMethod) {
+    this.minInterval = minInterval;
+    this.throttledPerTarget = throttledPerTarget;
+    this.background = background;
+    this.returnType = returnType;
+    this.resultMethod = resultMethod;
+  }
+
+  /** The minimum time in milliseconds between two calls, or 0 if every click calls. */
+  int getMinInterval() {
+    return minInterval;
+  }
+
+  boolean isThrottled() {
+    return minInterval > 0;
+  }
+
+  /** Whether the interval is shared with the other methods of the target throttled per target. */
+  boolean isThrottledPerTarget() {
+    return isThrottled() && throttledPerTarget;
+  }
+
+  /** Whether the method runs on the click executor rather than the main thread. */
+  boolean isBackground() {
+    return background;
+  }
+
+  /** The type the method returns, or null if it is {@code void}. */
+  String getReturnType() {
+    return returnType;
+  }
+
+  /** The method called on the main thread once a background method completed, or null. */
+  String getResultMethod() {
+    return resultMethod;
+  }
+}
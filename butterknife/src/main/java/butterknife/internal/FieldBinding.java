@@ -4,11 +4,25 @@ class FieldBinding implements Binding {
   private final String name;
   private final String type;
   private final boolean required;
+  private final boolean isPublic;
+  private final String declaringType;
 
-  FieldBinding(String name, String type, boolean required) {
+  FieldBinding(String name, String type, boolean required, boolean isPublic) {
+    this(name, type, required, isPublic, null);
+  }
+
+  private FieldBinding(String name, String type, boolean required, boolean isPublic,
+      String declaringType) {
     this.name = name;
     this.type = type;
     this.required = required;
+    this.isPublic = isPublic;
+    this.declaringType = declaringType;
+  }
+
+  /** A copy of this binding for use by the injector of a subclass of {@code declaringType}. */
+  FieldBinding inheritedFrom(String declaringType) {
+    return new FieldBinding(name, type, required, isPublic, declaringType);
   }
 
   @Override public String getName() {
@@ -26,4 +40,13 @@ class FieldBinding implements Binding {
   @Override public boolean isRequired() {
     return required;
   }
+
+  public boolean isPublic() {
+    return isPublic;
+  }
+
+  /** The ancestor declaring this field, or null if it is declared by the target type itself. */
+  public String getDeclaringType() {
+    return declaringType;
+  }
 }
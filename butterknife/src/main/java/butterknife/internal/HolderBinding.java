@@ -0,0 +1,76 @@
+package butterknife.internal;
+
+import static butterknife.internal.InjectViewProcessor.VIEW_TYPE;
+
+/** A field holding a nested holder whose bindings are injected within a container view. */
+class HolderBinding implements Binding {
+  private final String name;
+  private final String type;
+  private final int containerId;
+  private final boolean required;
+  private final String declaringType;
+  private TargetClass injector;
+
+  HolderBinding(String name, String type, int containerId, boolean required) {
+    this(name, type, containerId, required, null);
+  }
+
+  private HolderBinding(String name, String type, int containerId, boolean required,
+      String declaringType) {
+    this.name = name;
+    this.type = type;
+    this.containerId = containerId;
+    this.required = required;
+    this.declaringType = declaringType;
+  }
+
+  /** A copy of this binding for use by the injector of a subclass of {@code declaringType}. */
+  HolderBinding inheritedFrom(String declaringType) {
+    HolderBinding binding = new HolderBinding(name, type, containerId, required, declaringType);
+    binding.injector = injector;
+    return binding;
+  }
+
+  @Override public String getName() {
+    return name;
+  }
+
+  @Override public String getDescription() {
+    return "holder '" + name + "'";
+  }
+
+  /** The type of the container the holder is injected within. */
+  @Override public String getViewType() {
+    return VIEW_TYPE;
+  }
+
+  @Override public boolean isRequired() {
+    return required;
+  }
+
+  /** The erasure of the holder's type, which is created if the field is null. */
+  public String getType() {
+    return type;
+  }
+
+  public int getContainerId() {
+    return containerId;
+  }
+
+  /** The ancestor declaring this field, or null if it is declared by the target type itself. */
+  public String getDeclaringType() {
+    return declaringType;
+  }
+
+  /**
+   * The target of the holder's type in the same round, whose injector is called directly, or null
+   * if it is looked up at runtime.
+   */
+  public TargetClass getInjector() {
+    return injector;
+  }
+
+  void setInjector(TargetClass injector) {
+    this.injector = injector;
+  }
+}
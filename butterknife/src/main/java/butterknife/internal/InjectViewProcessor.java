@@ -1,7 +1,10 @@
 package butterknife.internal;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -25,28 +28,70 @@ import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
 import javax.tools.JavaFileObject;
 
+import butterknife.BindText;
+import butterknife.BindVisibility;
+import butterknife.InContainer;
+import butterknife.InStub;
+import butterknife.InjectColor;
+import butterknife.InjectDimen;
+import butterknife.InjectDrawable;
+import butterknife.InjectHolder;
+import butterknife.InjectString;
 import butterknife.InjectView;
 import butterknife.OnClick;
 import butterknife.Optional;
 
 import static javax.lang.model.element.ElementKind.CLASS;
+import static javax.lang.model.element.ElementKind.CONSTRUCTOR;
+import static javax.lang.model.element.ElementKind.PACKAGE;
+import static javax.lang.model.element.Modifier.ABSTRACT;
 import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PUBLIC;
 import static javax.lang.model.element.Modifier.STATIC;
 import static javax.tools.Diagnostic.Kind.ERROR;
+import static javax.tools.Diagnostic.Kind.WARNING;
 
 @SupportedAnnotationTypes({ //
     "butterknife.InjectView", //
-    "butterknife.OnClick" //
+    "butterknife.InStub", //
+    "butterknife.InContainer", //
+    "butterknife.InjectHolder", //
+    "butterknife.InjectString", //
+    "butterknife.InjectDimen", //
+    "butterknife.InjectColor", //
+    "butterknife.InjectDrawable", //
+    "butterknife.OnClick", //
+    "butterknife.BindText", //
+    "butterknife.BindVisibility", //
+    "butterknife.reflect.InjectView", //
+    "butterknife.reflect.InStub", //
+    "butterknife.reflect.OnClick" //
 })
 public class InjectViewProcessor extends AbstractProcessor {
   static final String VIEW_TYPE = "android.view.View";
+  static final String COLOR_STATE_LIST_TYPE = "android.content.res.ColorStateList";
+  static final String DRAWABLE_TYPE = "android.graphics.drawable.Drawable";
+  static final String TEXT_VIEW_TYPE = "android.widget.TextView";
   public static final String SUFFIX = "$$ViewInjector";
+  /** The simple name of the injector merged from all targets of a package. */
+  public static final String MERGED_NAME = "$$ViewInjectors";
 
   private Elements elementUtils;
   private Types typeUtils;
   private Filer filer;
+  private Options options;
+  private final ClassFileBrewer.BinaryNames binaryNames = new ClassFileBrewer.BinaryNames() {
+    @Override public String get(String canonicalName) {
+      TypeElement type = elementUtils.getTypeElement(canonicalName);
+      if (type == null) {
+        return null;
+      }
+      return elementUtils.getBinaryName(type).toString();
+    }
+  };
 
   @Override public synchronized void init(ProcessingEnvironment env) {
     super.init(env);
@@ -54,17 +99,30 @@ public class InjectViewProcessor extends AbstractProcessor {
     elementUtils = env.getElementUtils();
     typeUtils = env.getTypeUtils();
     filer = env.getFiler();
+    options = new Options(env.getOptions(), env.getMessager());
   }
 
   @Override public boolean process(Set<? extends TypeElement> elements, RoundEnvironment env) {
     Map<TypeElement, TargetClass> targetClassMap = findAndParseTargets(env);
 
+    for (Map.Entry<TypeElement, TargetClass> entry : targetClassMap.entrySet()) {
+      lintTarget(entry.getKey(), entry.getValue());
+    }
+
+    if (options.mergePackages) {
+      writeMergedInjectors(targetClassMap);
+      return true;
+    }
+
     for (Map.Entry<TypeElement, TargetClass> entry : targetClassMap.entrySet()) {
       TypeElement typeElement = entry.getKey();
       TargetClass targetClass = entry.getValue();
 
       // Write the view injector class.
       try {
+        if (options.emitClassFiles && writeClassFiles(typeElement, targetClass)) {
+          continue;
+        }
         JavaFileObject jfo = filer.createSourceFile(targetClass.getFqcn(), typeElement);
         Writer writer = jfo.openWriter();
         writer.write(targetClass.brewJava());
@@ -78,12 +136,156 @@ public class InjectViewProcessor extends AbstractProcessor {
     return true;
   }
 
+  /** Report the bindings of {@code typeElement} which follow patterns known to be slow. */
+  private void lintTarget(TypeElement typeElement, TargetClass targetClass) {
+    boolean holder = isHolder(typeElement);
+    int bindings = 0;
+    int optionals = 0;
+    for (Element member : typeElement.getEnclosedElements()) {
+      int memberBindings = 0;
+      if (getInjectViewId(member) != null
+          || member.getAnnotation(InjectString.class) != null
+          || member.getAnnotation(InjectDimen.class) != null
+          || member.getAnnotation(InjectColor.class) != null
+          || member.getAnnotation(InjectDrawable.class) != null) {
+        memberBindings = 1;
+      }
+      Click click = Click.of(member);
+      if (click != null) {
+        int ids = click.ids.length;
+        memberBindings += ids;
+        if (holder && exceeds(ids, options.lintHolderClickIds)) {
+          lint(member, "@OnClick method %s of holder %s is bound to %d IDs, more than %d. "
+              + "A listener is attached to each of them every time the holder is injected. (%s)",
+              member.getSimpleName(), typeElement.getQualifiedName(), ids,
+              options.lintHolderClickIds, Options.LINT_HOLDER_CLICK_IDS);
+        }
+      }
+      bindings += memberBindings;
+      if (memberBindings > 0 && isOptional(member)) {
+        optionals++;
+      }
+    }
+
+    if (holder && exceeds(bindings, options.lintHolderBindings)) {
+      lint(typeElement, "Holder %s has %d bindings, more than %d. "
+          + "All of them are looked up every time the holder is injected. (%s)",
+          typeElement.getQualifiedName(), bindings, options.lintHolderBindings,
+          Options.LINT_HOLDER_BINDINGS);
+    }
+    if (exceeds(optionals, options.lintOptionals)) {
+      lint(typeElement, "%s has %d @Optional bindings, more than %d. "
+          + "Each of them needs a null check on every injection. (%s)",
+          typeElement.getQualifiedName(), optionals, options.lintOptionals,
+          Options.LINT_OPTIONALS);
+    }
+    if (!targetClass.hasParent() && options.lintChainDepth > 0) {
+      int depth = getAncestorCount(typeElement);
+      if (depth >= options.lintChainDepth) {
+        lint(typeElement, "%s has %d ancestors but none of them is injected in this compilation. "
+            + "Injections of ancestors compiled separately are neither chained nor shared. (%s)",
+            typeElement.getQualifiedName(), depth, Options.LINT_CHAIN_DEPTH);
+      }
+    }
+  }
+
+  /** Whether {@code count} is above the lint {@code threshold}. A threshold of 0 is disabled. */
+  private static boolean exceeds(int count, int threshold) {
+    return threshold > 0 && count > threshold;
+  }
+
+  /** Whether the name of {@code typeElement} or one of its supertypes ends with "Holder". */
+  private static boolean isHolder(TypeElement typeElement) {
+    while (true) {
+      if (typeElement.getSimpleName().toString().endsWith("Holder")) {
+        return true;
+      }
+      TypeMirror type = typeElement.getSuperclass();
+      if (type.getKind() == TypeKind.NONE) {
+        return false;
+      }
+      typeElement = (TypeElement) ((DeclaredType) type).asElement();
+    }
+  }
+
+  /** The number of superclasses of {@code typeElement} below the framework ones. */
+  private static int getAncestorCount(TypeElement typeElement) {
+    int count = 0;
+    while (true) {
+      TypeMirror type = typeElement.getSuperclass();
+      if (type.getKind() == TypeKind.NONE) {
+        return count;
+      }
+      typeElement = (TypeElement) ((DeclaredType) type).asElement();
+      String name = typeElement.getQualifiedName().toString();
+      if (name.startsWith("android.") || name.startsWith("java.")) {
+        return count;
+      }
+      count++;
+    }
+  }
+
+  /** Write one injector for the targets of each package. Merged injectors are always source. */
+  private void writeMergedInjectors(Map<TypeElement, TargetClass> targetClassMap) {
+    Map<String, MergedInjector> mergedInjectors = new LinkedHashMap<String, MergedInjector>();
+    Map<String, List<Element>> originatingElements = new LinkedHashMap<String, List<Element>>();
+    for (Map.Entry<TypeElement, TargetClass> entry : targetClassMap.entrySet()) {
+      TargetClass targetClass = entry.getValue();
+      String classPackage = targetClass.getClassPackage();
+      MergedInjector mergedInjector = mergedInjectors.get(classPackage);
+      if (mergedInjector == null) {
+        mergedInjector = new MergedInjector(classPackage, options);
+        mergedInjectors.put(classPackage, mergedInjector);
+        originatingElements.put(classPackage, new ArrayList<Element>());
+      }
+      mergedInjector.addTargetClass(targetClass);
+      originatingElements.get(classPackage).add(entry.getKey());
+    }
+
+    for (Map.Entry<String, MergedInjector> entry : mergedInjectors.entrySet()) {
+      MergedInjector mergedInjector = entry.getValue();
+      List<Element> elements = originatingElements.get(entry.getKey());
+      try {
+        JavaFileObject jfo = filer.createSourceFile(mergedInjector.getFqcn(),
+            elements.toArray(new Element[elements.size()]));
+        Writer writer = jfo.openWriter();
+        writer.write(mergedInjector.brewJava());
+        writer.flush();
+        writer.close();
+      } catch (IOException e) {
+        error(elements.get(0), "Unable to write injector for package %s: %s", entry.getKey(),
+            e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Write the injector for {@code targetClass} as class files. Returns false if it has to be
+   * written as source instead.
+   */
+  private boolean writeClassFiles(TypeElement typeElement, TargetClass targetClass)
+      throws IOException {
+    Map<String, byte[]> classFiles = new ClassFileBrewer(targetClass, binaryNames).brew();
+    if (classFiles == null) {
+      return false;
+    }
+    for (Map.Entry<String, byte[]> classFile : classFiles.entrySet()) {
+      JavaFileObject jfo = filer.createClassFile(classFile.getKey(), typeElement);
+      OutputStream out = jfo.openOutputStream();
+      out.write(classFile.getValue());
+      out.flush();
+      out.close();
+    }
+    return true;
+  }
+
   private Map<TypeElement, TargetClass> findAndParseTargets(RoundEnvironment env) {
     Map<TypeElement, TargetClass> targetClassMap = new LinkedHashMap<TypeElement, TargetClass>();
     Set<TypeMirror> erasedTargetTypes = new LinkedHashSet<TypeMirror>();
 
     // Process each @InjectView elements.
-    for (Element element : env.getElementsAnnotatedWith(InjectView.class)) {
+    for (Element element : getElementsAnnotatedWith(env, InjectView.class,
+        butterknife.reflect.InjectView.class)) {
       try {
         parseInjectView(element, targetClassMap, erasedTargetTypes);
       } catch (Exception e) {
@@ -91,8 +293,67 @@ public class InjectViewProcessor extends AbstractProcessor {
       }
     }
 
+    // Verify that each @InStub and @InContainer element is also injected.
+    for (Element element : getElementsAnnotatedWith(env, InStub.class,
+        butterknife.reflect.InStub.class)) {
+      if (getInjectViewId(element) == null) {
+        error(element, "@InStub fields must also be annotated with @InjectView (%s.%s).",
+            ((TypeElement) element.getEnclosingElement()).getQualifiedName(), element);
+      }
+    }
+    for (Element element : env.getElementsAnnotatedWith(InContainer.class)) {
+      if (getInjectViewId(element) == null) {
+        error(element, "@InContainer fields must also be annotated with @InjectView (%s.%s).",
+            ((TypeElement) element.getEnclosingElement()).getQualifiedName(), element);
+      }
+    }
+
+    // Process each @InjectHolder element.
+    for (Element element : env.getElementsAnnotatedWith(InjectHolder.class)) {
+      try {
+        parseInjectHolder(element, targetClassMap, erasedTargetTypes);
+      } catch (Exception e) {
+        error(element, "Unable to parse @InjectHolder: %s", e.getMessage());
+      }
+    }
+
+    // Process each resource binding element.
+    for (Element element : env.getElementsAnnotatedWith(InjectString.class)) {
+      try {
+        int id = element.getAnnotation(InjectString.class).value();
+        parseResource(element, "@InjectString", id, targetClassMap, erasedTargetTypes);
+      } catch (Exception e) {
+        error(element, "Unable to parse @InjectString: %s", e.getMessage());
+      }
+    }
+    for (Element element : env.getElementsAnnotatedWith(InjectDimen.class)) {
+      try {
+        int id = element.getAnnotation(InjectDimen.class).value();
+        parseResource(element, "@InjectDimen", id, targetClassMap, erasedTargetTypes);
+      } catch (Exception e) {
+        error(element, "Unable to parse @InjectDimen: %s", e.getMessage());
+      }
+    }
+    for (Element element : env.getElementsAnnotatedWith(InjectColor.class)) {
+      try {
+        int id = element.getAnnotation(InjectColor.class).value();
+        parseResource(element, "@InjectColor", id, targetClassMap, erasedTargetTypes);
+      } catch (Exception e) {
+        error(element, "Unable to parse @InjectColor: %s", e.getMessage());
+      }
+    }
+    for (Element element : env.getElementsAnnotatedWith(InjectDrawable.class)) {
+      try {
+        int id = element.getAnnotation(InjectDrawable.class).value();
+        parseResource(element, "@InjectDrawable", id, targetClassMap, erasedTargetTypes);
+      } catch (Exception e) {
+        error(element, "Unable to parse @InjectDrawable: %s", e.getMessage());
+      }
+    }
+
     // Process each @OnClick elements.
-    for (Element element : env.getElementsAnnotatedWith(OnClick.class)) {
+    for (Element element : getElementsAnnotatedWith(env, OnClick.class,
+        butterknife.reflect.OnClick.class)) {
       try {
         parseOnClick(element, targetClassMap, erasedTargetTypes);
       } catch (Exception e) {
@@ -100,11 +361,41 @@ public class InjectViewProcessor extends AbstractProcessor {
       }
     }
 
+    // Process each value binding element. Their views are injected fields of the same type.
+    for (Element element : env.getElementsAnnotatedWith(BindText.class)) {
+      try {
+        int id = element.getAnnotation(BindText.class).value();
+        parseValue(element, "@BindText", id, ValueBinding.Kind.TEXT, targetClassMap);
+      } catch (Exception e) {
+        error(element, "Unable to parse @BindText: %s", e.getMessage());
+      }
+    }
+    for (Element element : env.getElementsAnnotatedWith(BindVisibility.class)) {
+      try {
+        int id = element.getAnnotation(BindVisibility.class).value();
+        parseValue(element, "@BindVisibility", id, ValueBinding.Kind.VISIBILITY, targetClassMap);
+      } catch (Exception e) {
+        error(element, "Unable to parse @BindVisibility: %s", e.getMessage());
+      }
+    }
+
     // Try to find a parent injector for each injector.
     for (Map.Entry<TypeElement, TargetClass> entry : targetClassMap.entrySet()) {
-      String parentClassFqcn = findParentFqcn(entry.getKey(), erasedTargetTypes);
-      if (parentClassFqcn != null) {
-        entry.getValue().setParentInjector(parentClassFqcn + SUFFIX);
+      TypeElement parentType = findParent(entry.getKey(), erasedTargetTypes);
+      if (parentType != null) {
+        entry.getValue().setParent(targetClassMap.get(parentType));
+      }
+    }
+
+    // Holders of types injected in this round call their injectors directly.
+    for (TargetClass targetClass : targetClassMap.values()) {
+      for (HolderBinding holderBinding : targetClass.getOwnHolderBindings()) {
+        TargetClass holderTarget =
+            targetClassMap.get(elementUtils.getTypeElement(holderBinding.getType()));
+        if (holderTarget != null) {
+          holderTarget.setHeld();
+          holderBinding.setInjector(holderTarget);
+        }
       }
     }
 
@@ -122,41 +413,164 @@ public class InjectViewProcessor extends AbstractProcessor {
       return;
     }
 
-    // Verify containing type.
-    if (enclosingElement.getKind() != CLASS) {
-      error(element, "@InjectView field annotations may only be specified in classes (%s).",
-          enclosingElement);
+    if (!isAccessibleField("@InjectView", element)) {
       return;
     }
 
-    // Verify field modifiers.
-    Set<Modifier> modifiers = element.getModifiers();
-    if (modifiers.contains(PRIVATE) || modifiers.contains(STATIC)) {
-      error(element, "@InjectView fields must not be private or static (%s.%s).",
+    // Assemble information on the injection point.
+    String name = element.getSimpleName().toString();
+    int id = getInjectViewId(element);
+    String type = element.asType().toString();
+    boolean required = !isOptional(element);
+    boolean isPublic = element.getModifiers().contains(PUBLIC);
+
+    Integer stubId = getStubId(element);
+    InContainer inContainer = element.getAnnotation(InContainer.class);
+    if (stubId != null && inContainer != null) {
+      error(element, "@InjectView fields in a stub may not declare a container (%s.%s).",
           enclosingElement.getQualifiedName(), element);
       return;
     }
 
-    // Verify containing class visibility is not private.
-    if (enclosingElement.getModifiers().contains(PRIVATE)) {
-      error(element, "@InjectView fields may not be on private classes (%s).", enclosingElement);
+    TargetClass targetClass = getOrCreateTargetClass(targetClassMap, enclosingElement);
+    if (stubId != null) {
+      targetClass.addStubField(stubId, id, name, type, required, isPublic);
+    } else {
+      targetClass.addField(id, name, type, required, isPublic);
+    }
+    if (inContainer != null && !targetClass.setContainer(id, inContainer.value())) {
+      error(element, "@InjectView fields for ID %d declare different containers in %s.", id,
+          enclosingElement.getQualifiedName());
+      return;
+    }
+
+    // Add the type-erased version to the valid injection targets set.
+    TypeMirror erasedTargetType = typeUtils.erasure(enclosingElement.asType());
+    erasedTargetTypes.add(erasedTargetType);
+  }
+
+  private void parseInjectHolder(Element element, Map<TypeElement, TargetClass> targetClassMap,
+      Set<TypeMirror> erasedTargetTypes) {
+    TypeElement enclosingElement = (TypeElement) element.getEnclosingElement();
+
+    if (!isAccessibleField("@InjectHolder", element)) {
+      return;
+    }
+
+    // Verify that the generated injector can create the holder.
+    TypeMirror holderType = typeUtils.erasure(element.asType());
+    if (holderType.getKind() != TypeKind.DECLARED) {
+      error(element, "@InjectHolder fields must be of a concrete class which is not private or "
+          + "inner (%s.%s).", enclosingElement.getQualifiedName(), element);
+      return;
+    }
+    TypeElement holderElement = (TypeElement) ((DeclaredType) holderType).asElement();
+    Set<Modifier> modifiers = holderElement.getModifiers();
+    boolean inner = holderElement.getEnclosingElement().getKind() != PACKAGE
+        && !modifiers.contains(STATIC);
+    if (holderElement.getKind() != CLASS || modifiers.contains(ABSTRACT)
+        || modifiers.contains(PRIVATE) || inner) {
+      error(element, "@InjectHolder fields must be of a concrete class which is not private or "
+          + "inner (%s.%s).", enclosingElement.getQualifiedName(), element);
+      return;
+    }
+    boolean samePackage = getPackageName(holderElement).equals(getPackageName(enclosingElement));
+    boolean constructible = false;
+    for (Element member : holderElement.getEnclosedElements()) {
+      if (member.getKind() == CONSTRUCTOR
+          && ((ExecutableElement) member).getParameters().isEmpty()
+          && !member.getModifiers().contains(PRIVATE)
+          && (samePackage || member.getModifiers().contains(PUBLIC))) {
+        constructible = true;
+      }
+    }
+    if (!constructible) {
+      error(element, "@InjectHolder field types must have an accessible constructor without "
+          + "parameters (%s.%s).", enclosingElement.getQualifiedName(), element);
       return;
     }
 
-    // Assemble information on the injection point.
     String name = element.getSimpleName().toString();
-    int id = element.getAnnotation(InjectView.class).value();
+    int containerId = element.getAnnotation(InjectHolder.class).value();
+    boolean required = !isOptional(element);
+
+    TargetClass targetClass = getOrCreateTargetClass(targetClassMap, enclosingElement);
+    targetClass.addHolder(new HolderBinding(name, holderType.toString(), containerId, required));
+
+    // Add the type-erased version to the valid injection targets set.
+    TypeMirror erasedTargetType = typeUtils.erasure(enclosingElement.asType());
+    erasedTargetTypes.add(erasedTargetType);
+  }
+
+  private void parseResource(Element element, String annotation, int id,
+      Map<TypeElement, TargetClass> targetClassMap, Set<TypeMirror> erasedTargetTypes) {
+    TypeElement enclosingElement = (TypeElement) element.getEnclosingElement();
+
+    if (!isAccessibleField(annotation, element)) {
+      return;
+    }
+
+    // Verify the field type and pick the matching Resources method.
     String type = element.asType().toString();
-    boolean required = element.getAnnotation(Optional.class) == null;
+    String method;
+    boolean cacheable = true;
+    if ("@InjectString".equals(annotation) && "java.lang.String".equals(type)) {
+      method = "getString";
+    } else if ("@InjectDimen".equals(annotation) && "int".equals(type)) {
+      method = "getDimensionPixelSize";
+    } else if ("@InjectDimen".equals(annotation) && "float".equals(type)) {
+      method = "getDimension";
+    } else if ("@InjectColor".equals(annotation) && "int".equals(type)) {
+      method = "getColor";
+    } else if ("@InjectColor".equals(annotation) && COLOR_STATE_LIST_TYPE.equals(type)) {
+      method = "getColorStateList";
+    } else if ("@InjectDrawable".equals(annotation) && DRAWABLE_TYPE.equals(type)) {
+      method = "getDrawable";
+      cacheable = false; // Drawables are mutable and must not be shared between targets.
+    } else {
+      error(element, "%s field type is not supported: %s (%s.%s).", annotation, type,
+          enclosingElement.getQualifiedName(), element);
+      return;
+    }
 
+    String name = element.getSimpleName().toString();
     TargetClass targetClass = getOrCreateTargetClass(targetClassMap, enclosingElement);
-    targetClass.addField(id, name, type, required);
+    targetClass.addResource(id, name, type, method, cacheable);
 
     // Add the type-erased version to the valid injection targets set.
     TypeMirror erasedTargetType = typeUtils.erasure(enclosingElement.asType());
     erasedTargetTypes.add(erasedTargetType);
   }
 
+  /** Verify that the generated injector can assign the annotated field. */
+  private boolean isAccessibleField(String annotation, Element element) {
+    TypeElement enclosingElement = (TypeElement) element.getEnclosingElement();
+
+    // Verify containing type.
+    if (enclosingElement.getKind() != CLASS) {
+      error(element, "%s field annotations may only be specified in classes (%s).", annotation,
+          enclosingElement);
+      return false;
+    }
+
+    // Verify field modifiers.
+    Set<Modifier> modifiers = element.getModifiers();
+    if (modifiers.contains(PRIVATE) || modifiers.contains(STATIC)) {
+      error(element, "%s fields must not be private or static (%s.%s).", annotation,
+          enclosingElement.getQualifiedName(), element);
+      return false;
+    }
+
+    // Verify containing class visibility is not private.
+    if (enclosingElement.getModifiers().contains(PRIVATE)) {
+      error(element, "%s fields may not be on private classes (%s).", annotation,
+          enclosingElement);
+      return false;
+    }
+
+    return true;
+  }
+
   private void parseOnClick(Element element, Map<TypeElement, TargetClass> targetClassMap,
       Set<TypeMirror> erasedTargetTypes) {
     if (!(element instanceof ExecutableElement)) {
@@ -188,8 +602,17 @@ public class InjectViewProcessor extends AbstractProcessor {
       return;
     }
 
-    // Verify method return type.
-    if (executableElement.getReturnType().getKind() != TypeKind.VOID) {
+    Click click = Click.of(element);
+    String resultMethod = click.result;
+    if (!resultMethod.isEmpty() && !click.background) {
+      error(element, "@OnClick result requires background = true (%s.%s).",
+          enclosingElement.getQualifiedName(), element);
+      return;
+    }
+
+    // Verify method return type. Background methods may return a value for their result method.
+    TypeMirror returnType = executableElement.getReturnType();
+    if (returnType.getKind() != TypeKind.VOID && resultMethod.isEmpty()) {
       error(element, "@OnClick methods must have a 'void' return type (%s.%s).",
           enclosingElement.getQualifiedName(), element);
       return;
@@ -216,10 +639,37 @@ public class InjectViewProcessor extends AbstractProcessor {
       type = variableElement.asType().toString();
     }
 
+    if (!resultMethod.isEmpty() && !hasResultMethod(enclosingElement, resultMethod, returnType)) {
+      String resultParameter = "";
+      if (returnType.getKind() != TypeKind.VOID) {
+        resultParameter = returnType.toString();
+      }
+      error(element, "@OnClick result method %s(%s) not found in %s. "
+          + "It must not be private or static.", resultMethod, resultParameter,
+          enclosingElement.getQualifiedName());
+      return;
+    }
+
     // Assemble information on the injection point.
     String name = executableElement.getSimpleName().toString();
-    int[] ids = element.getAnnotation(OnClick.class).value();
-    boolean required = element.getAnnotation(Optional.class) == null;
+    int[] ids = click.ids;
+    boolean required = !isOptional(element);
+    int minInterval = click.minInterval;
+    if (minInterval < 0) {
+      error(element, "@OnClick minInterval must not be negative (%s.%s).",
+          enclosingElement.getQualifiedName(), element);
+      return;
+    }
+    String nonVoidReturnType = null;
+    if (returnType.getKind() != TypeKind.VOID) {
+      nonVoidReturnType = returnType.toString();
+    }
+    if (resultMethod.isEmpty()) {
+      resultMethod = null;
+    }
+    ClickPolicy policy = new ClickPolicy(minInterval, click.throttle == OnClick.Throttle.TARGET,
+        click.background, nonVoidReturnType, resultMethod);
+    MethodBinding methodBinding = new MethodBinding(name, type, required, policy);
 
     TargetClass targetClass = getOrCreateTargetClass(targetClassMap, enclosingElement);
 
@@ -229,7 +679,7 @@ public class InjectViewProcessor extends AbstractProcessor {
         error(element, "@OnClick annotation for method %s contains duplicate ID %d.", element,
             id);
         return;
-      } else if (!targetClass.addMethod(id, name, type, required)) {
+      } else if (!targetClass.addMethod(id, methodBinding)) {
         error(element, "Multiple @OnClick methods declared for ID %s in %s.", id,
             enclosingElement.getQualifiedName());
         return;
@@ -241,12 +691,188 @@ public class InjectViewProcessor extends AbstractProcessor {
     erasedTargetTypes.add(erasedTargetType);
   }
 
+  private void parseValue(Element element, String annotation, int id, ValueBinding.Kind kind,
+      Map<TypeElement, TargetClass> targetClassMap) {
+    if (!(element instanceof ExecutableElement)) {
+      error(element, "%s annotation must be on a method.", annotation);
+      return;
+    }
+
+    ExecutableElement executableElement = (ExecutableElement) element;
+    TypeElement enclosingElement = (TypeElement) element.getEnclosingElement();
+
+    // Verify method modifiers.
+    Set<Modifier> modifiers = element.getModifiers();
+    if (modifiers.contains(PRIVATE) || modifiers.contains(STATIC)) {
+      error(element, "%s methods must not be private or static (%s.%s).", annotation,
+          enclosingElement.getQualifiedName(), element);
+      return;
+    }
+
+    // Verify containing type.
+    if (enclosingElement.getKind() != CLASS) {
+      error(element, "%s method annotations may only be specified in classes (%s).", annotation,
+          enclosingElement);
+      return;
+    }
+
+    // Verify containing class visibility is not private.
+    if (enclosingElement.getModifiers().contains(PRIVATE)) {
+      error(element, "%s methods may not be on private classes (%s).", annotation,
+          enclosingElement);
+      return;
+    }
+
+    // Verify that the model is the only parameter. Primitives cannot be cast from the model.
+    List<? extends VariableElement> parameters = executableElement.getParameters();
+    if (parameters.size() != 1 || parameters.get(0).asType().getKind().isPrimitive()) {
+      error(element, "%s methods must have a single parameter which is the model (%s.%s).",
+          annotation, enclosingElement.getQualifiedName(), element);
+      return;
+    }
+
+    // Verify method return type.
+    TypeMirror returnType = executableElement.getReturnType();
+    boolean validReturnType;
+    if (kind == ValueBinding.Kind.TEXT) {
+      TypeMirror charSequence =
+          elementUtils.getTypeElement(CharSequence.class.getCanonicalName()).asType();
+      validReturnType = typeUtils.isAssignable(returnType, charSequence);
+    } else {
+      validReturnType = returnType.getKind() == TypeKind.INT;
+    }
+    if (!validReturnType) {
+      error(element, "%s methods must return %s (%s.%s).", annotation, kind.getType(),
+          enclosingElement.getQualifiedName(), element);
+      return;
+    }
+
+    // Verify that the view the value is set on is injected into a field of this type.
+    VariableElement field = findInjectedField(enclosingElement, id);
+    if (field == null) {
+      error(element, "%s method %s requires an @InjectView field with ID %d in %s.", annotation,
+          element, id, enclosingElement.getQualifiedName());
+      return;
+    }
+    if (kind == ValueBinding.Kind.TEXT && !isSubtypeOf(field.asType(), TEXT_VIEW_TYPE)) {
+      error(element, "%s field %s with ID %d must extend from TextView (%s).", annotation,
+          field.getSimpleName(), id, enclosingElement.getQualifiedName());
+      return;
+    }
+
+    // Generic models are cast to their erasure.
+    TypeMirror parameterType = parameters.get(0).asType();
+    TypeMirror erasedModelType = typeUtils.erasure(parameterType);
+    String modelType = erasedModelType.toString();
+    boolean rawModel = !typeUtils.isSameType(parameterType, erasedModelType);
+    TargetClass targetClass = getOrCreateTargetClass(targetClassMap, enclosingElement);
+    String existingModelType = targetClass.getModelType();
+    if (existingModelType != null && !existingModelType.equals(modelType)) {
+      error(element, "Value binding methods of %s must all take the same model type (%s, %s).",
+          enclosingElement.getQualifiedName(), existingModelType, modelType);
+      return;
+    }
+
+    String name = executableElement.getSimpleName().toString();
+    // Views inside stubs are null until the stub inflated.
+    boolean required = !isOptional(field) && getStubId(field) == null;
+    ValueBinding valueBinding = new ValueBinding(kind, name, modelType, rawModel,
+        field.getSimpleName().toString(), required);
+    if (!targetClass.addValue(valueBinding)) {
+      error(element, "Multiple %s methods declared for ID %d in %s.", annotation, id,
+          enclosingElement.getQualifiedName());
+    }
+  }
+
+  /**
+   * The elements annotated with either {@code annotation} or its runtime-retained {@code variant}
+   * from {@code butterknife.reflect}.
+   */
+  private static Set<Element> getElementsAnnotatedWith(RoundEnvironment env,
+      Class<? extends Annotation> annotation, Class<? extends Annotation> variant) {
+    Set<Element> elements = new LinkedHashSet<Element>(env.getElementsAnnotatedWith(annotation));
+    elements.addAll(env.getElementsAnnotatedWith(variant));
+    return elements;
+  }
+
+  /** The ID of the view injected into {@code element}, or null if it is not injected. */
+  private static Integer getInjectViewId(Element element) {
+    InjectView injectView = element.getAnnotation(InjectView.class);
+    if (injectView != null) {
+      return injectView.value();
+    }
+    butterknife.reflect.InjectView variant =
+        element.getAnnotation(butterknife.reflect.InjectView.class);
+    if (variant != null) {
+      return variant.value();
+    }
+    return null;
+  }
+
+  /** The ID of the stub whose inflation injects {@code element}, or null if there is none. */
+  private static Integer getStubId(Element element) {
+    InStub inStub = element.getAnnotation(InStub.class);
+    if (inStub != null) {
+      return inStub.value();
+    }
+    butterknife.reflect.InStub variant = element.getAnnotation(butterknife.reflect.InStub.class);
+    if (variant != null) {
+      return variant.value();
+    }
+    return null;
+  }
+
+  private static boolean isOptional(Element element) {
+    return element.getAnnotation(Optional.class) != null
+        || element.getAnnotation(butterknife.reflect.Optional.class) != null;
+  }
+
+  /** The first field of {@code typeElement} which is injected with the view {@code id}, if any. */
+  private static VariableElement findInjectedField(TypeElement typeElement, int id) {
+    for (Element member : typeElement.getEnclosedElements()) {
+      Integer injectedId = getInjectViewId(member);
+      if (injectedId != null && injectedId == id && member instanceof VariableElement) {
+        return (VariableElement) member;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Whether {@code typeElement} has an accessible instance method {@code name} which accepts the
+   * value of type {@code resultType}, or no arguments if it is {@code void}.
+   */
+  private boolean hasResultMethod(TypeElement typeElement, String name, TypeMirror resultType) {
+    for (Element member : elementUtils.getAllMembers(typeElement)) {
+      if (!(member instanceof ExecutableElement)
+          || !member.getSimpleName().contentEquals(name)
+          || member.getModifiers().contains(PRIVATE)
+          || member.getModifiers().contains(STATIC)) {
+        continue;
+      }
+      List<? extends VariableElement> parameters = ((ExecutableElement) member).getParameters();
+      if (resultType.getKind() == TypeKind.VOID) {
+        if (parameters.isEmpty()) {
+          return true;
+        }
+      } else if (parameters.size() == 1
+          && typeUtils.isAssignable(resultType, parameters.get(0).asType())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private boolean isSubtypeOfView(TypeMirror typeMirror) {
+    return isSubtypeOf(typeMirror, VIEW_TYPE);
+  }
+
+  private boolean isSubtypeOf(TypeMirror typeMirror, String type) {
     if (!(typeMirror instanceof DeclaredType)) {
       return false;
     }
     DeclaredType declaredType = (DeclaredType) typeMirror;
-    if (VIEW_TYPE.equals(declaredType.toString())) {
+    if (type.equals(declaredType.toString())) {
       return true;
     } else {
       Element element = declaredType.asElement();
@@ -255,7 +881,7 @@ public class InjectViewProcessor extends AbstractProcessor {
       }
       TypeElement typeElement = (TypeElement) element;
       TypeMirror superType = typeElement.getSuperclass();
-      return isSubtypeOfView(superType);
+      return isSubtypeOf(superType, type);
     }
   }
 
@@ -267,7 +893,7 @@ public class InjectViewProcessor extends AbstractProcessor {
       String classPackage = getPackageName(enclosingElement);
       String className = getClassName(enclosingElement, classPackage) + SUFFIX;
 
-      targetClass = new TargetClass(classPackage, className, targetType);
+      targetClass = new TargetClass(classPackage, className, targetType, options);
       targetClassMap.put(enclosingElement, targetClass);
     }
     return targetClass;
@@ -279,7 +905,7 @@ public class InjectViewProcessor extends AbstractProcessor {
   }
 
   /** Finds the parent injector type in the supplied set, if any. */
-  private String findParentFqcn(TypeElement typeElement, Set<TypeMirror> parents) {
+  private TypeElement findParent(TypeElement typeElement, Set<TypeMirror> parents) {
     TypeMirror type;
     while (true) {
       type = typeElement.getSuperclass();
@@ -288,8 +914,7 @@ public class InjectViewProcessor extends AbstractProcessor {
       }
       typeElement = (TypeElement) ((DeclaredType) type).asElement();
       if (containsTypeMirror(parents, type)) {
-        String packageName = getPackageName(typeElement);
-        return packageName + "." + getClassName(typeElement, packageName);
+        return typeElement;
       }
     }
   }
@@ -306,6 +931,10 @@ public class InjectViewProcessor extends AbstractProcessor {
     return false;
   }
 
+  @Override public Set<String> getSupportedOptions() {
+    return Options.names();
+  }
+
   @Override public SourceVersion getSupportedSourceVersion() {
     return SourceVersion.latestSupported();
   }
@@ -314,7 +943,50 @@ public class InjectViewProcessor extends AbstractProcessor {
     processingEnv.getMessager().printMessage(ERROR, String.format(message, args), element);
   }
 
+  /** Report a lint finding, as an error if {@code butterknife.lint.errors} is set. */
+  protected void lint(Element element, String message, Object... args) {
+    Diagnostic.Kind kind = WARNING;
+    if (options.lintErrors) {
+      kind = ERROR;
+    }
+    processingEnv.getMessager().printMessage(kind, String.format(message, args), element);
+  }
+
   protected String getPackageName(TypeElement type) {
     return elementUtils.getPackageOf(type).getQualifiedName().toString();
   }
+
+  /** The values of an {@link OnClick} or of its runtime-retained variant. */
+  private static final class Click {
+    final int[] ids;
+    final int minInterval;
+    final OnClick.Throttle throttle;
+    final boolean background;
+    final String result;
+
+    private Click(int[] ids, int minInterval, OnClick.Throttle throttle, boolean background,
+        String result) {
+      this.ids = ids;
+      this.minInterval = minInterval;
+      this.throttle = throttle;
+      this.background = background;
+      this.result = result;
+    }
+
+    /** The click annotation of {@code element}, or null if it has none. */
+    static Click of(Element element) {
+      OnClick onClick = element.getAnnotation(OnClick.class);
+      if (onClick != null) {
+        return new Click(onClick.value(), onClick.minInterval(), onClick.throttle(),
+            onClick.background(), onClick.result());
+      }
+      butterknife.reflect.OnClick variant =
+          element.getAnnotation(butterknife.reflect.OnClick.class);
+      if (variant != null) {
+        return new Click(variant.value(), variant.minInterval(), variant.throttle(),
+            variant.background(), variant.result());
+      }
+      return null;
+    }
+  }
 }
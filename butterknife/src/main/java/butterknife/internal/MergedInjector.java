@@ -0,0 +1,219 @@
+package butterknife.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The injector merged from every target of a package. It holds the bindings of each target in a
+ * pair of static methods and dispatches to them from one {@code Injector} class, so a package of
+ * targets costs a single class rather than one per target. The instance dispatching to each
+ * target is created once and kept by that class, like the {@code INSTANCE} of other injectors.
+ */
+class MergedInjector {
+  private final String classPackage;
+  private final List<TargetClass> targetClasses = new ArrayList<TargetClass>();
+  private final Options options;
+
+  MergedInjector(String classPackage, Options options) {
+    this.classPackage = classPackage;
+    this.options = options;
+  }
+
+  void addTargetClass(TargetClass targetClass) {
+    targetClasses.add(targetClass);
+  }
+
+  static String getFqcn(String classPackage) {
+    if (classPackage.isEmpty()) {
+      return InjectViewProcessor.MERGED_NAME;
+    }
+    return classPackage + "." + InjectViewProcessor.MERGED_NAME;
+  }
+
+  String getFqcn() {
+    return getFqcn(classPackage);
+  }
+
+  String brewJava() {
+    boolean usesResources = false;
+    boolean usesConfiguration = false;
+    boolean usesSystemClock = false;
+    boolean usesButterKnife = false;
+    boolean usesTextUtils = false;
+    boolean usesStubs = false;
+    boolean bindsValues = false;
+    for (TargetClass targetClass : targetClasses) {
+      usesResources |= targetClass.usesResources();
+      usesConfiguration |= targetClass.usesConfiguration();
+      usesSystemClock |= targetClass.usesSystemClock();
+      usesButterKnife |= targetClass.usesButterKnife();
+      usesTextUtils |= targetClass.usesTextUtils();
+      usesStubs |= targetClass.usesStubs();
+      bindsValues |= targetClass.hasValueBindings();
+    }
+
+    StringBuilder builder = new StringBuilder();
+    builder.append("// Generated code from Butter Knife. Do not modify!\n");
+    if (!classPackage.isEmpty()) {
+      builder.append("package ").append(classPackage).append(";\n\n");
+    }
+    if (usesConfiguration) {
+      builder.append("import android.content.res.Configuration;\n");
+    }
+    if (usesResources) {
+      builder.append("import android.content.res.Resources;\n");
+    }
+    if (usesSystemClock) {
+      builder.append("import android.os.SystemClock;\n");
+    }
+    if (usesTextUtils) {
+      builder.append("import android.text.TextUtils;\n");
+    }
+    builder.append("import android.view.View;\n");
+    if (usesStubs) {
+      builder.append("import android.view.ViewStub;\n");
+    }
+    if (usesButterKnife) {
+      builder.append("import butterknife.ButterKnife;\n");
+    }
+    builder.append("import butterknife.ButterKnife.Finder;\n");
+    builder.append("import butterknife.ButterKnife.Injector;\n");
+    builder.append("import butterknife.ButterKnife.InjectorGroup;\n");
+    if (usesStubs) {
+      builder.append("import butterknife.ButterKnife.StubInjection;\n");
+    }
+    builder.append("import butterknife.ButterKnife.Unbinder;\n");
+    if (usesConfiguration) {
+      builder.append("import java.lang.ref.WeakReference;\n");
+    }
+    builder.append('\n');
+    builder.append("public class ")
+        .append(InjectViewProcessor.MERGED_NAME)
+        .append(" extends Injector<Object> implements InjectorGroup {\n");
+    emitInstances(builder);
+    builder.append("  private final int index;\n\n");
+    builder.append("  public ").append(InjectViewProcessor.MERGED_NAME).append("() {\n")
+        .append("    this(-1);\n")
+        .append("  }\n\n");
+    builder.append("  private ").append(InjectViewProcessor.MERGED_NAME).append("(int index) {\n")
+        .append("    this.index = index;\n")
+        .append("  }\n\n");
+    emitGetInjector(builder);
+    builder.append('\n');
+    emitDispatch(builder, "Unbinder", "inject", "Finder finder, Object target, Object source",
+        "finder, (%s) target, source");
+    builder.append('\n');
+    emitDispatch(builder, "void", "inject",
+        "Finder finder, Object target, Object source, int[] ids",
+        "finder, (%s) target, source, ids");
+    builder.append('\n');
+    emitDispatch(builder, "void", "reset", "Object target", "(%s) target");
+    if (bindsValues) {
+      builder.append('\n');
+      emitBindDispatch(builder);
+    }
+    for (TargetClass targetClass : targetClasses) {
+      builder.append('\n');
+      targetClass.emitMergedMembers(builder);
+    }
+    builder.append("}\n");
+    return builder.toString();
+  }
+
+  private void emitInstances(StringBuilder builder) {
+    builder.append("  private static final ")
+        .append(InjectViewProcessor.MERGED_NAME)
+        .append("[] INSTANCES = {\n");
+    for (int i = 0; i < targetClasses.size(); i++) {
+      builder.append("      new ")
+          .append(InjectViewProcessor.MERGED_NAME)
+          .append('(')
+          .append(i)
+          .append(')');
+      if (i < targetClasses.size() - 1) {
+        builder.append(',');
+      }
+      builder.append('\n');
+    }
+    builder.append("  };\n\n");
+  }
+
+  private void emitGetInjector(StringBuilder builder) {
+    builder.append("  @Override public Injector<Object> getInjector(Class<?> targetClass) {\n");
+    // Compare names rather than class literals so that only the requested target is loaded.
+    builder.append("    String name = targetClass.getName();\n");
+    for (int i = 0; i < targetClasses.size(); i++) {
+      TargetClass targetClass = targetClasses.get(i);
+      String binaryName = targetClass.getBinarySimpleName();
+      if (!classPackage.isEmpty()) {
+        binaryName = classPackage + "." + binaryName;
+      }
+      builder.append("    if (\"")
+          .append(binaryName)
+          .append("\".equals(name)) {\n")
+          .append("      return INSTANCES[")
+          .append(i)
+          .append("];\n")
+          .append("    }\n");
+    }
+    builder.append("    return null;\n");
+    builder.append("  }\n");
+  }
+
+  /** Like {@link #emitDispatch} but targets which do not bind values ignore the model. */
+  private void emitBindDispatch(StringBuilder builder) {
+    builder.append("  @Override public void bind(Object target, Object model) {\n")
+        .append("    switch (index) {\n");
+    for (int i = 0; i < targetClasses.size(); i++) {
+      TargetClass targetClass = targetClasses.get(i);
+      if (!targetClass.hasValueBindings()) {
+        continue;
+      }
+      builder.append("      case ")
+          .append(i)
+          .append(":\n")
+          .append("        ")
+          .append(targetClass.getMergedMethod("bind"))
+          .append("((")
+          .append(targetClass.getTargetType())
+          .append(") target, model);\n")
+          .append("        return;\n");
+    }
+    builder.append("    }\n")
+        .append("  }\n");
+  }
+
+  private void emitDispatch(StringBuilder builder, String returnType, String action,
+      String parameters, String arguments) {
+    boolean returnsValue = !"void".equals(returnType);
+    builder.append("  @Override public ")
+        .append(returnType)
+        .append(' ')
+        .append(action)
+        .append('(')
+        .append(parameters)
+        .append(") {\n")
+        .append("    switch (index) {\n");
+    for (int i = 0; i < targetClasses.size(); i++) {
+      TargetClass targetClass = targetClasses.get(i);
+      builder.append("      case ")
+          .append(i)
+          .append(":\n")
+          .append("        ");
+      if (returnsValue) {
+        builder.append("return ");
+      }
+      builder.append(targetClass.getMergedMethod(action))
+          .append('(')
+          .append(String.format(arguments, targetClass.getTargetType()))
+          .append(");\n");
+      if (!returnsValue) {
+        builder.append("        return;\n");
+      }
+    }
+    builder.append("      default:\n")
+        .append("        throw new IllegalStateException(\"No target with index \" + index);\n")
+        .append("    }\n")
+        .append("  }\n");
+  }
+}
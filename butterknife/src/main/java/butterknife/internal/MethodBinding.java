@@ -4,11 +4,13 @@ class MethodBinding implements Binding {
   private final String name;
   private final String type;
   private final boolean required;
+  private final ClickPolicy policy;
 
-  MethodBinding(String name, String type, boolean required) {
+  MethodBinding(String name, String type, boolean required, ClickPolicy policy) {
     this.name = name;
     this.type = type;
     this.required = required;
+    this.policy = policy;
   }
 
   @Override public String getName() {
@@ -26,4 +28,33 @@ class MethodBinding implements Binding {
   @Override public boolean isRequired() {
     return required;
   }
+
+  /** The minimum time in milliseconds between two calls, or 0 if every click calls. */
+  public int getMinInterval() {
+    return policy.getMinInterval();
+  }
+
+  public boolean isThrottled() {
+    return policy.isThrottled();
+  }
+
+  /** Whether the interval is shared with the other methods of the target throttled per target. */
+  public boolean isThrottledPerTarget() {
+    return policy.isThrottledPerTarget();
+  }
+
+  /** Whether the method runs on the click executor rather than the main thread. */
+  public boolean isBackground() {
+    return policy.isBackground();
+  }
+
+  /** The type the method returns, or null if it is {@code void}. */
+  public String getReturnType() {
+    return policy.getReturnType();
+  }
+
+  /** The method called on the main thread once a background method completed, or null. */
+  public String getResultMethod() {
+    return policy.getResultMethod();
+  }
 }
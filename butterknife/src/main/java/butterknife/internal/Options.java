@@ -0,0 +1,132 @@
+package butterknife.internal;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.Messager;
+
+import static javax.tools.Diagnostic.Kind.ERROR;
+
+/** Options for the generated code. Passed to javac as {@code -A<name>=<value>}. */
+final class Options {
+  /**
+   * Inline the bindings of ancestors in the same package into a single flat injector rather than
+   * calling each ancestor's injector in turn.
+   */
+  static final String FLATTEN = "butterknife.flatten";
+  /**
+   * Either {@code source} (the default) or {@code class} to write injectors directly as class
+   * files which javac then does not need to compile.
+   */
+  static final String EMIT = "butterknife.emit";
+  /**
+   * Set to {@code off} to not verify that the views of required bindings were found, e.g. for
+   * release builds of thoroughly tested layouts.
+   */
+  static final String CHECKS = "butterknife.checks";
+  /**
+   * Time each view lookup, field assignment, and listener attachment in generated injectors and
+   * report the durations to {@code ButterKnife.setTimingListener}. For profiling builds.
+   */
+  static final String TIMING = "butterknife.timing";
+  /**
+   * Time each call of an {@code @OnClick} method and report those which take longer than
+   * {@code ButterKnife.setSlowClickThreshold} to {@code ButterKnife.setSlowClickListener}.
+   */
+  static final String WATCHDOG = "butterknife.watchdog";
+  /**
+   * Describe the bindings of each target as a table interpreted by {@code PlanInjector} rather
+   * than emit a method body and a listener class per target, to reduce the code size of apps with
+   * many targets. Targets with resources, throttled or background methods, or with timing or the
+   * watchdog still get a method body. Ignored when merging.
+   */
+  static final String PLAN = "butterknife.plan";
+  /**
+   * Merge the injectors of all targets in a package into a single class to reduce the number of
+   * classes loaded at runtime. Merged injectors are always written as source.
+   */
+  static final String MERGE = "butterknife.merge";
+  /**
+   * Warn when a holder (a target whose name, or that of a supertype, ends with {@code Holder})
+   * has more than this many bindings. Defaults to {@value #DEFAULT_HOLDER_BINDINGS}.
+   */
+  static final String LINT_HOLDER_BINDINGS = "butterknife.lint.holderBindings";
+  /**
+   * Warn when an {@code @OnClick} method of a holder is bound to more than this many ids. Defaults
+   * to {@value #DEFAULT_HOLDER_CLICK_IDS}.
+   */
+  static final String LINT_HOLDER_CLICK_IDS = "butterknife.lint.holderClickIds";
+  /**
+   * Warn when a target is at least this many classes below its framework superclass but none of
+   * its ancestors are injected in the same compilation. Defaults to
+   * {@value #DEFAULT_CHAIN_DEPTH}.
+   */
+  static final String LINT_CHAIN_DEPTH = "butterknife.lint.chainDepth";
+  /**
+   * Warn when a target has more than this many {@code @Optional} bindings. Defaults to
+   * {@value #DEFAULT_OPTIONALS}.
+   */
+  static final String LINT_OPTIONALS = "butterknife.lint.optionals";
+  /** Report the lint warnings as errors, e.g. on CI. */
+  static final String LINT_ERRORS = "butterknife.lint.errors";
+
+  // Setting any of the lint thresholds to 0 disables its warning.
+  static final int DEFAULT_HOLDER_BINDINGS = 15;
+  static final int DEFAULT_HOLDER_CLICK_IDS = 4;
+  static final int DEFAULT_CHAIN_DEPTH = 4;
+  static final int DEFAULT_OPTIONALS = 8;
+
+  final boolean flatten;
+  final boolean emitClassFiles;
+  final boolean checks;
+  final boolean timing;
+  final boolean watchdog;
+  final boolean plans;
+  final boolean mergePackages;
+  final int lintHolderBindings;
+  final int lintHolderClickIds;
+  final int lintChainDepth;
+  final int lintOptionals;
+  final boolean lintErrors;
+
+  /** @param messager Reports the options whose values are invalid. */
+  Options(Map<String, String> options, Messager messager) {
+    flatten = Boolean.parseBoolean(options.get(FLATTEN));
+    emitClassFiles = "class".equals(options.get(EMIT));
+    checks = !"off".equals(options.get(CHECKS));
+    timing = Boolean.parseBoolean(options.get(TIMING));
+    watchdog = Boolean.parseBoolean(options.get(WATCHDOG));
+    plans = Boolean.parseBoolean(options.get(PLAN));
+    mergePackages = Boolean.parseBoolean(options.get(MERGE));
+    lintHolderBindings =
+        intOption(options, messager, LINT_HOLDER_BINDINGS, DEFAULT_HOLDER_BINDINGS);
+    lintHolderClickIds =
+        intOption(options, messager, LINT_HOLDER_CLICK_IDS, DEFAULT_HOLDER_CLICK_IDS);
+    lintChainDepth = intOption(options, messager, LINT_CHAIN_DEPTH, DEFAULT_CHAIN_DEPTH);
+    lintOptionals = intOption(options, messager, LINT_OPTIONALS, DEFAULT_OPTIONALS);
+    lintErrors = Boolean.parseBoolean(options.get(LINT_ERRORS));
+  }
+
+  /** The value of option {@code name}, or its default if it is not set or not a number. */
+  private static int intOption(Map<String, String> options, Messager messager, String name,
+      int defaultValue) {
+    String value = options.get(name);
+    if (value == null) {
+      return defaultValue;
+    }
+    try {
+      return Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      messager.printMessage(ERROR, "Option " + name + " must be a number but was '" + value
+          + "'. Using the default of " + defaultValue + ".");
+      return defaultValue;
+    }
+  }
+
+  static Set<String> names() {
+    return new LinkedHashSet<String>(Arrays.asList(FLATTEN, EMIT, CHECKS, TIMING, WATCHDOG,
+        PLAN, MERGE, LINT_HOLDER_BINDINGS, LINT_HOLDER_CLICK_IDS, LINT_CHAIN_DEPTH, LINT_OPTIONALS,
+        LINT_ERRORS));
+  }
+}
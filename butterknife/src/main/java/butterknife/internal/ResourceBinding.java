@@ -0,0 +1,66 @@
+package butterknife.internal;
+
+class ResourceBinding {
+  private static final String GETTER_PREFIX = "get";
+
+  private final String name;
+  private final String type;
+  private final int id;
+  private final String method;
+  private final boolean cacheable;
+  private final String declaringType;
+
+  ResourceBinding(String name, String type, int id, String method, boolean cacheable) {
+    this(name, type, id, method, cacheable, null);
+  }
+
+  private ResourceBinding(String name, String type, int id, String method, boolean cacheable,
+      String declaringType) {
+    this.name = name;
+    this.type = type;
+    this.id = id;
+    this.method = method;
+    this.cacheable = cacheable;
+    this.declaringType = declaringType;
+  }
+
+  /** A copy of this binding for use by the injector of a subclass of {@code declaringType}. */
+  ResourceBinding inheritedFrom(String declaringType) {
+    return new ResourceBinding(name, type, id, method, cacheable, declaringType);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  public int getId() {
+    return id;
+  }
+
+  /** The {@code Resources} method which returns the value, e.g. {@code getString}. */
+  public String getMethod() {
+    return method;
+  }
+
+  /** Whether the value is immutable and can be shared until the configuration changes. */
+  public boolean isCacheable() {
+    return cacheable;
+  }
+
+  /** The ancestor declaring this field, or null if it is declared by the target type itself. */
+  public String getDeclaringType() {
+    return declaringType;
+  }
+
+  /** The name of the injector's static field which caches this value. */
+  public String getCacheName() {
+    // Named by resource rather than field so that repeated bindings share one lookup.
+    int prefixLength = GETTER_PREFIX.length();
+    return "cached" + Character.toUpperCase(method.charAt(prefixLength))
+        + method.substring(prefixLength + 1) + id;
+  }
+}
@@ -1,39 +1,113 @@
 package butterknife.internal;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static butterknife.internal.InjectViewProcessor.VIEW_TYPE;
 
 class TargetClass {
+  /** The step reported by timed injectors for looking up a view. */
+  static final String LOOKUP_STEP = "findById";
+  /** The local holding when listeners throttled per target accept the next click. */
+  private static final String TARGET_NEXT_CLICK = "nextTargetClick";
+
   private final Map<Integer, ViewInjection> viewIdMap = new LinkedHashMap<Integer, ViewInjection>();
+  /** The injections of the views inside each {@code ViewStub}, by the ID of the stub. */
+  private final Map<Integer, Map<Integer, ViewInjection>> stubIdMap =
+      new LinkedHashMap<Integer, Map<Integer, ViewInjection>>();
+  private final List<ResourceBinding> resourceBindings = new ArrayList<ResourceBinding>();
+  private final List<ValueBinding> valueBindings = new ArrayList<ValueBinding>();
+  private final List<HolderBinding> holderBindings = new ArrayList<HolderBinding>();
   private final String classPackage;
   private final String className;
   private final String targetClass;
-  private String parentInjector;
+  private final Options options;
+  private TargetClass parent;
+  /** Whether the injector of a target holding this type calls this one directly. */
+  private boolean held;
 
-  TargetClass(String classPackage, String className, String targetClass) {
+  TargetClass(String classPackage, String className, String targetClass, Options options) {
     this.classPackage = classPackage;
     this.className = className;
     this.targetClass = targetClass;
+    this.options = options;
+  }
+
+  void addField(int id, String name, String type, boolean required, boolean isPublic) {
+    getOrCreateViewBinding(id).addFieldBinding(new FieldBinding(name, type, required, isPublic));
   }
 
-  void addField(int id, String name, String type, boolean required) {
-    getOrCreateViewBinding(id).addFieldBinding(new FieldBinding(name, type, required));
+  /** Returns false if the view with {@code id} was already declared in a different container. */
+  boolean setContainer(int id, int containerId) {
+    return getOrCreateViewBinding(id).setContainerId(containerId);
+  }
+
+  void addStubField(int stubId, int id, String name, String type, boolean required,
+      boolean isPublic) {
+    Map<Integer, ViewInjection> stubInjections = stubIdMap.get(stubId);
+    if (stubInjections == null) {
+      stubInjections = new LinkedHashMap<Integer, ViewInjection>();
+      stubIdMap.put(stubId, stubInjections);
+    }
+    ViewInjection injection = stubInjections.get(id);
+    if (injection == null) {
+      injection = new ViewInjection(id);
+      stubInjections.put(id, injection);
+    }
+    injection.addFieldBinding(new FieldBinding(name, type, required, isPublic));
   }
 
-  boolean addMethod(int id, String name, String parameterType, boolean required) {
+  boolean addMethod(int id, MethodBinding methodBinding) {
     try {
-      getOrCreateViewBinding(id).addMethodBinding(new MethodBinding(name, parameterType, required));
+      getOrCreateViewBinding(id).addMethodBinding(methodBinding);
       return true;
     } catch (IllegalStateException e) {
       return false;
     }
   }
 
-  void setParentInjector(String parentInjector) {
-    this.parentInjector = parentInjector;
+  void addResource(int id, String name, String type, String method, boolean cacheable) {
+    resourceBindings.add(new ResourceBinding(name, type, id, method, cacheable));
+  }
+
+  void addHolder(HolderBinding holderBinding) {
+    holderBindings.add(holderBinding);
+  }
+
+  /** Returns false if the field of {@code valueBinding} already has a value of its kind bound. */
+  boolean addValue(ValueBinding valueBinding) {
+    for (ValueBinding existing : valueBindings) {
+      if (existing.getKind() == valueBinding.getKind()
+          && existing.getField().equals(valueBinding.getField())) {
+        return false;
+      }
+    }
+    valueBindings.add(valueBinding);
+    return true;
+  }
+
+  /** The model type of the value bindings of this type itself, or null if there are none. */
+  String getModelType() {
+    if (valueBindings.isEmpty()) {
+      return null;
+    }
+    return valueBindings.get(0).getModelType();
+  }
+
+  void setParent(TargetClass parent) {
+    this.parent = parent;
+  }
+
+  boolean hasParent() {
+    return parent != null;
+  }
+
+  void setHeld() {
+    held = true;
   }
 
   private ViewInjection getOrCreateViewBinding(int id) {
@@ -49,56 +123,1148 @@ class TargetClass {
     return classPackage + "." + className;
   }
 
+  String getTargetType() {
+    return targetClass;
+  }
+
+  /**
+   * The types whose bindings are emitted by this injector, from the top-most ancestor down to the
+   * target type itself. When flattening, this includes the ancestors in the same package since
+   * their members are accessible from this injector.
+   */
+  private List<TargetClass> getInlinedLevels() {
+    List<TargetClass> levels = new ArrayList<TargetClass>();
+    levels.add(this);
+    if (options.flatten) {
+      for (TargetClass ancestor = parent; ancestor != null; ancestor = ancestor.parent) {
+        if (!ancestor.classPackage.equals(classPackage)) {
+          break;
+        }
+        levels.add(0, ancestor);
+      }
+    }
+    return levels;
+  }
+
+  /** The nearest ancestor whose injector is called by this one, or null if there is none. */
+  TargetClass getChainedParent() {
+    return getInlinedLevels().get(0).parent;
+  }
+
+  /** The view injections emitted by this injector, in the order they are applied. */
+  Collection<ViewInjection> getViewInjections() {
+    List<TargetClass> levels = getInlinedLevels();
+    if (levels.size() == 1) {
+      return viewIdMap.values();
+    }
+
+    Map<Integer, ViewInjection> merged = new LinkedHashMap<Integer, ViewInjection>();
+    for (TargetClass level : levels) {
+      for (ViewInjection injection : level.viewIdMap.values()) {
+        ViewInjection mergedInjection = merged.get(injection.getId());
+        if (mergedInjection == null) {
+          mergedInjection = new ViewInjection(injection.getId());
+          merged.put(injection.getId(), mergedInjection);
+        }
+        for (FieldBinding fieldBinding : injection.getFieldBindings()) {
+          if (level != this) {
+            fieldBinding = fieldBinding.inheritedFrom(level.targetClass);
+          }
+          mergedInjection.addFieldBinding(fieldBinding);
+        }
+        if (injection.getContainerId() != ViewInjection.NO_CONTAINER) {
+          // The container declared by the top-most level is used.
+          mergedInjection.setContainerId(injection.getContainerId());
+        }
+      }
+    }
+    // A subclass' listener replaces that of its ancestors. Only keep the nearest one.
+    for (int i = levels.size() - 1; i >= 0; i--) {
+      for (ViewInjection injection : levels.get(i).viewIdMap.values()) {
+        MethodBinding methodBinding = injection.getMethodBinding();
+        ViewInjection mergedInjection = merged.get(injection.getId());
+        if (methodBinding != null && mergedInjection.getMethodBinding() == null) {
+          mergedInjection.addMethodBinding(methodBinding);
+        }
+      }
+    }
+    return merged.values();
+  }
+
+  /**
+   * The injections of views inside stubs emitted by this injector, by the ID of their stub. These
+   * only run once the stub inflated.
+   */
+  Map<Integer, Collection<ViewInjection>> getStubInjections() {
+    Map<Integer, Map<Integer, ViewInjection>> merged =
+        new LinkedHashMap<Integer, Map<Integer, ViewInjection>>();
+    for (TargetClass level : getInlinedLevels()) {
+      for (Map.Entry<Integer, Map<Integer, ViewInjection>> stub : level.stubIdMap.entrySet()) {
+        Map<Integer, ViewInjection> injections = merged.get(stub.getKey());
+        if (injections == null) {
+          injections = new LinkedHashMap<Integer, ViewInjection>();
+          merged.put(stub.getKey(), injections);
+        }
+        for (ViewInjection injection : stub.getValue().values()) {
+          ViewInjection mergedInjection = injections.get(injection.getId());
+          if (mergedInjection == null) {
+            mergedInjection = new ViewInjection(injection.getId());
+            injections.put(injection.getId(), mergedInjection);
+          }
+          for (FieldBinding fieldBinding : injection.getFieldBindings()) {
+            if (level != this) {
+              fieldBinding = fieldBinding.inheritedFrom(level.targetClass);
+            }
+            mergedInjection.addFieldBinding(fieldBinding);
+          }
+        }
+      }
+    }
+    Map<Integer, Collection<ViewInjection>> stubInjections =
+        new LinkedHashMap<Integer, Collection<ViewInjection>>();
+    for (Map.Entry<Integer, Map<Integer, ViewInjection>> stub : merged.entrySet()) {
+      stubInjections.put(stub.getKey(), stub.getValue().values());
+    }
+    return stubInjections;
+  }
+
+  /** The resource bindings emitted by this injector, in the order they are applied. */
+  List<ResourceBinding> getResourceBindings() {
+    List<ResourceBinding> bindings = new ArrayList<ResourceBinding>();
+    for (TargetClass level : getInlinedLevels()) {
+      for (ResourceBinding binding : level.resourceBindings) {
+        if (level != this) {
+          binding = binding.inheritedFrom(level.targetClass);
+        }
+        bindings.add(binding);
+      }
+    }
+    return bindings;
+  }
+
+  /** The value bindings emitted by this injector's {@code bind}, in the order they are applied. */
+  List<ValueBinding> getValueBindings() {
+    List<ValueBinding> bindings = new ArrayList<ValueBinding>();
+    for (TargetClass level : getInlinedLevels()) {
+      for (ValueBinding binding : level.valueBindings) {
+        if (level != this) {
+          binding = binding.inheritedFrom(level.targetClass);
+        }
+        bindings.add(binding);
+      }
+    }
+    return bindings;
+  }
+
+  /** The nested holders injected by this injector, in the order they are applied. */
+  List<HolderBinding> getHolderBindings() {
+    List<HolderBinding> bindings = new ArrayList<HolderBinding>();
+    for (TargetClass level : getInlinedLevels()) {
+      for (HolderBinding binding : level.holderBindings) {
+        if (level != this) {
+          binding = binding.inheritedFrom(level.targetClass);
+        }
+        bindings.add(binding);
+      }
+    }
+    return bindings;
+  }
+
+  /** Each holder of this type itself, for resolving the injectors of their types. */
+  List<HolderBinding> getOwnHolderBindings() {
+    return holderBindings;
+  }
+
+  /** Whether this type or one of its ancestors binds values of a model. */
+  boolean hasValueBindings() {
+    for (TargetClass level = this; level != null; level = level.parent) {
+      if (!level.valueBindings.isEmpty()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Whether the emitted code refers to {@code TextUtils}. */
+  boolean usesTextUtils() {
+    for (ValueBinding binding : getValueBindings()) {
+      if (binding.getKind() == ValueBinding.Kind.TEXT) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** The distinct cacheable resources of {@code bindings}, keyed by the name of their cache. */
+  static Map<String, ResourceBinding> getCachedResources(List<ResourceBinding> bindings) {
+    Map<String, ResourceBinding> cached = new LinkedHashMap<String, ResourceBinding>();
+    for (ResourceBinding binding : bindings) {
+      if (binding.isCacheable() && !cached.containsKey(binding.getCacheName())) {
+        cached.put(binding.getCacheName(), binding);
+      }
+    }
+    return cached;
+  }
+
   String brewJava() {
+    if (isPlanned()) {
+      return brewPlan();
+    }
+    List<ResourceBinding> resourceBindings = getResourceBindings();
+    Map<String, ResourceBinding> cachedResources = getCachedResources(resourceBindings);
+
     StringBuilder builder = new StringBuilder();
     builder.append("// Generated code from Butter Knife. Do not modify!\n");
     builder.append("package ").append(classPackage).append(";\n\n");
+    if (!cachedResources.isEmpty()) {
+      builder.append("import android.content.res.Configuration;\n");
+    }
+    if (!resourceBindings.isEmpty()) {
+      builder.append("import android.content.res.Resources;\n");
+    }
+    if (usesSystemClock()) {
+      builder.append("import android.os.SystemClock;\n");
+    }
+    if (usesTextUtils()) {
+      builder.append("import android.text.TextUtils;\n");
+    }
     builder.append("import android.view.View;\n");
-    builder.append("import butterknife.ButterKnife.Finder;\n\n");
-    builder.append("public class ").append(className).append(" {\n");
+    if (usesStubs()) {
+      builder.append("import android.view.ViewStub;\n");
+    }
+    if (usesButterKnife()) {
+      builder.append("import butterknife.ButterKnife;\n");
+    }
+    builder.append("import butterknife.ButterKnife.Finder;\n");
+    builder.append("import butterknife.ButterKnife.Injector;\n");
+    if (usesStubs()) {
+      builder.append("import butterknife.ButterKnife.StubInjection;\n");
+    }
+    builder.append("import butterknife.ButterKnife.Unbinder;\n");
+    if (!cachedResources.isEmpty()) {
+      builder.append("import java.lang.ref.WeakReference;\n");
+    }
+    builder.append('\n');
+    builder.append("public class ")
+        .append(className)
+        .append("<T extends ")
+        .append(targetClass)
+        .append(">");
+    TargetClass chainedParent = getChainedParent();
+    if (chainedParent != null) {
+      builder.append(" extends ").append(chainedParent.getFqcn()).append("<T>");
+    } else {
+      builder.append(" extends Injector<T>");
+    }
+    builder.append(" {\n");
+    emitResourceCache(builder, cachedResources);
+    emitInstance(builder);
     emitInject(builder);
     builder.append('\n');
+    emitPartialInject(builder);
+    builder.append('\n');
     emitReset(builder);
+    if (!getValueBindings().isEmpty()) {
+      builder.append('\n');
+      emitBind(builder);
+    }
     builder.append("}\n");
     return builder.toString();
   }
 
-  private void emitInject(StringBuilder builder) {
-    builder.append("  public static void inject(Finder finder, final ")
+  /**
+   * Emit the static fields and the static inject, reset and, if it binds values, bind methods of
+   * this target for the injector merged from all targets in its package.
+   */
+  void emitMergedMembers(StringBuilder builder) {
+    List<ResourceBinding> resourceBindings = getResourceBindings();
+    emitResourceCache(builder, getCachedResources(resourceBindings));
+
+    TargetClass chainedParent = getChainedParent();
+    builder.append("  public static Unbinder ")
+        .append(getMergedMethod("inject"))
+        .append("(Finder finder, final ")
         .append(targetClass)
         .append(" target, Object source) {\n");
+    if (chainedParent != null) {
+      builder.append("    final Unbinder parentUnbinder = ")
+          .append(chainedParent.getMergedCall("inject", classPackage))
+          .append("(finder, target, source);\n\n");
+    }
+    emitInjectBody(builder);
+    builder.append("  }\n\n");
 
-    // Emit a call to the superclass injector, if any.
-    if (parentInjector != null) {
+    builder.append("  public static void ")
+        .append(getMergedMethod("inject"))
+        .append("(Finder finder, final ")
+        .append(targetClass)
+        .append(" target, Object source,\n")
+        .append("      int[] ids) {\n");
+    if (chainedParent != null) {
       builder.append("    ")
-          .append(parentInjector)
-          .append(".inject(finder, target, source);\n\n");
+          .append(chainedParent.getMergedCall("inject", classPackage))
+          .append("(finder, target, source, ids);\n\n");
+    }
+    emitPartialInjectBody(builder);
+    builder.append("  }\n\n");
+
+    builder.append("  public static void ")
+        .append(getMergedMethod("reset"))
+        .append('(')
+        .append(targetClass)
+        .append(" target) {\n");
+    if (chainedParent != null) {
+      builder.append("    ")
+          .append(chainedParent.getMergedCall("reset", classPackage))
+          .append("(target);\n\n");
+    }
+    emitResetBody(builder, "    ");
+    emitHolderResets(builder, "    ");
+    builder.append("  }\n");
+
+    if (!hasValueBindings()) {
+      return;
+    }
+    builder.append('\n');
+    emitSuppressUnchecked(builder);
+    builder.append("  public static void ")
+        .append(getMergedMethod("bind"))
+        .append('(')
+        .append(targetClass)
+        .append(" target, Object model) {\n");
+    if (chainedParent != null && chainedParent.hasValueBindings()) {
+      builder.append("    ")
+          .append(chainedParent.getMergedCall("bind", classPackage))
+          .append("(target, model);\n\n");
+    }
+    emitBindBody(builder);
+    builder.append("  }\n");
+  }
+
+  /** The binary name of the target type without its package, e.g. {@code Outer$Inner}. */
+  String getBinarySimpleName() {
+    return className.substring(0, className.length() - InjectViewProcessor.SUFFIX.length());
+  }
+
+  String getClassPackage() {
+    return classPackage;
+  }
+
+  /** The name of this target's method in the merged injector of its package. */
+  String getMergedMethod(String action) {
+    return action + "$" + getBinarySimpleName();
+  }
+
+  /** A reference to this target's merged method {@code action} from code in {@code fromPackage}. */
+  private String getMergedCall(String action, String fromPackage) {
+    if (classPackage.equals(fromPackage)) {
+      return getMergedMethod(action);
+    }
+    return MergedInjector.getFqcn(classPackage) + "." + getMergedMethod(action);
+  }
+
+  /** The name of the static field {@code name} which holds a cached resource of this target. */
+  private String cacheField(String name) {
+    // Merged injectors hold the caches of all targets in their package.
+    if (!options.mergePackages) {
+      return name;
+    }
+    return name + "$" + getBinarySimpleName();
+  }
+
+  /** Whether the emitted code refers to {@code Resources}. */
+  boolean usesResources() {
+    return !getResourceBindings().isEmpty();
+  }
+
+  /** Whether the emitted code refers to {@code ButterKnife} itself. */
+  boolean usesButterKnife() {
+    if (options.timing || usesStubs() || usesContainers()) {
+      return true;
+    }
+    for (HolderBinding holderBinding : getHolderBindings()) {
+      if (holderBinding.getInjector() == null) {
+        return true; // Injected and reset by looking up the injector of the holder.
+      }
+    }
+    for (ViewInjection injection : getViewInjections()) {
+      MethodBinding methodBinding = injection.getMethodBinding();
+      if (methodBinding != null && (options.watchdog || methodBinding.isBackground()
+          || methodBinding.isThrottledPerTarget())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Whether the emitted code looks views up within their containers. */
+  boolean usesContainers() {
+    for (ViewInjection injection : getViewInjections()) {
+      if (injection.getContainerId() != ViewInjection.NO_CONTAINER) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Whether the emitted code injects nested holders. */
+  boolean usesHolders() {
+    return !getHolderBindings().isEmpty();
+  }
+
+  /** Whether the emitted code injects views inside stubs. */
+  boolean usesStubs() {
+    return !getStubInjections().isEmpty();
+  }
+
+  /**
+   * Whether the injector uses what is only written as source: timing, watched or throttled
+   * listeners, background methods, stubs, containers, holders, a plan, or value bindings. The
+   * injectors of held types are also written as source so that the source of their holders'
+   * injectors can refer to them.
+   */
+  boolean isSourceOnly() {
+    return usesSystemClock() || usesButterKnife() || usesHolders() || held || isPlanned()
+        || !getValueBindings().isEmpty();
+  }
+
+  /**
+   * Whether the injector is emitted as a plan, which only binds views to fields and methods which
+   * are called directly on click, without holders. Plans do not inherit {@code bind} from the
+   * injectors of ancestors, so neither this type nor its ancestors may bind values.
+   */
+  boolean isPlanned() {
+    return options.plans && !usesResources() && !usesSystemClock() && !usesButterKnife()
+        && !usesHolders() && !hasValueBindings();
+  }
+
+  /** Whether the emitted code refers to {@code SystemClock}. */
+  boolean usesSystemClock() {
+    for (ViewInjection injection : getViewInjections()) {
+      MethodBinding methodBinding = injection.getMethodBinding();
+      if (methodBinding != null && methodBinding.isThrottled()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Whether one of the listeners of {@code viewInjections} is throttled per target. */
+  private static boolean isThrottledPerTarget(Collection<ViewInjection> viewInjections) {
+    for (ViewInjection injection : viewInjections) {
+      MethodBinding methodBinding = injection.getMethodBinding();
+      if (methodBinding != null && methodBinding.isThrottledPerTarget()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Emit the injector as a plan of one row per view, holding its ID and what is bound to it, and
+   * the {@code bind} and {@code click} methods which assign the fields and call the method of a
+   * row. The injection itself is left to {@code PlanInjector}.
+   */
+  private String brewPlan() {
+    List<ViewInjection> viewInjections = new ArrayList<ViewInjection>(getViewInjections());
+    StringBuilder builder = new StringBuilder();
+    builder.append("// Generated code from Butter Knife. Do not modify!\n");
+    builder.append("package ").append(classPackage).append(";\n\n");
+    builder.append("import android.view.View;\n");
+    builder.append("import butterknife.PlanInjector;\n\n");
+    builder.append("public class ")
+        .append(className)
+        .append("<T extends ")
+        .append(targetClass)
+        .append("> extends PlanInjector<T> {\n");
+
+    builder.append("  private static final int[] PLAN = {\n");
+    for (int row = 0; row < viewInjections.size(); row++) {
+      ViewInjection injection = viewInjections.get(row);
+      List<String> flags = new ArrayList<String>();
+      if (!injection.getFieldBindings().isEmpty()) {
+        flags.add("FIELDS");
+      }
+      if (injection.getMethodBinding() != null) {
+        flags.add("LISTENER");
+      }
+      if (isCheckedForNull(injection)) {
+        flags.add("REQUIRED");
+      }
+      if (flags.isEmpty()) {
+        flags.add("0");
+      }
+      builder.append("      ")
+          .append(injection.getId())
+          .append(", ")
+          .append(join(flags, " | "));
+      emitRowEnd(builder, row, viewInjections.size());
+    }
+    builder.append("  };\n");
+
+    builder.append("  private static final String[] MESSAGES = {\n");
+    for (int row = 0; row < viewInjections.size(); row++) {
+      ViewInjection injection = viewInjections.get(row);
+      builder.append("      ");
+      if (isCheckedForNull(injection)) {
+        builder.append('"')
+            .append(missingViewMessage(injection.getId(), injection.getRequiredBindings()))
+            .append('"');
+      } else {
+        builder.append("null");
+      }
+      emitRowEnd(builder, row, viewInjections.size());
+    }
+    builder.append("  };\n");
+    // Declared after the plan which its constructor reads.
+    emitInstance(builder);
+
+    TargetClass chainedParent = getChainedParent();
+    String parentInjector = "null";
+    if (chainedParent != null) {
+      parentInjector = "new " + chainedParent.getFqcn() + "<T>()";
+    }
+    builder.append("  public ")
+        .append(className)
+        .append("() {\n")
+        .append("    super(PLAN, MESSAGES, ")
+        .append(parentInjector)
+        .append(");\n")
+        .append("  }\n");
+
+    emitPlanBind(builder, viewInjections);
+    emitPlanClick(builder, viewInjections);
+    builder.append("}\n");
+    return builder.toString();
+  }
+
+  /** End a row of a plan array, with a comma unless it is the last one. */
+  private static void emitRowEnd(StringBuilder builder, int row, int rows) {
+    if (row < rows - 1) {
+      builder.append(',');
+    }
+    builder.append('\n');
+  }
+
+  private static void emitPlanBind(StringBuilder builder, List<ViewInjection> viewInjections) {
+    StringBuilder cases = new StringBuilder();
+    for (int row = 0; row < viewInjections.size(); row++) {
+      Set<FieldBinding> fieldBindings = viewInjections.get(row).getFieldBindings();
+      if (fieldBindings.isEmpty()) {
+        continue;
+      }
+      cases.append("      case ").append(row).append(":\n");
+      for (FieldBinding fieldBinding : fieldBindings) {
+        cases.append("        ")
+            .append(fieldTarget(fieldBinding.getDeclaringType()))
+            .append('.')
+            .append(fieldBinding.getName())
+            .append(" = ");
+        emitCastIfNeeded(cases, fieldBinding.getViewType());
+        cases.append("view;\n");
+      }
+      cases.append("        return;\n");
+    }
+    emitPlanSwitch(builder, "bind", cases);
+  }
+
+  private void emitPlanClick(StringBuilder builder, List<ViewInjection> viewInjections) {
+    StringBuilder cases = new StringBuilder();
+    for (int row = 0; row < viewInjections.size(); row++) {
+      MethodBinding methodBinding = viewInjections.get(row).getMethodBinding();
+      if (methodBinding == null) {
+        continue;
+      }
+      cases.append("      case ").append(row).append(":\n");
+      emitCall(cases, "        ", "", methodBinding);
+      cases.append("        return;\n");
+    }
+    emitPlanSwitch(builder, "click", cases);
+  }
+
+  /** Emit the override of {@code method} switching over {@code cases}, unless there are none. */
+  private static void emitPlanSwitch(StringBuilder builder, String method, StringBuilder cases) {
+    if (cases.length() == 0) {
+      return;
     }
+    builder.append('\n')
+        .append("  @Override protected void ")
+        .append(method)
+        .append("(T target, int row, View view) {\n")
+        .append("    switch (row) {\n")
+        .append(cases)
+        .append("    }\n")
+        .append("  }\n");
+  }
 
-    // Local variable in which all views will be temporarily stored.
-    builder.append("    View view;\n");
+  private static String join(List<String> parts, String separator) {
+    StringBuilder joined = new StringBuilder();
+    for (String part : parts) {
+      if (joined.length() > 0) {
+        joined.append(separator);
+      }
+      joined.append(part);
+    }
+    return joined.toString();
+  }
+
+  /** Whether the emitted code refers to {@code Configuration}. */
+  boolean usesConfiguration() {
+    return !getCachedResources(getResourceBindings()).isEmpty();
+  }
+
+  private void emitInject(StringBuilder builder) {
+    builder.append("  @Override ")
+        .append("public Unbinder inject(Finder finder, final T target, Object source) {\n");
+
+    // Emit a call to the superclass injector, if any.
+    if (getChainedParent() != null) {
+      builder.append("    final Unbinder parentUnbinder")
+          .append(" = super.inject(finder, target, source);\n\n");
+    }
+
+    emitInjectBody(builder);
+
+    builder.append("  }\n");
+  }
+
+  private void emitInjectBody(StringBuilder builder) {
+    Collection<ViewInjection> viewInjections = getViewInjections();
+    List<HolderBinding> holderBindings = getHolderBindings();
+    if (!viewInjections.isEmpty()) {
+      // Local variable in which all views will be temporarily stored.
+      builder.append("    View view;\n");
+    }
+    if (options.timing && (!viewInjections.isEmpty() || !holderBindings.isEmpty())) {
+      builder.append("    long start;\n");
+    }
+    emitTargetThrottle(builder, viewInjections);
+    Map<Integer, String> containers = emitContainers(builder, viewInjections, holderBindings);
 
     // Loop over each view injection and emit it.
-    for (ViewInjection injection : viewIdMap.values()) {
-      emitViewInjection(builder, injection);
+    int listeners = 0;
+    for (ViewInjection injection : viewInjections) {
+      emitViewInjection(builder, injection, containers);
+      if (injection.getMethodBinding() != null) {
+        // Keep the view for the unbinder to remove the listener from.
+        builder.append("    final View ")
+            .append(listenerView(++listeners))
+            .append(" = view;\n");
+      }
     }
 
+    int holders = 0;
+    for (HolderBinding holderBinding : holderBindings) {
+      emitHolderInjection(builder, holderBinding, containers.get(holderBinding.getContainerId()),
+          holderUnbinder(++holders));
+    }
+
+    Map<Integer, Collection<ViewInjection>> stubInjections = getStubInjections();
+    int stubs = 0;
+    for (Map.Entry<Integer, Collection<ViewInjection>> stub : stubInjections.entrySet()) {
+      emitStubInjection(builder, "final ViewStub " + stubView(++stubs) + " = ", stub.getKey(),
+          stub.getValue());
+    }
+
+    emitResourceBindings(builder);
+    emitUnbinder(builder, viewInjections, stubs, holders);
+  }
+
+  private void emitPartialInject(StringBuilder builder) {
+    builder.append("  @Override ")
+        .append("public void inject(Finder finder, final T target, Object source, int[] ids) {\n");
+
+    // The superclass injector re-injects the IDs bound by ancestors first.
+    if (getChainedParent() != null) {
+      builder.append("    super.inject(finder, target, source, ids);\n\n");
+    }
+
+    emitPartialInjectBody(builder);
+
     builder.append("  }\n");
   }
 
-  private void emitViewInjection(StringBuilder builder, ViewInjection injection) {
-    builder.append("    view = finder.findById(source, ")
-        .append(injection.getId())
-        .append(");\n");
+  /** Emit the view injections of {@code ids} only. Resources are not re-injected. */
+  private void emitPartialInjectBody(StringBuilder builder) {
+    Collection<ViewInjection> viewInjections = getViewInjections();
+    Map<Integer, Collection<ViewInjection>> stubInjections = getStubInjections();
+    List<HolderBinding> holderBindings = getHolderBindings();
+    if (viewInjections.isEmpty() && stubInjections.isEmpty() && holderBindings.isEmpty()) {
+      return;
+    }
+    if (!viewInjections.isEmpty()) {
+      builder.append("    View view;\n");
+      if (options.timing) {
+        builder.append("    long start;\n");
+      }
+      emitTargetThrottle(builder, viewInjections);
+    }
+    builder.append("    for (int id : ids) {\n");
+    boolean first = true;
+    for (ViewInjection injection : viewInjections) {
+      if (first) {
+        builder.append("      if (id == ");
+      } else {
+        builder.append(" else if (id == ");
+      }
+      builder.append(injection.getId())
+          .append(") {\n");
+      StringBuilder statements = new StringBuilder();
+      // Views are looked up in the whole hierarchy rather than their containers again.
+      emitViewInjection(statements, injection, null);
+      emitIndented(builder, statements);
+      builder.append("      }");
+      first = false;
+    }
+    if (!first) {
+      builder.append('\n');
+    }
+    // The ID of a stub injects its views again, or once it inflated. It may also be bound itself.
+    for (Map.Entry<Integer, Collection<ViewInjection>> stub : stubInjections.entrySet()) {
+      builder.append("      if (id == ")
+          .append(stub.getKey())
+          .append(") {\n");
+      StringBuilder statements = new StringBuilder();
+      emitStubInjection(statements, "", stub.getKey(), stub.getValue());
+      emitIndented(builder, statements);
+      builder.append("      }\n");
+    }
+    // The ID of a holder's container injects the holder again within it.
+    for (HolderBinding holderBinding : holderBindings) {
+      builder.append("      if (id == ")
+          .append(holderBinding.getContainerId())
+          .append(") {\n");
+      StringBuilder statements = new StringBuilder();
+      statements.append("    View container = finder.findById(source, ")
+          .append(holderBinding.getContainerId())
+          .append(");\n");
+      emitHolderInjection(statements, holderBinding, "container", null);
+      emitIndented(builder, statements);
+      builder.append("      }\n");
+    }
+    // IDs which are not bound are ignored.
+    builder.append("    }\n");
+  }
+
+  /** Append {@code statements}, emitted for the body of inject, indented into the loop. */
+  private static void emitIndented(StringBuilder builder, StringBuilder statements) {
+    for (String line : statements.toString().split("\n")) {
+      builder.append("    ").append(line).append('\n');
+    }
+  }
 
-    List<Binding> requiredBindings = injection.getRequiredBindings();
-    if (!requiredBindings.isEmpty()) {
-      builder.append("    if (view == null) {\n")
-          .append("      throw new IllegalStateException(\"Required view with id '")
+  /**
+   * Emit handing the injection of the views inside the stub {@code stubId} to
+   * {@code ButterKnife.injectStub}, which runs it once the stub inflated, assigning the stub it
+   * returns with {@code assignment}. Lookups inside stubs are not timed.
+   */
+  private void emitStubInjection(StringBuilder builder, String assignment, int stubId,
+      Collection<ViewInjection> injections) {
+    builder.append("    ")
+        .append(assignment)
+        .append("ButterKnife.injectStub(finder, source, ")
+        .append(stubId)
+        .append(", new StubInjection() {\n")
+        .append("      @Override public void inject(Finder finder, Object source) {\n")
+        .append("        View view;\n");
+    for (ViewInjection injection : injections) {
+      builder.append("        view = finder.findById(source, ")
+          .append(injection.getId())
+          .append(");\n");
+      if (isCheckedForNull(injection)) {
+        builder.append("        if (view == null) {\n")
+            .append("          throw new IllegalStateException(\"")
+            .append(missingViewMessage(injection.getId(), injection.getRequiredBindings()))
+            .append("\");\n")
+            .append("        }\n");
+      }
+      for (FieldBinding fieldBinding : injection.getFieldBindings()) {
+        builder.append("        ")
+            .append(fieldTarget(fieldBinding.getDeclaringType()))
+            .append('.')
+            .append(fieldBinding.getName())
+            .append(" = ");
+        emitCastIfNeeded(builder, fieldBinding.getViewType());
+        builder.append("view;\n");
+      }
+    }
+    builder.append("      }\n")
+        .append("    });\n");
+  }
+
+  /**
+   * Emit creating the holder of {@code holderBinding} if needed and injecting it within the view
+   * in the local {@code container}. Its unbinder is kept in the local {@code unbinder}, if any.
+   */
+  private void emitHolderInjection(StringBuilder builder, HolderBinding holderBinding,
+      String container, String unbinder) {
+    String field = fieldTarget(holderBinding.getDeclaringType()) + "." + holderBinding.getName();
+    String indent = "    ";
+    if (holderBinding.isRequired()) {
+      if (options.checks) {
+        List<Binding> requiredBindings = new ArrayList<Binding>();
+        requiredBindings.add(holderBinding);
+        builder.append("    if (")
+            .append(container)
+            .append(" == null) {\n")
+            .append("      throw new IllegalStateException(\"")
+            .append(missingViewMessage(holderBinding.getContainerId(), requiredBindings))
+            .append("\");\n")
+            .append("    }\n");
+      }
+    } else {
+      // A missing container leaves the holder as it is.
+      if (unbinder != null) {
+        builder.append("    final Unbinder ")
+            .append(unbinder)
+            .append(";\n");
+      }
+      builder.append("    if (")
+          .append(container)
+          .append(" != null) {\n");
+      indent = "      ";
+    }
+    builder.append(indent)
+        .append("if (")
+        .append(field)
+        .append(" == null) {\n")
+        .append(indent)
+        .append("  ")
+        .append(field)
+        .append(" = new ")
+        .append(holderBinding.getType())
+        .append("();\n")
+        .append(indent)
+        .append("}\n")
+        .append(indent);
+    if (unbinder != null) {
+      if (holderBinding.isRequired()) {
+        builder.append("final Unbinder ");
+      }
+      builder.append(unbinder)
+          .append(" = ");
+    }
+    TargetClass injector = holderBinding.getInjector();
+    if (injector == null) {
+      builder.append("ButterKnife.inject(")
+          .append(field)
+          .append(", ")
+          .append(container)
+          .append(");\n");
+    } else {
+      builder.append(holderInjector(injector, "inject"))
+          .append("(Finder.VIEW, ")
+          .append(field)
+          .append(", ")
+          .append(container)
+          .append(");\n");
+    }
+    if (!holderBinding.isRequired()) {
+      if (unbinder != null) {
+        builder.append("    } else {\n")
+            .append("      ")
+            .append(unbinder)
+            .append(" = Unbinder.EMPTY;\n");
+      }
+      builder.append("    }\n");
+    }
+  }
+
+  /** Emit resetting the fields of each holder which was created. */
+  private void emitHolderResets(StringBuilder builder, String indent) {
+    for (HolderBinding holderBinding : getHolderBindings()) {
+      String field = fieldTarget(holderBinding.getDeclaringType()) + "." + holderBinding.getName();
+      TargetClass injector = holderBinding.getInjector();
+      String reset = "ButterKnife.reset";
+      if (injector != null) {
+        reset = holderInjector(injector, "reset");
+      }
+      builder.append(indent)
+          .append("if (")
+          .append(field)
+          .append(" != null) {\n")
+          .append(indent)
+          .append("  ")
+          .append(reset)
+          .append('(')
+          .append(field)
+          .append(");\n")
+          .append(indent)
+          .append("}\n");
+    }
+  }
+
+  /** A reference to the method {@code action} of the injector of a holder's type. */
+  private String holderInjector(TargetClass injector, String action) {
+    if (options.mergePackages) {
+      return injector.getMergedCall(action, classPackage);
+    }
+    return injector.getFqcn() + ".INSTANCE." + action;
+  }
+
+  /** Emit the state shared by the listeners throttled per target, if there are any. */
+  private static void emitTargetThrottle(StringBuilder builder,
+      Collection<ViewInjection> viewInjections) {
+    if (isThrottledPerTarget(viewInjections)) {
+      // Kept for the target rather than per injection so that partial injections share it.
+      builder.append("    final long[] ")
+          .append(TARGET_NEXT_CLICK)
+          .append(" = ButterKnife.getTargetThrottle(target);\n");
+    }
+  }
+
+  /** The local variable holding the {@code index}th stub, starting at 1. */
+  static String stubView(int index) {
+    return "stubView" + index;
+  }
+
+  /** The local variable holding the view of the {@code index}th listener, starting at 1. */
+  static String listenerView(int index) {
+    return "listenerView" + index;
+  }
+
+  static String holderUnbinder(int index) {
+    return "holderUnbinder" + index;
+  }
+
+  private void emitUnbinder(StringBuilder builder, Collection<ViewInjection> viewInjections,
+      int stubs, int holders) {
+    boolean hasParent = getChainedParent() != null;
+    if (viewInjections.isEmpty() && stubs == 0 && holders == 0) {
+      if (hasParent) {
+        builder.append("    return parentUnbinder;\n");
+      } else {
+        builder.append("    return Unbinder.EMPTY;\n");
+      }
+      return;
+    }
+    builder.append("    return new Unbinder() {\n")
+        .append("      @Override public void unbind() {\n");
+    if (hasParent) {
+      builder.append("        parentUnbinder.unbind();\n");
+    }
+    emitResetBody(builder, "        ");
+    int listeners = 0;
+    for (ViewInjection injection : viewInjections) {
+      if (injection.getMethodBinding() == null) {
+        continue;
+      }
+      String listenerView = listenerView(++listeners);
+      if (isListenerGuarded(injection)) {
+        builder.append("        if (")
+            .append(listenerView)
+            .append(" != null) {\n")
+            .append("  ");
+      }
+      builder.append("        ")
+          .append(listenerView)
+          .append(".setOnClickListener(null);\n");
+      if (isListenerGuarded(injection)) {
+        builder.append("        }\n");
+      }
+    }
+    // Stubs which did not inflate yet no longer inject the target when they do.
+    for (int i = 1; i <= stubs; i++) {
+      builder.append("        if (")
+          .append(stubView(i))
+          .append(" != null) {\n")
+          .append("          ")
+          .append(stubView(i))
+          .append(".setOnInflateListener(null);\n")
+          .append("        }\n");
+    }
+    for (int i = 1; i <= holders; i++) {
+      builder.append("        ")
+          .append(holderUnbinder(i))
+          .append(".unbind();\n");
+    }
+    builder.append("      }\n")
+        .append("    };\n");
+  }
+
+  /**
+   * Emit the instance shared by all injections, which also keeps itself alive for as long as the
+   * class loader of its target without being held by {@code ButterKnife}.
+   */
+  private void emitInstance(StringBuilder builder) {
+    String type = className + "<" + targetClass + ">";
+    builder.append("  public static final ")
+        .append(type)
+        .append(" INSTANCE = new ")
+        .append(type)
+        .append("();\n\n");
+  }
+
+  private void emitResourceCache(StringBuilder builder,
+      Map<String, ResourceBinding> cachedResources) {
+    if (cachedResources.isEmpty()) {
+      return;
+    }
+    // Values are shared by every injection until the resources they were resolved from or their
+    // configuration change. The resources are held weakly so that they can be collected.
+    builder.append("  private static WeakReference<Resources> ")
+        .append(cacheField("cachedResources"))
+        .append(";\n");
+    builder.append("  private static Configuration ")
+        .append(cacheField("cachedConfiguration"))
+        .append(";\n");
+    for (ResourceBinding binding : cachedResources.values()) {
+      builder.append("  private static ")
+          .append(binding.getType())
+          .append(' ')
+          .append(cacheField(binding.getCacheName()))
+          .append(";\n");
+    }
+    builder.append('\n');
+  }
+
+  private void emitResourceBindings(StringBuilder builder) {
+    List<ResourceBinding> bindings = getResourceBindings();
+    if (bindings.isEmpty()) {
+      return;
+    }
+    builder.append("    Resources res = finder.getContext(source).getResources();\n");
+
+    Map<String, ResourceBinding> cachedResources = getCachedResources(bindings);
+    if (!cachedResources.isEmpty()) {
+      String resources = cacheField("cachedResources");
+      String configuration = cacheField("cachedConfiguration");
+      builder.append("    if (")
+          .append(resources)
+          .append(" == null || ")
+          .append(resources)
+          .append(".get() != res\n")
+          .append("        || !")
+          .append(configuration)
+          .append(".equals(res.getConfiguration())) {\n");
+      for (ResourceBinding binding : cachedResources.values()) {
+        builder.append("      ")
+            .append(cacheField(binding.getCacheName()))
+            .append(" = res.")
+            .append(binding.getMethod())
+            .append('(')
+            .append(binding.getId())
+            .append(");\n");
+      }
+      builder.append("      ")
+          .append(configuration)
+          .append(" = new Configuration(res.getConfiguration());\n")
+          .append("      ")
+          .append(resources)
+          .append(" = new WeakReference<Resources>(res);\n")
+          .append("    }\n");
+    }
+
+    for (ResourceBinding binding : bindings) {
+      builder.append("    ")
+          .append(fieldTarget(binding.getDeclaringType()))
+          .append('.')
+          .append(binding.getName())
+          .append(" = ");
+      if (binding.isCacheable()) {
+        builder.append(cacheField(binding.getCacheName()));
+      } else {
+        builder.append("res.")
+            .append(binding.getMethod())
+            .append('(')
+            .append(binding.getId())
+            .append(')');
+      }
+      builder.append(";\n");
+    }
+  }
+
+  /**
+   * Emit looking up each container of {@code viewInjections} and {@code holderBindings} once,
+   * returning the locals holding them by their ID.
+   */
+  private Map<Integer, String> emitContainers(StringBuilder builder,
+      Collection<ViewInjection> viewInjections, List<HolderBinding> holderBindings) {
+    List<Integer> containerIds = new ArrayList<Integer>();
+    for (ViewInjection injection : viewInjections) {
+      if (findAncestorField(injection.getId()) == null) {
+        containerIds.add(injection.getContainerId());
+      }
+    }
+    for (HolderBinding holderBinding : holderBindings) {
+      containerIds.add(holderBinding.getContainerId());
+    }
+    Map<Integer, String> containers = new LinkedHashMap<Integer, String>();
+    for (int containerId : containerIds) {
+      if (containerId == ViewInjection.NO_CONTAINER || containers.containsKey(containerId)) {
+        continue;
+      }
+      String container = "container" + (containers.size() + 1);
+      containers.put(containerId, container);
+      FieldBinding ancestorField = findAncestorField(containerId);
+      if (ancestorField != null) {
+        builder.append("    View ")
+            .append(container)
+            .append(" = ")
+            .append(fieldTarget(ancestorField.getDeclaringType()))
+            .append('.')
+            .append(ancestorField.getName())
+            .append(";\n");
+        continue;
+      }
+      emitTimingStart(builder, "");
+      builder.append("    View ")
+          .append(container)
+          .append(" = finder.findById(source, ")
+          .append(containerId)
+          .append(");\n");
+      emitTimingEnd(builder, "", containerId, LOOKUP_STEP);
+    }
+    return containers;
+  }
+
+  /**
+   * Emit the lookup and bindings of {@code injection}. Views are looked up within their container
+   * if it is one of {@code containers}, which may be null.
+   */
+  private void emitViewInjection(StringBuilder builder, ViewInjection injection,
+      Map<Integer, String> containers) {
+    FieldBinding ancestorField = findAncestorField(injection.getId());
+    String container = null;
+    String injectedContainer = null;
+    if (containers != null) {
+      container = containers.get(injection.getContainerId());
+      injectedContainer = containers.get(injection.getId());
+    }
+    if (ancestorField != null) {
+      // The ancestor injector has already looked this view up. Re-use its result.
+      builder.append("    view = ")
+          .append(fieldTarget(ancestorField.getDeclaringType()))
+          .append('.')
+          .append(ancestorField.getName())
+          .append(";\n");
+    } else if (injectedContainer != null) {
+      // The view is a container which was already looked up.
+      builder.append("    view = ")
+          .append(injectedContainer)
+          .append(";\n");
+    } else if (container != null) {
+      emitTimingStart(builder, "");
+      builder.append("    view = ButterKnife.findInContainer(finder, source, ")
+          .append(container)
+          .append(", ")
+          .append(injection.getId())
+          .append(");\n");
+      emitTimingEnd(builder, "", injection.getId(), LOOKUP_STEP);
+    } else {
+      emitTimingStart(builder, "");
+      builder.append("    view = finder.findById(source, ")
           .append(injection.getId())
-          .append("' for ")
-          .append(humanDescriptionJoin(requiredBindings))
-          .append(" was not found. If this view is optional add '@Optional' annotation.\");\n")
+          .append(");\n");
+      emitTimingEnd(builder, "", injection.getId(), LOOKUP_STEP);
+    }
+
+    if (isCheckedForNull(injection)) {
+      List<Binding> requiredBindings = injection.getRequiredBindings();
+      builder.append("    if (view == null) {\n")
+          .append("      throw new IllegalStateException(\"")
+          .append(missingViewMessage(injection.getId(), requiredBindings))
+          .append("\");\n")
           .append("    }\n");
     }
 
@@ -106,67 +1272,333 @@ class TargetClass {
     emitMethodBindings(builder, injection);
   }
 
+  /** Whether the injector throws if the view of {@code injection} is missing. */
+  boolean isCheckedForNull(ViewInjection injection) {
+    return options.checks && !injection.getRequiredBindings().isEmpty();
+  }
+
+  /** Whether the listener of {@code injection} is only attached if its view was found. */
+  boolean isListenerGuarded(ViewInjection injection) {
+    if (options.checks) {
+      // We only need to emit the null check if there are zero required bindings.
+      return injection.getRequiredBindings().isEmpty();
+    }
+    // Without checks only optional listeners are guarded. Missing required views fail on attach.
+    return !injection.getMethodBinding().isRequired();
+  }
+
+  /**
+   * Returns a field which an ancestor's injector, run before this one, assigns the view with
+   * {@code id} to. Returns null if no such field is accessible from this injector.
+   */
+  FieldBinding findAncestorField(int id) {
+    for (TargetClass ancestor = getChainedParent(); ancestor != null;
+        ancestor = ancestor.parent) {
+      ViewInjection injection = ancestor.viewIdMap.get(id);
+      if (injection == null) {
+        continue;
+      }
+      for (FieldBinding fieldBinding : injection.getFieldBindings()) {
+        if (fieldBinding.isPublic() || ancestor.classPackage.equals(classPackage)) {
+          return fieldBinding.inheritedFrom(ancestor.targetClass);
+        }
+      }
+    }
+    return null;
+  }
+
   private void emitFieldBindings(StringBuilder builder, ViewInjection injection) {
     for (FieldBinding fieldBinding : injection.getFieldBindings()) {
-      builder.append("    target.")
+      emitTimingStart(builder, "");
+      builder.append("    ")
+          .append(fieldTarget(fieldBinding.getDeclaringType()))
+          .append('.')
           .append(fieldBinding.getName())
           .append(" = ");
       emitCastIfNeeded(builder, fieldBinding.getViewType());
       builder.append("view;\n");
+      emitTimingEnd(builder, "", injection.getId(), fieldBinding.getDescription());
     }
   }
 
   private void emitMethodBindings(StringBuilder builder, ViewInjection injection) {
     MethodBinding methodBinding = injection.getMethodBinding();
     if (methodBinding != null) {
-      List<Binding> requiredBindings = injection.getRequiredBindings();
+      boolean guarded = isListenerGuarded(injection);
       String extraIndent = "";
 
-      // We only need to emit the null check if there are zero required bindings.
-      if (requiredBindings.isEmpty()) {
+      if (guarded) {
         builder.append("    if (view != null) {\n  ");
         extraIndent = "  ";
       }
 
+      emitTimingStart(builder, extraIndent);
       builder.append(extraIndent)
-          .append("    view.setOnClickListener(new View.OnClickListener() {\n")
-          .append(extraIndent)
-          .append("      @Override public void onClick(View view) {\n")
-          .append(extraIndent)
-          .append("        target.")
-          .append(methodBinding.getName())
-          .append('(');
-      if (methodBinding.getViewType() != null) {
-        // Only emit a cast if the type is not View.
-        emitCastIfNeeded(builder, methodBinding.getViewType());
-        builder.append("view");
+          .append("    view.setOnClickListener(new View.OnClickListener() {\n");
+      if (methodBinding.isThrottled() && !methodBinding.isThrottledPerTarget()) {
+        builder.append(extraIndent)
+            .append("      private long nextClick;\n\n");
       }
-      builder.append(");\n")
-          .append(extraIndent)
+      // Background methods receive the view from another thread.
+      boolean finalView = methodBinding.isBackground() && methodBinding.getViewType() != null;
+      builder.append(extraIndent)
+          .append("      @Override public void onClick(");
+      if (finalView) {
+        builder.append("final ");
+      }
+      builder.append("View view) {\n");
+      emitThrottle(builder, extraIndent, methodBinding);
+      if (methodBinding.isBackground()) {
+        emitBackgroundCall(builder, extraIndent + "        ", methodBinding);
+      } else {
+        emitCall(builder, extraIndent + "        ", "", methodBinding);
+      }
+      builder.append(extraIndent)
           .append("      }\n")
           .append(extraIndent)
           .append("    });\n");
-      if (requiredBindings.isEmpty()) {
+      emitTimingEnd(builder, extraIndent, injection.getId(), methodBinding.getDescription());
+      if (guarded) {
         builder.append("    }\n");
       }
     }
   }
 
+  /**
+   * Emit the call of the bound method, assigning its result to {@code assignment} if any. With
+   * the watchdog its duration is reported, which costs one pair of {@code System.nanoTime()}.
+   */
+  private void emitCall(StringBuilder builder, String indent, String assignment,
+      MethodBinding methodBinding) {
+    if (options.watchdog) {
+      builder.append(indent).append("long clickStart = System.nanoTime();\n");
+    }
+    builder.append(indent)
+        .append(assignment)
+        .append("target.")
+        .append(methodBinding.getName())
+        .append('(');
+    if (methodBinding.getViewType() != null) {
+      // Only emit a cast if the type is not View.
+      emitCastIfNeeded(builder, methodBinding.getViewType());
+      builder.append("view");
+    }
+    builder.append(");\n");
+    if (options.watchdog) {
+      builder.append(indent)
+          .append("ButterKnife.reportClick(")
+          .append(targetClass)
+          .append(".class, \"")
+          .append(methodBinding.getName())
+          .append("\", System.nanoTime() - clickStart);\n");
+    }
+  }
+
+  /**
+   * Emit the call of a background method on the click executor, followed by posting the call of
+   * its result method, if any, to the main thread.
+   */
+  private void emitBackgroundCall(StringBuilder builder, String indent,
+      MethodBinding methodBinding) {
+    String resultMethod = methodBinding.getResultMethod();
+    String returnType = methodBinding.getReturnType();
+    builder.append(indent)
+        .append("ButterKnife.executeClick(new Runnable() {\n")
+        .append(indent)
+        .append("  @Override public void run() {\n");
+    if (resultMethod == null) {
+      emitCall(builder, indent + "    ", "", methodBinding);
+    } else {
+      String result = "";
+      String resultArgument = "";
+      if (returnType != null) {
+        result = "final " + returnType + " result = ";
+        resultArgument = "result";
+      }
+      emitCall(builder, indent + "    ", result, methodBinding);
+      builder.append(indent)
+          .append("    ButterKnife.postToMainThread(new Runnable() {\n")
+          .append(indent)
+          .append("      @Override public void run() {\n")
+          .append(indent)
+          .append("        target.")
+          .append(resultMethod)
+          .append('(')
+          .append(resultArgument)
+          .append(");\n")
+          .append(indent)
+          .append("      }\n")
+          .append(indent)
+          .append("    });\n");
+    }
+    builder.append(indent)
+        .append("  }\n")
+        .append(indent)
+        .append("});\n");
+  }
+
+  /** Emit the check which drops clicks within the minimum interval of the last accepted one. */
+  private static void emitThrottle(StringBuilder builder, String indent,
+      MethodBinding methodBinding) {
+    if (!methodBinding.isThrottled()) {
+      return;
+    }
+    // Compare uptimes rather than allocate anything per click.
+    String nextClick = "nextClick";
+    if (methodBinding.isThrottledPerTarget()) {
+      nextClick = TARGET_NEXT_CLICK + "[0]";
+    }
+    builder.append(indent)
+        .append("        long now = SystemClock.uptimeMillis();\n")
+        .append(indent)
+        .append("        if (now < ")
+        .append(nextClick)
+        .append(") {\n")
+        .append(indent)
+        .append("          return;\n")
+        .append(indent)
+        .append("        }\n")
+        .append(indent)
+        .append("        ")
+        .append(nextClick)
+        .append(" = now + ")
+        .append(methodBinding.getMinInterval())
+        .append(";\n");
+  }
+
+  private void emitTimingStart(StringBuilder builder, String indent) {
+    if (options.timing) {
+      builder.append(indent).append("    start = System.nanoTime();\n");
+    }
+  }
+
+  private void emitTimingEnd(StringBuilder builder, String indent, int id, String step) {
+    if (options.timing) {
+      builder.append(indent)
+          .append("    ButterKnife.reportTiming(")
+          .append(targetClass)
+          .append(".class, ")
+          .append(id)
+          .append(", \"")
+          .append(step)
+          .append("\", System.nanoTime() - start);\n");
+    }
+  }
+
   private void emitReset(StringBuilder builder) {
-    builder.append("  public static void reset(").append(targetClass).append(" target) {\n");
-    if (parentInjector != null) {
-      builder.append("    ")
-          .append(parentInjector)
-          .append(".reset(target);\n\n");
+    builder.append("  @Override public void reset(T target) {\n");
+    if (getChainedParent() != null) {
+      builder.append("    super.reset(target);\n\n");
+    }
+    emitResetBody(builder, "    ");
+    emitHolderResets(builder, "    ");
+    builder.append("  }\n");
+  }
+
+  private void emitResetBody(StringBuilder builder, String indent) {
+    List<ViewInjection> injections = new ArrayList<ViewInjection>(getViewInjections());
+    for (Collection<ViewInjection> stubInjections : getStubInjections().values()) {
+      injections.addAll(stubInjections);
     }
-    for (ViewInjection injection : viewIdMap.values()) {
+    for (ViewInjection injection : injections) {
       for (FieldBinding fieldBinding : injection.getFieldBindings()) {
-        builder.append("    target.").append(fieldBinding.getName()).append(" = null;\n");
+        builder.append(indent)
+            .append(fieldTarget(fieldBinding.getDeclaringType()))
+            .append('.')
+            .append(fieldBinding.getName())
+            .append(" = null;\n");
       }
     }
+  }
+
+  private void emitBind(StringBuilder builder) {
+    emitSuppressUnchecked(builder);
+    builder.append("  @Override public void bind(T target, Object model) {\n");
+    TargetClass chainedParent = getChainedParent();
+    if (chainedParent != null && chainedParent.hasValueBindings()) {
+      builder.append("    super.bind(target, model);\n\n");
+    }
+    emitBindBody(builder);
     builder.append("  }\n");
   }
 
+  /** Generic models are cast to their erasure and passed on unchecked. */
+  private void emitSuppressUnchecked(StringBuilder builder) {
+    for (ValueBinding binding : getValueBindings()) {
+      if (binding.isRawModel()) {
+        builder.append("  @SuppressWarnings(\"unchecked\")\n");
+        return;
+      }
+    }
+  }
+
+  /**
+   * Emit setting the value of each binding for {@code model} on its view, unless the view already
+   * shows it. Comparing with the view rather than the last bound value needs no state per target.
+   */
+  private void emitBindBody(StringBuilder builder) {
+    List<ValueBinding> bindings = getValueBindings();
+    for (ValueBinding.Kind kind : ValueBinding.Kind.values()) {
+      for (ValueBinding binding : bindings) {
+        if (binding.getKind() == kind) {
+          builder.append("    ")
+              .append(kind.getType())
+              .append(' ')
+              .append(kind.getLocal())
+              .append(";\n");
+          break;
+        }
+      }
+    }
+    for (ValueBinding binding : bindings) {
+      String target = fieldTarget(binding.getDeclaringType());
+      String view = target + "." + binding.getField();
+      String local = binding.getKind().getLocal();
+      builder.append("    ")
+          .append(local)
+          .append(" = ")
+          .append(target)
+          .append('.')
+          .append(binding.getMethod())
+          .append("((")
+          .append(binding.getModelType())
+          .append(") model);\n");
+      builder.append("    if (");
+      if (!binding.isRequired()) {
+        builder.append(view).append(" != null && ");
+      }
+      switch (binding.getKind()) {
+        case TEXT:
+          builder.append("!TextUtils.equals(")
+              .append(view)
+              .append(".getText(), text)) {\n")
+              .append("      ")
+              .append(view)
+              .append(".setText(text);\n");
+          break;
+        case VISIBILITY:
+          builder.append(view)
+              .append(".getVisibility() != visibility) {\n")
+              .append("      ")
+              .append(view)
+              .append(".setVisibility(visibility);\n");
+          break;
+        default:
+          throw new AssertionError(binding.getKind());
+      }
+      builder.append("    }\n");
+    }
+  }
+
+  /** The expression on which a field declared by {@code declaringType} is accessed. */
+  private static String fieldTarget(String declaringType) {
+    if (declaringType == null) {
+      return "target";
+    }
+    // Cast to the declaring type in case a subclass hides the field.
+    return "((" + declaringType + ") target)";
+  }
+
   static void emitCastIfNeeded(StringBuilder builder, String viewType) {
     // Only emit a cast if the type is not View.
     if (!VIEW_TYPE.equals(viewType)) {
@@ -174,6 +1606,11 @@ class TargetClass {
     }
   }
 
+  static String missingViewMessage(int id, List<Binding> requiredBindings) {
+    return "Required view with id '" + id + "' for " + humanDescriptionJoin(requiredBindings)
+        + " was not found. If this view is optional add '@Optional' annotation.";
+  }
+
   static String humanDescriptionJoin(List<Binding> bindings) {
     switch (bindings.size()) {
       case 1:
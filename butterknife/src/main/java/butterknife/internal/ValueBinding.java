@@ -0,0 +1,90 @@
+package butterknife.internal;
+
+/** A method whose value for a model is set on an injected view by the generated binder. */
+class ValueBinding {
+  enum Kind {
+    TEXT("CharSequence", "text"),
+    VISIBILITY("int", "visibility");
+
+    private final String type;
+    private final String local;
+
+    Kind(String type, String local) {
+      this.type = type;
+      this.local = local;
+    }
+
+    /** The type of the value. */
+    String getType() {
+      return type;
+    }
+
+    /** The local of the emitted binder which holds the value. */
+    String getLocal() {
+      return local;
+    }
+  }
+
+  private final Kind kind;
+  private final String method;
+  private final String modelType;
+  private final boolean rawModel;
+  private final String field;
+  private final boolean required;
+  private final String declaringType;
+
+  ValueBinding(Kind kind, String method, String modelType, boolean rawModel, String field,
+      boolean required) {
+    this(kind, method, modelType, rawModel, field, required, null);
+  }
+
+  private ValueBinding(Kind kind, String method, String modelType, boolean rawModel,
+      String field, boolean required, String declaringType) {
+    this.kind = kind;
+    this.method = method;
+    this.modelType = modelType;
+    this.rawModel = rawModel;
+    this.field = field;
+    this.required = required;
+    this.declaringType = declaringType;
+  }
+
+  /** A copy of this binding for use by the injector of a subclass of {@code declaringType}. */
+  ValueBinding inheritedFrom(String declaringType) {
+    return new ValueBinding(kind, method, modelType, rawModel, field, required, declaringType);
+  }
+
+  public Kind getKind() {
+    return kind;
+  }
+
+  /** The method of the target which returns the value for a model. */
+  public String getMethod() {
+    return method;
+  }
+
+  /** The erasure of the type of the method's parameter, which the model is cast to. */
+  public String getModelType() {
+    return modelType;
+  }
+
+  /** Whether the parameter is of a generic type, so the cast to its erasure is unchecked. */
+  public boolean isRawModel() {
+    return rawModel;
+  }
+
+  /** The injected field holding the view the value is set on. */
+  public String getField() {
+    return field;
+  }
+
+  /** Whether the view of the field is required, i.e., it is not null once injected. */
+  public boolean isRequired() {
+    return required;
+  }
+
+  /** The ancestor declaring the method, or null if it is declared by the target type itself. */
+  public String getDeclaringType() {
+    return declaringType;
+  }
+}
@@ -6,9 +6,13 @@ import java.util.List;
 import java.util.Set;
 
 class ViewInjection {
+  /** The container ID of views which are looked up in the whole hierarchy. */
+  static final int NO_CONTAINER = -1;
+
   private final int id;
   private final Set<FieldBinding> fieldBindings = new LinkedHashSet<FieldBinding>();
   private MethodBinding methodBinding;
+  private int containerId = NO_CONTAINER;
 
   ViewInjection(int id) {
     this.id = id;
@@ -18,6 +22,20 @@ class ViewInjection {
     return id;
   }
 
+  /** The ID of the container the view is looked up in, or {@link #NO_CONTAINER}. */
+  public int getContainerId() {
+    return containerId;
+  }
+
+  /** Returns false if the view was already declared in a different container. */
+  public boolean setContainerId(int containerId) {
+    if (this.containerId != NO_CONTAINER && this.containerId != containerId) {
+      return false;
+    }
+    this.containerId = containerId;
+    return true;
+  }
+
   public Set<FieldBinding> getFieldBindings() {
     return fieldBindings;
   }
@@ -0,0 +1,13 @@
+package butterknife.reflect;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/** A {@link butterknife.InStub} which is retained at runtime, for {@link InjectView} fields. */
+@Retention(RUNTIME) @Target(FIELD)
+public @interface InStub {
+  int value();
+}
@@ -0,0 +1,16 @@
+package butterknife.reflect;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * A {@link butterknife.InjectView} which is retained at runtime, so that it is also injected by
+ * reflection when {@code ButterKnife.setReflection} is enabled and no injector was generated.
+ */
+@Retention(RUNTIME) @Target(FIELD)
+public @interface InjectView {
+  int value();
+}
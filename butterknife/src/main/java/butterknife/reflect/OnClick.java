@@ -0,0 +1,28 @@
+package butterknife.reflect;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * A {@link butterknife.OnClick} which is retained at runtime, so that it is also injected by
+ * reflection when {@code ButterKnife.setReflection} is enabled and no injector was generated.
+ */
+@Retention(RUNTIME) @Target(METHOD)
+public @interface OnClick {
+  int[] value();
+
+  /** @see butterknife.OnClick#minInterval() */
+  int minInterval() default 0;
+
+  /** @see butterknife.OnClick#throttle() */
+  butterknife.OnClick.Throttle throttle() default butterknife.OnClick.Throttle.VIEW;
+
+  /** @see butterknife.OnClick#background() */
+  boolean background() default false;
+
+  /** @see butterknife.OnClick#result() */
+  String result() default "";
+}
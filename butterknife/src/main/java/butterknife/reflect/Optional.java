@@ -0,0 +1,16 @@
+package butterknife.reflect;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * A {@link butterknife.Optional} which is retained at runtime, for {@link InjectView} fields and
+ * {@link OnClick} methods.
+ */
+@Retention(RUNTIME) @Target({ FIELD, METHOD })
+public @interface Optional {
+}
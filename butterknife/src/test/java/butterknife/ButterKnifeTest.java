@@ -1,23 +1,31 @@
 package butterknife;
 
 import android.app.Activity;
+import android.view.View;
+import android.widget.FrameLayout;
+import java.lang.ref.WeakReference;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
 
 import static org.fest.assertions.api.Assertions.assertThat;
-import static org.fest.assertions.api.Assertions.entry;
 
 @RunWith(RobolectricTestRunner.class)
 @Config(manifest = Config.NONE)
 public class ButterKnifeTest {
-  @Before @After // Clear out cache of injectors and resetters before and after each test.
+  @Before @After // Clear out cache of injectors before and after each test.
   public void resetViewsCache() {
     ButterKnife.INJECTORS.clear();
-    ButterKnife.RESETTERS.clear();
+    ButterKnife.GROUPS.clear();
   }
 
   @Test public void zeroInjectionsInjectDoesNotThrowException() {
@@ -25,8 +33,8 @@ public class ButterKnifeTest {
     }
 
     Example example = new Example();
-    ButterKnife.inject(example, null, null);
-    assertThat(ButterKnife.INJECTORS).contains(entry(Example.class, ButterKnife.NO_OP));
+    ButterKnife.inject(example, null, (ButterKnife.Finder) null);
+    assertThat((Object) ButterKnife.INJECTORS.get(Example.class)).isSameAs(ButterKnife.NO_OP);
   }
 
   @Test public void zeroInjectionsResetDoesNotThrowException() {
@@ -35,17 +43,230 @@ public class ButterKnifeTest {
 
     Example example = new Example();
     ButterKnife.reset(example);
-    assertThat(ButterKnife.RESETTERS).contains(entry(Example.class, ButterKnife.NO_OP));
+    assertThat((Object) ButterKnife.INJECTORS.get(Example.class)).isSameAs(ButterKnife.NO_OP);
+  }
+
+  @Test public void zeroInjectionsBindIgnoresModel() {
+    class Example {
+    }
+
+    Example example = new Example();
+    ButterKnife.bind(example, "model");
+    assertThat((Object) ButterKnife.INJECTORS.get(Example.class)).isSameAs(ButterKnife.NO_OP);
+  }
+
+  @Test public void getInjectorIsCachedAndNoOpWithoutInjections() {
+    class Example {
+    }
+
+    ButterKnife.Injector<Example> injector = ButterKnife.getInjector(Example.class);
+    assertThat((Object) injector).isSameAs(ButterKnife.NO_OP);
+    assertThat((Object) ButterKnife.INJECTORS.get(Example.class)).isSameAs(ButterKnife.NO_OP);
+    injector.inject(new Example(), new View(Robolectric.application));
+    injector.reset(new Example());
+  }
+
+  @Test public void maxCachedInjectorsHoldsOnlyMostRecentSoftly() {
+    class First {
+      @butterknife.reflect.InjectView(1) View view;
+    }
+    class Second {
+      @butterknife.reflect.InjectView(1) View view;
+    }
+    class Empty {
+    }
+
+    ButterKnife.setReflection(true);
+    ButterKnife.setMaxCachedInjectors(1);
+    try {
+      ButterKnife.getInjector(First.class);
+      ButterKnife.getInjector(Second.class);
+      assertThat(ButterKnife.INJECTORS.softSize()).isEqualTo(1);
+      // The no-op injector is shared, so it is never held softly.
+      ButterKnife.getInjector(Empty.class);
+      assertThat(ButterKnife.INJECTORS.softSize()).isEqualTo(1);
+    } finally {
+      ButterKnife.setMaxCachedInjectors(InjectorCache.DEFAULT_MAX_SIZE);
+      ButterKnife.setReflection(false);
+    }
+  }
+
+  @Test public void injectorsDoNotKeepClassLoaderOfTargetAlive() throws Exception {
+    ClassLoader loader = new PluginClassLoader();
+    Class<?> pluginClass = loader.loadClass(Plugin.class.getName());
+    assertThat((Object) pluginClass).isNotSameAs(Plugin.class);
+    Object injector = ButterKnife.getInjector(pluginClass);
+    assertThat(injector).isSameAs(
+        loader.loadClass(Plugin$$ViewInjector.class.getName()).getField("INSTANCE").get(null));
+
+    WeakReference<ClassLoader> reference = new WeakReference<ClassLoader>(loader);
+    loader = null;
+    pluginClass = null;
+    injector = null;
+    for (int i = 0; i < 10 && reference.get() != null; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertThat(reference.get()).isNull();
+  }
+
+  public static class Plugin {
+  }
+
+  /** Shaped like the generated injector of {@link Plugin}. */
+  public static class Plugin$$ViewInjector<T extends Plugin> extends ButterKnife.Injector<T> {
+    public static final Plugin$$ViewInjector<Plugin> INSTANCE = new Plugin$$ViewInjector<Plugin>();
+
+    @Override public ButterKnife.Unbinder inject(ButterKnife.Finder finder, T target,
+        Object source) {
+      return ButterKnife.Unbinder.EMPTY;
+    }
+
+    @Override public void reset(T target) {
+    }
+  }
+
+  /** Loads {@link Plugin} and its injector itself, as a class loader of a plugin module would. */
+  static class PluginClassLoader extends URLClassLoader {
+    PluginClassLoader() {
+      super(new URL[] { classesRoot() }, PluginClassLoader.class.getClassLoader());
+    }
+
+    private static URL classesRoot() {
+      String path = ButterKnifeTest.class.getName().replace('.', '/') + ".class";
+      String url = PluginClassLoader.class.getClassLoader().getResource(path).toString();
+      try {
+        return new URL(url.substring(0, url.length() - path.length()));
+      } catch (MalformedURLException e) {
+        throw new AssertionError(e);
+      }
+    }
+
+    @Override protected synchronized Class<?> loadClass(String name, boolean resolve)
+        throws ClassNotFoundException {
+      if (!name.startsWith(Plugin.class.getName())) {
+        return super.loadClass(name, resolve);
+      }
+      Class<?> cls = findLoadedClass(name);
+      return cls != null ? cls : findClass(name);
+    }
+  }
+
+  @Test public void reportTimingForwardsToListener() {
+    final StringBuilder timings = new StringBuilder();
+    ButterKnife.reportTiming(Object.class, 1, "findById", 2);
+    ButterKnife.setTimingListener(new ButterKnife.TimingListener() {
+      @Override public void onTiming(Class<?> targetClass, int id, String step, long nanos) {
+        timings.append(targetClass.getSimpleName()).append(' ').append(id).append(' ')
+            .append(step).append(' ').append(nanos);
+      }
+    });
+    try {
+      ButterKnife.reportTiming(Object.class, 1, "findById", 2);
+    } finally {
+      ButterKnife.setTimingListener(null);
+    }
+    assertThat(timings.toString()).isEqualTo("Object 1 findById 2");
+  }
+
+  @Test public void reportClickForwardsOnlySlowClicksToListener() {
+    final StringBuilder clicks = new StringBuilder();
+    ButterKnife.setSlowClickListener(new ButterKnife.SlowClickListener() {
+      @Override public void onSlowClick(Class<?> targetClass, String method, long nanos) {
+        clicks.append(targetClass.getSimpleName()).append(' ').append(method).append(' ')
+            .append(nanos).append(';');
+      }
+    });
+    try {
+      ButterKnife.reportClick(Object.class, "fast", 16000000);
+      ButterKnife.reportClick(Object.class, "slow", 16000001);
+      ButterKnife.setSlowClickThreshold(2, TimeUnit.NANOSECONDS);
+      ButterKnife.reportClick(Object.class, "fast", 2);
+      ButterKnife.reportClick(Object.class, "slow", 3);
+    } finally {
+      ButterKnife.setSlowClickListener(null);
+      ButterKnife.setSlowClickThreshold(ButterKnife.DEFAULT_SLOW_CLICK_MILLIS,
+          TimeUnit.MILLISECONDS);
+    }
+    assertThat(clicks.toString()).isEqualTo("Object slow 16000001;Object slow 3;");
+  }
+
+  @Test public void backgroundClicksRunOnClickExecutorAndPostResults() {
+    final StringBuilder log = new StringBuilder();
+    ButterKnife.setClickExecutor(new Executor() {
+      @Override public void execute(Runnable command) {
+        log.append("execute;");
+        command.run();
+      }
+    });
+    try {
+      ButterKnife.executeClick(new Runnable() {
+        @Override public void run() {
+          log.append("click;");
+          ButterKnife.postToMainThread(new Runnable() {
+            @Override public void run() {
+              log.append("result;");
+            }
+          });
+        }
+      });
+    } finally {
+      ButterKnife.setClickExecutor(null);
+    }
+    Robolectric.runUiThreadTasks();
+    assertThat(log.toString()).isEqualTo("execute;click;result;");
+  }
+
+  @Test public void injectDirectUsesInjectorOnlyForExactTargetClass() {
+    class Example {
+    }
+    class SubExample extends Example {
+    }
+    final StringBuilder injected = new StringBuilder();
+    ButterKnife.Injector<Object> injector = new ButterKnife.Injector<Object>() {
+      @Override public ButterKnife.Unbinder inject(ButterKnife.Finder finder, Object target,
+          Object source) {
+        injected.append(target.getClass().getSimpleName()).append(';');
+        return ButterKnife.Unbinder.EMPTY;
+      }
+
+      @Override public void reset(Object target) {
+      }
+    };
+    View source = new View(Robolectric.application);
+    ButterKnife.injectDirect(new Example(), source, Example.class, injector);
+    // Subclasses may have bindings of their own so their injector is looked up.
+    ButterKnife.injectDirect(new SubExample(), source, Example.class, injector);
+    assertThat(injected.toString()).isEqualTo("Example;");
+    assertThat(ButterKnife.INJECTORS.get(SubExample.class)).isSameAs(ButterKnife.NO_OP);
+  }
+
+  @Test public void findInContainerSearchesOnlyContainer() {
+    FrameLayout root = new FrameLayout(Robolectric.application);
+    View outside = new View(Robolectric.application);
+    outside.setId(1);
+    root.addView(outside);
+    FrameLayout container = new FrameLayout(Robolectric.application);
+    root.addView(container);
+    View inside = new View(Robolectric.application);
+    inside.setId(1);
+    container.addView(inside);
+
+    assertThat(ButterKnife.findInContainer(ButterKnife.Finder.VIEW, root, container, 1))
+        .isSameAs(inside);
+    // A missing container falls back to the whole hierarchy.
+    assertThat(ButterKnife.findInContainer(ButterKnife.Finder.VIEW, root, null, 1))
+        .isSameAs(outside);
   }
 
   @Test public void injectingKnownPackagesIsNoOp() {
     ButterKnife.inject(new Activity());
-    assertThat(ButterKnife.INJECTORS).isEmpty();
+    assertThat(ButterKnife.INJECTORS.isEmpty()).isTrue();
     ButterKnife.inject(new Object(), new Activity());
-    assertThat(ButterKnife.INJECTORS).isEmpty();
+    assertThat(ButterKnife.INJECTORS.isEmpty()).isTrue();
     ButterKnife.reset(new Object());
-    assertThat(ButterKnife.RESETTERS).isEmpty();
+    assertThat(ButterKnife.INJECTORS.isEmpty()).isTrue();
     ButterKnife.reset(new Activity());
-    assertThat(ButterKnife.RESETTERS).isEmpty();
+    assertThat(ButterKnife.INJECTORS.isEmpty()).isTrue();
   }
 }
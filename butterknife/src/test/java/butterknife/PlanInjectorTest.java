@@ -0,0 +1,107 @@
+package butterknife;
+
+import android.view.View;
+import android.widget.FrameLayout;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class PlanInjectorTest {
+  static class Target {
+    View first;
+    View second;
+    int clicks;
+  }
+
+  /** Shaped like the injector generated for {@link Target}. */
+  static class TargetInjector<T extends Target> extends PlanInjector<T> {
+    private static final int[] PLAN = {
+        1, FIELDS | LISTENER | REQUIRED,
+        2, FIELDS
+    };
+    private static final String[] MESSAGES = {
+        "Required view with id '1' was not found.",
+        null
+    };
+
+    TargetInjector() {
+      super(PLAN, MESSAGES, null);
+    }
+
+    @Override protected void bind(T target, int row, View view) {
+      switch (row) {
+        case 0:
+          target.first = view;
+          return;
+        case 1:
+          target.second = view;
+          return;
+      }
+    }
+
+    @Override protected void click(T target, int row, View view) {
+      switch (row) {
+        case 0:
+          target.clicks++;
+          return;
+      }
+    }
+  }
+
+  private FrameLayout root;
+  private View first;
+
+  @Before public void setUp() {
+    root = new FrameLayout(Robolectric.application);
+    first = new View(Robolectric.application);
+    first.setId(1);
+    root.addView(first);
+  }
+
+  @Test public void injectsRowsAndUnbinds() {
+    Target target = new Target();
+    ButterKnife.Unbinder unbinder = new TargetInjector<Target>().inject(target, root);
+    assertThat(target.first).isSameAs(first);
+    assertThat(target.second).isNull();
+    first.performClick();
+    assertThat(target.clicks).isEqualTo(1);
+
+    unbinder.unbind();
+    assertThat(target.first).isNull();
+    first.performClick();
+    assertThat(target.clicks).isEqualTo(1);
+  }
+
+  @Test public void reInjectsOnlyRowsOfIds() {
+    Target target = new Target();
+    TargetInjector<Target> injector = new TargetInjector<Target>();
+    View second = new View(Robolectric.application);
+    second.setId(2);
+    root.addView(second);
+    injector.inject(target, root, 2);
+    assertThat(target.first).isNull();
+    assertThat(target.second).isSameAs(second);
+
+    injector.inject(target, root);
+    injector.reset(target);
+    assertThat(target.first).isNull();
+    assertThat(target.second).isNull();
+  }
+
+  @Test public void missingRequiredViewThrowsMessageOfRow() {
+    try {
+      new TargetInjector<Target>().inject(new Target(), new FrameLayout(Robolectric.application));
+      fail();
+    } catch (IllegalStateException e) {
+      assertThat(e).hasMessage("Required view with id '1' was not found.");
+    }
+  }
+}
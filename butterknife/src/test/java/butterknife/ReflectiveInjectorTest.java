@@ -0,0 +1,187 @@
+package butterknife;
+
+import android.view.View;
+import android.view.ViewStub;
+import android.widget.Button;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+import butterknife.reflect.InStub;
+import butterknife.reflect.InjectView;
+import butterknife.reflect.OnClick;
+import butterknife.reflect.Optional;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class ReflectiveInjectorTest {
+  static class Parent {
+    @InjectView(1) Button button;
+    int clicks;
+
+    @OnClick(1) void click(Button button) {
+      clicks++;
+    }
+  }
+
+  static class Child extends Parent {
+    @Optional @InjectView(2) View missing;
+    int otherClicks;
+
+    @OnClick({ 1, 3 }) void otherClick() {
+      otherClicks++;
+    }
+  }
+
+  static class Stubbed {
+    @InStub(4) @InjectView(5) TextView text;
+  }
+
+  static class Throttled {
+    int clicks;
+
+    @OnClick(value = { 1, 3 }, minInterval = 1000, throttle = butterknife.OnClick.Throttle.TARGET)
+    void click() {
+      clicks++;
+    }
+  }
+
+  static class PrivateField {
+    @InjectView(1) private View view;
+  }
+
+  static class ClassRetained {
+    @butterknife.InjectView(1) View view;
+  }
+
+  private FrameLayout root;
+  private Button button;
+  private View other;
+
+  @Before public void setUp() {
+    ButterKnife.setReflection(true);
+    root = new FrameLayout(Robolectric.application);
+    button = new Button(Robolectric.application);
+    button.setId(1);
+    root.addView(button);
+    other = new View(Robolectric.application);
+    other.setId(3);
+    root.addView(other);
+  }
+
+  @After public void tearDown() {
+    ButterKnife.setReflection(false);
+  }
+
+  @Test public void throttlePerTargetSpansReInjectedViews() {
+    Throttled target = new Throttled();
+    ButterKnife.inject(target, root);
+    button.performClick();
+
+    View rebound = new View(Robolectric.application);
+    rebound.setId(3);
+    root.removeView(other);
+    root.addView(rebound);
+    ButterKnife.inject(target, root, 3);
+    // Within the interval of the click of the original view.
+    rebound.performClick();
+    assertThat(target.clicks).isEqualTo(1);
+  }
+
+  @Test public void injectsFieldsAndMethodsOfClassAndAncestors() {
+    Child child = new Child();
+    ButterKnife.Unbinder unbinder = ButterKnife.inject(child, root);
+    assertThat(child.button).isSameAs(button);
+    assertThat(child.missing).isNull();
+
+    // The child's listener replaced the parent's on the shared view.
+    button.performClick();
+    other.performClick();
+    assertThat(child.clicks).isEqualTo(0);
+    assertThat(child.otherClicks).isEqualTo(2);
+
+    unbinder.unbind();
+    assertThat(child.button).isNull();
+    button.performClick();
+    assertThat(child.otherClicks).isEqualTo(2);
+  }
+
+  @Test public void injectsStubFieldsOnceInflated() {
+    ViewStub stub = new ViewStub(Robolectric.application, android.R.layout.simple_list_item_1);
+    stub.setId(4);
+    stub.setInflatedId(5);
+    root.addView(stub);
+
+    Stubbed stubbed = new Stubbed();
+    ButterKnife.Unbinder unbinder = ButterKnife.inject(stubbed, root);
+    assertThat(stubbed.text).isNull();
+    View inflated = stub.inflate();
+    assertThat((Object) stubbed.text).isSameAs(inflated);
+
+    // Once inflated, the views are injected right away.
+    Stubbed other = new Stubbed();
+    ButterKnife.inject(other, root);
+    assertThat((Object) other.text).isSameAs(inflated);
+
+    unbinder.unbind();
+    assertThat(stubbed.text).isNull();
+  }
+
+  @Test public void injectorIsCachedPerClass() {
+    ButterKnife.Injector<Parent> injector = ButterKnife.getInjector(Parent.class);
+    assertThat(injector).isInstanceOf(ReflectiveInjector.class);
+    assertThat(ButterKnife.getInjector(Parent.class)).isSameAs(injector);
+
+    Parent parent = new Parent();
+    injector.inject(parent, root);
+    button.performClick();
+    assertThat(parent.clicks).isEqualTo(1);
+    injector.reset(parent);
+    assertThat(parent.button).isNull();
+  }
+
+  @Test public void reInjectsOnlyGivenIds() {
+    Child child = new Child();
+    ButterKnife.inject(child, root, 3);
+    assertThat(child.button).isNull();
+    other.performClick();
+    assertThat(child.otherClicks).isEqualTo(1);
+  }
+
+  @Test public void missingRequiredViewThrows() {
+    try {
+      ButterKnife.inject(new Parent(), new FrameLayout(Robolectric.application));
+      fail();
+    } catch (ButterKnife.UnableToInjectException e) {
+      assertThat(e.getCause()).hasMessage("Required view with id '1' for field 'button' was not "
+          + "found. If this view is optional add '@Optional' annotation.");
+    }
+  }
+
+  @Test public void privateFieldThrows() {
+    try {
+      ButterKnife.inject(new PrivateField(), root);
+      fail();
+    } catch (ButterKnife.UnableToInjectException e) {
+      assertThat(e).hasMessage("Injected fields must not be private or static ("
+          + PrivateField.class.getName() + ".view).");
+    }
+  }
+
+  @Test public void classRetainedAnnotationsAreNotReflected() {
+    assertThat((Object) ButterKnife.getInjector(ClassRetained.class)).isSameAs(ButterKnife.NO_OP);
+  }
+
+  @Test public void disabledByDefault() {
+    ButterKnife.setReflection(false);
+    assertThat((Object) ButterKnife.getInjector(Parent.class)).isSameAs(ButterKnife.NO_OP);
+  }
+}
@@ -0,0 +1,97 @@
+package butterknife;
+
+import android.content.Context;
+import android.view.View;
+import android.widget.FrameLayout;
+import android.widget.LinearLayout;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class ViewIndexTest {
+  private Context context;
+  private LinearLayout root;
+  private FrameLayout container;
+  private View child;
+
+  @Before public void setUp() {
+    context = Robolectric.application;
+    root = new LinearLayout(context);
+    container = new FrameLayout(context);
+    container.setId(1);
+    root.addView(container);
+    child = new View(context);
+    child.setId(2);
+    container.addView(child);
+  }
+
+  @Test public void findsSameViewsAsFindViewById() {
+    ViewIndex index = ViewIndex.of(root);
+    assertThat(index.findById(1)).isSameAs(container);
+    assertThat(index.findById(2)).isSameAs(child);
+    assertThat(index.findById(3)).isNull();
+    assertThat(ButterKnife.Finder.INDEX.findById(index, 2)).isSameAs(child);
+  }
+
+  @Test public void firstViewWithDuplicateIdWins() {
+    View duplicate = new View(context);
+    duplicate.setId(2);
+    root.addView(duplicate);
+
+    ViewIndex index = ViewIndex.of(root);
+    assertThat(index.findById(2)).isSameAs(root.findViewById(2)).isSameAs(child);
+  }
+
+  @Test public void removedViewIsNotReturned() {
+    ViewIndex index = ViewIndex.of(root);
+    assertThat(index.findById(2)).isSameAs(child);
+
+    container.removeView(child);
+    assertThat(index.findById(2)).isNull();
+
+    View replacement = new View(context);
+    replacement.setId(2);
+    root.addView(replacement);
+    assertThat(index.findById(2)).isSameAs(replacement);
+  }
+
+  @Test public void missIsDefiniteUntilInvalidated() {
+    ViewIndex index = ViewIndex.of(root);
+    assertThat(index.findById(3)).isNull();
+
+    View added = new View(context);
+    added.setId(3);
+    container.addView(added);
+    assertThat(index.findById(3)).isNull();
+
+    index.invalidate();
+    assertThat(index.findById(3)).isSameAs(added);
+  }
+
+  @Test public void movedViewIsFound() {
+    ViewIndex index = ViewIndex.of(root);
+    assertThat(index.findById(2)).isSameAs(child);
+
+    container.removeView(child);
+    root.addView(child);
+    assertThat(index.findById(2)).isSameAs(child);
+  }
+
+  @Test public void invalidateReindexes() {
+    ViewIndex index = ViewIndex.of(root);
+    assertThat(index.findById(2)).isSameAs(child);
+
+    child.setId(4);
+    index.invalidate();
+    assertThat(index.findById(2)).isNull();
+    assertThat(index.findById(4)).isSameAs(child);
+    assertThat(index.findById(1)).isSameAs(container);
+  }
+}
@@ -0,0 +1,272 @@
+package butterknife.internal;
+
+import com.google.common.base.Joiner;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Test;
+
+import javax.tools.JavaFileObject;
+
+import static butterknife.internal.ProcessorTestUtilities.butterknifeProcessors;
+import static com.google.testing.compile.JavaSourceSubjectFactory.javaSource;
+import static org.truth0.Truth.ASSERT;
+
+public class BindValueTest {
+  @Test public void bindingValues() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import android.widget.TextView;",
+        "import butterknife.BindText;",
+        "import butterknife.BindVisibility;",
+        "import butterknife.InjectView;",
+        "import butterknife.Optional;",
+        "import java.util.List;",
+        "public class Test extends Activity {",
+        "  @InjectView(1) TextView title;",
+        "  @Optional @InjectView(2) View badge;",
+        "  @BindText(1) String title(List<String> item) { return null; }",
+        "  @BindVisibility(2) int badgeVisibility(List<String> item) { return View.GONE; }",
+        "  @BindVisibility(1) int titleVisibility(List<String> item) { return View.VISIBLE; }",
+        "}"
+    ));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/Test$$ViewInjector",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.text.TextUtils;",
+            "import android.view.View;",
+            "import butterknife.ButterKnife.Finder;",
+            "import butterknife.ButterKnife.Injector;",
+            "import butterknife.ButterKnife.Unbinder;",
+            "public class Test$$ViewInjector<T extends test.Test> extends Injector<T> {",
+            "  public static final Test$$ViewInjector<test.Test> INSTANCE = "
+                + "new Test$$ViewInjector<test.Test>();",
+            "  @Override public Unbinder inject(Finder finder, final T target, Object source) {",
+            "    View view;",
+            "    view = finder.findById(source, 1);",
+            "    if (view == null) {",
+            "      throw new IllegalStateException(\"Required view with id '1' for field 'title' was not found. If this view is optional add '@Optional' annotation.\");",
+            "    }",
+            "    target.title = (android.widget.TextView) view;",
+            "    view = finder.findById(source, 2);",
+            "    target.badge = view;",
+            "    return new Unbinder() {",
+            "      @Override public void unbind() {",
+            "        target.title = null;",
+            "        target.badge = null;",
+            "      }",
+            "    };",
+            "  }",
+            "  @Override public void inject(Finder finder, final T target, Object source, int[] ids) {",
+            "    View view;",
+            "    for (int id : ids) {",
+            "      if (id == 1) {",
+            "        view = finder.findById(source, 1);",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '1' for field 'title' was not found. If this view is optional add '@Optional' annotation.\");",
+            "        }",
+            "        target.title = (android.widget.TextView) view;",
+            "      } else if (id == 2) {",
+            "        view = finder.findById(source, 2);",
+            "        target.badge = view;",
+            "      }",
+            "    }",
+            "  }",
+            "  @Override public void reset(T target) {",
+            "    target.title = null;",
+            "    target.badge = null;",
+            "  }",
+            "  @SuppressWarnings(\"unchecked\")",
+            "  @Override public void bind(T target, Object model) {",
+            "    CharSequence text;",
+            "    int visibility;",
+            "    text = target.title((java.util.List) model);",
+            "    if (!TextUtils.equals(target.title.getText(), text)) {",
+            "      target.title.setText(text);",
+            "    }",
+            "    visibility = target.badgeVisibility((java.util.List) model);",
+            "    if (target.badge != null && target.badge.getVisibility() != visibility) {",
+            "      target.badge.setVisibility(visibility);",
+            "    }",
+            "    visibility = target.titleVisibility((java.util.List) model);",
+            "    if (target.title.getVisibility() != visibility) {",
+            "      target.title.setVisibility(visibility);",
+            "    }",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .processedWith(butterknifeProcessors())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+
+  @Test public void superclassValues() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.widget.TextView;",
+        "import butterknife.BindText;",
+        "import butterknife.InjectView;",
+        "public class Test extends Activity {",
+        "  @InjectView(1) TextView title;",
+        "  @BindText(1) CharSequence title(String item) { return item; }",
+        "}",
+        "class TestOne extends Test {",
+        "  @InjectView(2) TextView subtitle;",
+        "  @BindText(2) CharSequence subtitle(String item) { return item; }",
+        "}"
+    ));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/TestOne$$ViewInjector",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.text.TextUtils;",
+            "import android.view.View;",
+            "import butterknife.ButterKnife.Finder;",
+            "import butterknife.ButterKnife.Injector;",
+            "import butterknife.ButterKnife.Unbinder;",
+            "public class TestOne$$ViewInjector<T extends test.TestOne> extends test.Test$$ViewInjector<T> {",
+            "  public static final TestOne$$ViewInjector<test.TestOne> INSTANCE = "
+                + "new TestOne$$ViewInjector<test.TestOne>();",
+            "  @Override public Unbinder inject(Finder finder, final T target, Object source) {",
+            "    final Unbinder parentUnbinder = super.inject(finder, target, source);",
+            "    View view;",
+            "    view = finder.findById(source, 2);",
+            "    if (view == null) {",
+            "      throw new IllegalStateException(\"Required view with id '2' for field 'subtitle' was not found. If this view is optional add '@Optional' annotation.\");",
+            "    }",
+            "    target.subtitle = (android.widget.TextView) view;",
+            "    return new Unbinder() {",
+            "      @Override public void unbind() {",
+            "        parentUnbinder.unbind();",
+            "        target.subtitle = null;",
+            "      }",
+            "    };",
+            "  }",
+            "  @Override public void inject(Finder finder, final T target, Object source, int[] ids) {",
+            "    super.inject(finder, target, source, ids);",
+            "    View view;",
+            "    for (int id : ids) {",
+            "      if (id == 2) {",
+            "        view = finder.findById(source, 2);",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '2' for field 'subtitle' was not found. If this view is optional add '@Optional' annotation.\");",
+            "        }",
+            "        target.subtitle = (android.widget.TextView) view;",
+            "      }",
+            "    }",
+            "  }",
+            "  @Override public void reset(T target) {",
+            "    super.reset(target);",
+            "    target.subtitle = null;",
+            "  }",
+            "  @Override public void bind(T target, Object model) {",
+            "    super.bind(target, model);",
+            "    CharSequence text;",
+            "    text = target.subtitle((java.lang.String) model);",
+            "    if (!TextUtils.equals(target.subtitle.getText(), text)) {",
+            "      target.subtitle.setText(text);",
+            "    }",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .processedWith(butterknifeProcessors())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+
+  @Test public void failsWithoutInjectedField() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.widget.TextView;",
+        "import butterknife.BindText;",
+        "import butterknife.InjectView;",
+        "public class Test extends Activity {",
+        "  @InjectView(1) TextView title;",
+        "  @BindText(2) CharSequence subtitle(String item) { return item; }",
+        "}"
+    ));
+
+    ASSERT.about(javaSource()).that(source)
+        .processedWith(butterknifeProcessors())
+        .failsToCompile()
+        .withErrorContaining("@BindText method subtitle(java.lang.String) requires an "
+            + "@InjectView field with ID 2 in test.Test.")
+        .in(source).onLine(8);
+  }
+
+  @Test public void failsIfTextOfView() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import butterknife.BindText;",
+        "import butterknife.InjectView;",
+        "public class Test extends Activity {",
+        "  @InjectView(1) View title;",
+        "  @BindText(1) CharSequence title(String item) { return item; }",
+        "}"
+    ));
+
+    ASSERT.about(javaSource()).that(source)
+        .processedWith(butterknifeProcessors())
+        .failsToCompile()
+        .withErrorContaining(
+            "@BindText field title with ID 1 must extend from TextView (test.Test).")
+        .in(source).onLine(8);
+  }
+
+  @Test public void failsIfModelTypesDiffer() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import android.widget.TextView;",
+        "import butterknife.BindText;",
+        "import butterknife.BindVisibility;",
+        "import butterknife.InjectView;",
+        "public class Test extends Activity {",
+        "  @InjectView(1) TextView title;",
+        "  @BindText(1) CharSequence title(String item) { return item; }",
+        "  @BindVisibility(1) int visibility(Integer item) { return View.GONE; }",
+        "}"
+    ));
+
+    ASSERT.about(javaSource()).that(source)
+        .processedWith(butterknifeProcessors())
+        .failsToCompile()
+        .withErrorContaining("Value binding methods of test.Test must all take the same model "
+            + "type (java.lang.String, java.lang.Integer).")
+        .in(source).onLine(11);
+  }
+
+  @Test public void failsIfNotReturningVisibility() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import butterknife.BindVisibility;",
+        "import butterknife.InjectView;",
+        "public class Test extends Activity {",
+        "  @InjectView(1) View badge;",
+        "  @BindVisibility(1) boolean visible(String item) { return true; }",
+        "}"
+    ));
+
+    ASSERT.about(javaSource()).that(source)
+        .processedWith(butterknifeProcessors())
+        .failsToCompile()
+        .withErrorContaining("@BindVisibility methods must return int (test.Test.visible("
+            + "java.lang.String)).")
+        .in(source).onLine(8);
+  }
+}
@@ -0,0 +1,372 @@
+package butterknife.internal;
+
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.content.res.Resources;
+import android.graphics.drawable.Drawable;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Button;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+import butterknife.ButterKnife.Injector;
+import butterknife.ButterKnife.InjectorGroup;
+import butterknife.ButterKnife.Unbinder;
+import com.google.common.base.Joiner;
+import com.google.testing.compile.JavaFileObjects;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static butterknife.internal.ProcessorTestUtilities.butterknifeProcessors;
+import static org.fest.assertions.api.Assertions.assertThat;
+
+/**
+ * Injectors written as class files, or merged per package, must behave exactly like those
+ * compiled from source. Each test compiles the same targets both ways and compares what
+ * injecting, clicking, and resetting does to them.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class ClassFileEmissionTest {
+  private static final JavaFileObject BASE = JavaFileObjects.forSourceString("test.Base",
+      Joiner.on('\n').join(
+          "package test;",
+          "import android.view.View;",
+          "import android.widget.TextView;",
+          "import butterknife.InjectView;",
+          "import butterknife.OnClick;",
+          "public class Base {",
+          "  public final StringBuilder log = new StringBuilder();",
+          "  @InjectView(1) public TextView title;",
+          "  @InjectView(2) View header;",
+          "  @OnClick(2) void onHeader() {",
+          "    log.append(\"header;\");",
+          "  }",
+          "}"
+      ));
+  private static final JavaFileObject CHILD = JavaFileObjects.forSourceString("test.Child",
+      Joiner.on('\n').join(
+          "package test;",
+          "import android.content.res.ColorStateList;",
+          "import android.graphics.drawable.Drawable;",
+          "import android.view.View;",
+          "import android.widget.Button;",
+          "import android.widget.TextView;",
+          "import butterknife.InjectColor;",
+          "import butterknife.InjectDimen;",
+          "import butterknife.InjectDrawable;",
+          "import butterknife.InjectString;",
+          "import butterknife.InjectView;",
+          "import butterknife.OnClick;",
+          "import butterknife.Optional;",
+          "public class Child extends Base {",
+          "  @InjectView(1) TextView titleAgain;",
+          "  @Optional @InjectView(3) Button absent;",
+          "  @InjectView(4) Button button;",
+          "  @InjectView(4) View buttonView;",
+          "  @InjectString(android.R.string.ok) String ok;",
+          "  @InjectString(android.R.string.ok) String okAgain;",
+          "  @InjectDimen(android.R.dimen.app_icon_size) int iconSize;",
+          "  @InjectDimen(android.R.dimen.app_icon_size) float exactIconSize;",
+          "  @InjectColor(android.R.color.black) int black;",
+          "  @InjectColor(android.R.color.black) ColorStateList blacks;",
+          "  @InjectDrawable(android.R.drawable.ic_delete) Drawable delete;",
+          "  @OnClick(4) void onButton(Button button) {",
+          "    log.append(\"button \" + button.getId() + ';');",
+          "  }",
+          "  @Optional @OnClick({ 1, 5 }) void onTitle(View view) {",
+          "    log.append(\"title \" + view.getId() + ';');",
+          "  }",
+          "  @Optional @OnClick(6) void onMissing() {",
+          "    log.append(\"missing;\");",
+          "  }",
+          "  public static class Nested extends Child {",
+          "    @InjectView(2) View nestedHeader;",
+          "  }",
+          "}"
+      ));
+  private static final JavaFileObject REQUIRED = JavaFileObjects.forSourceString("test.Required",
+      Joiner.on('\n').join(
+          "package test;",
+          "import android.view.View;",
+          "import butterknife.InjectView;",
+          "import butterknife.OnClick;",
+          "public class Required {",
+          "  @InjectView(1) View present;",
+          "  @InjectView(7) View missing;",
+          "  @OnClick(7) void onMissing() {",
+          "  }",
+          "}"
+      ));
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Before public void setUp() {
+    // Have Robolectric load the listener interface before the compiled classes refer to it. They
+    // are defined by a child class loader which would otherwise see the uninstrumented version.
+    View.OnClickListener.class.getName();
+  }
+
+  @Test public void behavesLikeSource() throws Exception {
+    ClassLoader source = load(compile("butterknife.emit=source"));
+    ClassLoader classFiles = load(compile("butterknife.emit=class"));
+
+    for (String target : Arrays.asList("test.Base", "test.Child", "test.Child$Nested")) {
+      assertThat(exercise(classFiles, target)).isEqualTo(exercise(source, target));
+    }
+    assertThat(exercise(classFiles, "test.Required")).isEqualTo(exercise(source, "test.Required"))
+        .contains("Required view with id '7' for field 'missing' and method 'onMissing'");
+  }
+
+  @Test public void flattenedBehavesLikeSource() throws Exception {
+    ClassLoader source = load(compile("butterknife.flatten=true", "butterknife.emit=source"));
+    ClassLoader classFiles = load(compile("butterknife.flatten=true", "butterknife.emit=class"));
+
+    for (String target : Arrays.asList("test.Child", "test.Child$Nested")) {
+      assertThat(exercise(classFiles, target)).isEqualTo(exercise(source, target));
+    }
+  }
+
+  @Test public void uncheckedBehavesLikeSource() throws Exception {
+    ClassLoader source = load(compile("butterknife.checks=off", "butterknife.emit=source"));
+    ClassLoader classFiles = load(compile("butterknife.checks=off", "butterknife.emit=class"));
+
+    for (String target : Arrays.asList("test.Child", "test.Required")) {
+      assertThat(exercise(classFiles, target)).isEqualTo(exercise(source, target));
+    }
+  }
+
+  @Test public void mergedBehavesLikeSource() throws Exception {
+    ClassLoader source = load(compile("butterknife.emit=source"));
+    File mergedClasses = compile("butterknife.merge=true");
+    ClassLoader merged = load(mergedClasses);
+
+    for (String target : Arrays.asList("test.Base", "test.Child", "test.Child$Nested",
+        "test.Required")) {
+      assertThat(exercise(merged, target)).isEqualTo(exercise(source, target));
+    }
+    assertThat(new File(mergedClasses, "test").list()).contains("$$ViewInjectors.class")
+        .doesNotContain("Base$$ViewInjector.class", "Child$$ViewInjector.class");
+  }
+
+  @Test public void mergedInjectorsAreShared() throws Exception {
+    ClassLoader merged = load(compile("butterknife.merge=true"));
+    Class<?> targetClass = merged.loadClass("test.Child");
+    Class<?> groupClass = merged.loadClass("test." + InjectViewProcessor.MERGED_NAME);
+    InjectorGroup group = (InjectorGroup) groupClass.newInstance();
+    InjectorGroup otherGroup = (InjectorGroup) groupClass.newInstance();
+    assertThat(group.getInjector(targetClass)).isSameAs(otherGroup.getInjector(targetClass));
+  }
+
+  @Test public void resourceCacheIsPerResources() throws Exception {
+    final Resources resources = Robolectric.application.getResources();
+    final Resources other = new Resources(resources.getAssets(), resources.getDisplayMetrics(),
+        resources.getConfiguration()) {
+      @Override public String getString(int id) {
+        return "other";
+      }
+
+      @Override public Drawable getDrawable(int id) {
+        return resources.getDrawable(id);
+      }
+    };
+    Context otherContext = new ContextWrapper(Robolectric.application) {
+      @Override public Resources getResources() {
+        return other;
+      }
+    };
+
+    for (String emit : Arrays.asList("butterknife.emit=source", "butterknife.emit=class")) {
+      ClassLoader classLoader = load(compile(emit));
+      // The configurations are equal, but the resources are not.
+      assertThat(injectOk(classLoader, Robolectric.application)).isEqualTo("OK");
+      assertThat(injectOk(classLoader, otherContext)).isEqualTo("other");
+      assertThat(injectOk(classLoader, Robolectric.application)).isEqualTo("OK");
+    }
+  }
+
+  /** The string injected into a {@code test.Child} from views created with {@code context}. */
+  @SuppressWarnings("unchecked") // Injectors are used through their erased bridge methods.
+  private static Object injectOk(ClassLoader classLoader, Context context) throws Exception {
+    Class<?> targetClass = classLoader.loadClass("test.Child");
+    Object target = targetClass.newInstance();
+    Injector<Object> injector =
+        (Injector<Object>) classLoader.loadClass("test.Child" + InjectViewProcessor.SUFFIX)
+            .getField("INSTANCE")
+            .get(null);
+    injector.inject(target, createHierarchy(context));
+    Field ok = targetClass.getDeclaredField("ok");
+    ok.setAccessible(true);
+    return ok.get(target);
+  }
+
+  @Test public void unbinderDetachesListeners() throws Exception {
+    ClassLoader source = load(compile("butterknife.emit=source"));
+
+    // Described after injecting, clicking, resetting, and unbinding then clicking again.
+    String[] states = exercise(source, "test.Child").split("\n\n");
+    assertThat(states).hasSize(5);
+    assertThat(states[3]).contains("Child.button=null").contains("Base.title=null");
+    String clicked = logOf(states[1]);
+    assertThat(clicked).contains("button 4;");
+    assertThat(logOf(states[3])).isEqualTo(clicked);
+  }
+
+  @Test public void partialInjectionOnlyInjectsIds() throws Exception {
+    ClassLoader source = load(compile("butterknife.emit=source"));
+
+    // Described last after re-injecting IDs 2 and 4 into the unbound target and clicking.
+    String[] states = exercise(source, "test.Child").split("\n\n");
+    assertThat(states[4]).contains("Child.button=Button#4").contains("Base.header=View#2")
+        .contains("Base.title=null").contains("Child.titleAgain=null");
+    assertThat(logOf(states[4])).isEqualTo(logOf(states[3]) + "header;button 4;");
+  }
+
+  private static String logOf(String state) {
+    int start = state.indexOf("Base.log=");
+    return state.substring(start, state.indexOf('\n', start));
+  }
+
+  @Test public void noSourceIsGenerated() throws Exception {
+    File classes = compile("butterknife.emit=class");
+
+    File generated = new File(classes.getParentFile(), classes.getName() + "-generated");
+    assertThat(generated.list()).isEmpty();
+    assertThat(new File(classes, "test").list()).contains("Base$$ViewInjector.class",
+        "Base$$ViewInjector$1.class", "Child$$ViewInjector.class",
+        "Child$Nested$$ViewInjector.class");
+  }
+
+  /** Compile the test sources with the processor options and return the output directory. */
+  private File compile(String... options) throws Exception {
+    File classes = temporaryFolder.newFolder(Joiner.on(',').join(options));
+    File generated = temporaryFolder.newFolder(classes.getName() + "-generated");
+
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
+    List<String> arguments = Arrays.asList(
+        "-classpath", System.getProperty("java.class.path"),
+        "-d", classes.getPath(),
+        "-s", generated.getPath());
+    JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, arguments,
+        null, Arrays.asList(BASE, CHILD, REQUIRED));
+    task.setProcessors(butterknifeProcessors(options));
+    assertThat(task.call()).isTrue();
+    fileManager.close();
+    return classes;
+  }
+
+  private ClassLoader load(File classes) throws Exception {
+    return new URLClassLoader(new URL[] { classes.toURI().toURL() },
+        getClass().getClassLoader());
+  }
+
+  /**
+   * Inject, click, reset, unbind, and re-inject some IDs of an instance of {@code targetName} and
+   * describe what happened.
+   */
+  @SuppressWarnings("unchecked") // Injectors are used through their erased bridge methods.
+  private static String exercise(ClassLoader classLoader, String targetName) throws Exception {
+    Class<?> targetClass = classLoader.loadClass(targetName);
+    Object target = targetClass.newInstance();
+    Injector<Object> injector;
+    try {
+      injector = (Injector<Object>) classLoader.loadClass(targetName + InjectViewProcessor.SUFFIX)
+          .getField("INSTANCE")
+          .get(null);
+    } catch (ClassNotFoundException e) {
+      String mergedName = targetClass.getPackage().getName() + "." + InjectViewProcessor.MERGED_NAME;
+      injector = ((InjectorGroup) classLoader.loadClass(mergedName).newInstance())
+          .getInjector(targetClass);
+    }
+    ViewGroup root = createHierarchy(Robolectric.application);
+
+    StringBuilder description = new StringBuilder();
+    try {
+      injector.inject(target, root);
+    } catch (RuntimeException e) {
+      return description.append(e).toString();
+    }
+    describe(description, target);
+    clickAll(root);
+    describe(description, target);
+    injector.reset(target);
+    describe(description, target);
+
+    Unbinder unbinder = injector.inject(target, root);
+    unbinder.unbind();
+    clickAll(root);
+    describe(description, target);
+
+    injector.inject(target, root, 2, 4, 99);
+    clickAll(root);
+    describe(description, target);
+    return description.toString();
+  }
+
+  private static void clickAll(ViewGroup root) {
+    for (int i = 0; i < root.getChildCount(); i++) {
+      root.getChildAt(i).performClick();
+    }
+  }
+
+  private static ViewGroup createHierarchy(Context context) {
+    LinearLayout root = new LinearLayout(context);
+    TextView title = new TextView(context);
+    title.setId(1);
+    root.addView(title);
+    View header = new View(context);
+    header.setId(2);
+    root.addView(header);
+    Button button = new Button(context);
+    button.setId(4);
+    root.addView(button);
+    return root;
+  }
+
+  private static void describe(StringBuilder description, Object target) throws Exception {
+    for (Class<?> type = target.getClass(); type != Object.class; type = type.getSuperclass()) {
+      for (Field field : type.getDeclaredFields()) {
+        if (Modifier.isStatic(field.getModifiers())) {
+          continue;
+        }
+        field.setAccessible(true);
+        Object value = field.get(target);
+        description.append(type.getSimpleName()).append('.').append(field.getName()).append('=');
+        if (value instanceof View) {
+          description.append(value.getClass().getSimpleName())
+              .append('#')
+              .append(((View) value).getId());
+        } else if (value != null && !(value instanceof CharSequence)
+            && !(value instanceof Number)) {
+          // Resource objects are compared by type since they are not shared.
+          description.append(value.getClass().getSimpleName());
+        } else {
+          description.append(value);
+        }
+        description.append('\n');
+      }
+    }
+    description.append('\n');
+  }
+}
@@ -0,0 +1,189 @@
+package butterknife.internal;
+
+import com.google.common.base.Joiner;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Test;
+
+import javax.tools.JavaFileObject;
+
+import static butterknife.internal.ProcessorTestUtilities.butterknifeProcessors;
+import static com.google.testing.compile.JavaSourceSubjectFactory.javaSource;
+import static org.truth0.Truth.ASSERT;
+
+public class InjectResourceTest {
+  @Test public void injectingResources() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.content.res.ColorStateList;",
+        "import android.graphics.drawable.Drawable;",
+        "import butterknife.InjectColor;",
+        "import butterknife.InjectDimen;",
+        "import butterknife.InjectDrawable;",
+        "import butterknife.InjectString;",
+        "public class Test extends Activity {",
+        "  @InjectString(1) String title;",
+        "  @InjectString(1) String otherTitle;",
+        "  @InjectDimen(2) int padding;",
+        "  @InjectDimen(2) float exactPadding;",
+        "  @InjectColor(3) int color;",
+        "  @InjectColor(4) ColorStateList colors;",
+        "  @InjectDrawable(5) Drawable icon;",
+        "}"
+    ));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/Test$$ViewInjector",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.content.res.Configuration;",
+            "import android.content.res.Resources;",
+            "import android.view.View;",
+            "import butterknife.ButterKnife.Finder;",
+            "import butterknife.ButterKnife.Injector;",
+            "import butterknife.ButterKnife.Unbinder;",
+            "import java.lang.ref.WeakReference;",
+            "public class Test$$ViewInjector<T extends test.Test> extends Injector<T> {",
+            "  private static WeakReference<Resources> cachedResources;",
+            "  private static Configuration cachedConfiguration;",
+            "  private static java.lang.String cachedString1;",
+            "  private static int cachedDimensionPixelSize2;",
+            "  private static float cachedDimension2;",
+            "  private static int cachedColor3;",
+            "  private static android.content.res.ColorStateList cachedColorStateList4;",
+            "  public static final Test$$ViewInjector<test.Test> INSTANCE = "
+                + "new Test$$ViewInjector<test.Test>();",
+            "  @Override public Unbinder inject(Finder finder, final T target, Object source) {",
+            "    Resources res = finder.getContext(source).getResources();",
+            "    if (cachedResources == null || cachedResources.get() != res",
+            "        || !cachedConfiguration.equals(res.getConfiguration())) {",
+            "      cachedString1 = res.getString(1);",
+            "      cachedDimensionPixelSize2 = res.getDimensionPixelSize(2);",
+            "      cachedDimension2 = res.getDimension(2);",
+            "      cachedColor3 = res.getColor(3);",
+            "      cachedColorStateList4 = res.getColorStateList(4);",
+            "      cachedConfiguration = new Configuration(res.getConfiguration());",
+            "      cachedResources = new WeakReference<Resources>(res);",
+            "    }",
+            "    target.title = cachedString1;",
+            "    target.otherTitle = cachedString1;",
+            "    target.padding = cachedDimensionPixelSize2;",
+            "    target.exactPadding = cachedDimension2;",
+            "    target.color = cachedColor3;",
+            "    target.colors = cachedColorStateList4;",
+            "    target.icon = res.getDrawable(5);",
+            "    return Unbinder.EMPTY;",
+            "  }",
+            "  @Override public void inject(Finder finder, final T target, Object source, int[] ids) {",
+            "  }",
+            "  @Override public void reset(T target) {",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .processedWith(butterknifeProcessors())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+
+  @Test public void resourcesAfterViews() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import butterknife.InjectDrawable;",
+        "import butterknife.InjectView;",
+        "public class Test extends Activity {",
+        "  @InjectView(1) View thing;",
+        "  @InjectDrawable(2) android.graphics.drawable.Drawable icon;",
+        "}"
+    ));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/Test$$ViewInjector",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.content.res.Resources;",
+            "import android.view.View;",
+            "import butterknife.ButterKnife.Finder;",
+            "import butterknife.ButterKnife.Injector;",
+            "import butterknife.ButterKnife.Unbinder;",
+            "public class Test$$ViewInjector<T extends test.Test> extends Injector<T> {",
+            "  public static final Test$$ViewInjector<test.Test> INSTANCE = "
+                + "new Test$$ViewInjector<test.Test>();",
+            "  @Override public Unbinder inject(Finder finder, final T target, Object source) {",
+            "    View view;",
+            "    view = finder.findById(source, 1);",
+            "    if (view == null) {",
+            "      throw new IllegalStateException(\"Required view with id '1' for field 'thing' was not found. If this view is optional add '@Optional' annotation.\");",
+            "    }",
+            "    target.thing = view;",
+            "    Resources res = finder.getContext(source).getResources();",
+            "    target.icon = res.getDrawable(2);",
+            "    return new Unbinder() {",
+            "      @Override public void unbind() {",
+            "        target.thing = null;",
+            "      }",
+            "    };",
+            "  }",
+            "  @Override public void inject(Finder finder, final T target, Object source, int[] ids) {",
+            "    View view;",
+            "    for (int id : ids) {",
+            "      if (id == 1) {",
+            "        view = finder.findById(source, 1);",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '1' for field 'thing' was not found. If this view is optional add '@Optional' annotation.\");",
+            "        }",
+            "        target.thing = view;",
+            "      }",
+            "    }",
+            "  }",
+            "  @Override public void reset(T target) {",
+            "    target.thing = null;",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .processedWith(butterknifeProcessors())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+
+  @Test public void failsIfUnsupportedType() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import butterknife.InjectDimen;",
+        "public class Test extends Activity {",
+        "  @InjectDimen(1) String padding;",
+        "}"
+    ));
+
+    ASSERT.about(javaSource()).that(source)
+        .processedWith(butterknifeProcessors())
+        .failsToCompile()
+        .withErrorContaining(
+            "@InjectDimen field type is not supported: java.lang.String (test.Test.padding).")
+        .in(source).onLine(5);
+  }
+
+  @Test public void failsIfPrivate() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import butterknife.InjectString;",
+        "public class Test extends Activity {",
+        "  @InjectString(1) private String title;",
+        "}"
+    ));
+
+    ASSERT.about(javaSource()).that(source)
+        .processedWith(butterknifeProcessors())
+        .failsToCompile()
+        .withErrorContaining("@InjectString fields must not be private or static (test.Test.title).")
+        .in(source).onLine(5);
+  }
+}
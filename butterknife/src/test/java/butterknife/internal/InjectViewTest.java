@@ -3,12 +3,15 @@ package butterknife.internal;
 import com.google.common.base.Joiner;
 import com.google.testing.compile.JavaFileObjects;
 
+import java.util.Arrays;
+
 import org.junit.Test;
 
 import javax.tools.JavaFileObject;
 
 import static butterknife.internal.ProcessorTestUtilities.butterknifeProcessors;
 import static com.google.testing.compile.JavaSourceSubjectFactory.javaSource;
+import static com.google.testing.compile.JavaSourcesSubjectFactory.javaSources;
 import static org.truth0.Truth.ASSERT;
 
 public class InjectViewTest {
@@ -28,16 +31,37 @@ public class InjectViewTest {
             "package test;",
             "import android.view.View;",
             "import butterknife.ButterKnife.Finder;",
-            "public class Test$$ViewInjector {",
-            "  public static void inject(Finder finder, final test.Test target, Object source) {",
+            "import butterknife.ButterKnife.Injector;",
+            "import butterknife.ButterKnife.Unbinder;",
+            "public class Test$$ViewInjector<T extends test.Test> extends Injector<T> {",
+            "  public static final Test$$ViewInjector<test.Test> INSTANCE = "
+                + "new Test$$ViewInjector<test.Test>();",
+            "  @Override public Unbinder inject(Finder finder, final T target, Object source) {",
             "    View view;",
             "    view = finder.findById(source, 1);",
             "    if (view == null) {",
             "      throw new IllegalStateException(\"Required view with id '1' for field 'thing' was not found. If this view is optional add '@Optional' annotation.\");",
             "    }",
             "    target.thing = view;",
+            "    return new Unbinder() {",
+            "      @Override public void unbind() {",
+            "        target.thing = null;",
+            "      }",
+            "    };",
+            "  }",
+            "  @Override public void inject(Finder finder, final T target, Object source, int[] ids) {",
+            "    View view;",
+            "    for (int id : ids) {",
+            "      if (id == 1) {",
+            "        view = finder.findById(source, 1);",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '1' for field 'thing' was not found. If this view is optional add '@Optional' annotation.\");",
+            "        }",
+            "        target.thing = view;",
+            "      }",
+            "    }",
             "  }",
-            "  public static void reset(test.Test target) {",
+            "  @Override public void reset(T target) {",
             "    target.thing = null;",
             "  }",
             "}"
@@ -68,8 +92,12 @@ public class InjectViewTest {
             "package test;",
             "import android.view.View;",
             "import butterknife.ButterKnife.Finder;",
-            "public class Test$$ViewInjector {",
-            "  public static void inject(Finder finder, final test.Test target, Object source) {",
+            "import butterknife.ButterKnife.Injector;",
+            "import butterknife.ButterKnife.Unbinder;",
+            "public class Test$$ViewInjector<T extends test.Test> extends Injector<T> {",
+            "  public static final Test$$ViewInjector<test.Test> INSTANCE = "
+                + "new Test$$ViewInjector<test.Test>();",
+            "  @Override public Unbinder inject(Finder finder, final T target, Object source) {",
             "    View view;",
             "    view = finder.findById(source, 1);",
             "    if (view == null) {",
@@ -78,8 +106,29 @@ public class InjectViewTest {
             "    target.thing1 = view;",
             "    target.thing2 = view;",
             "    target.thing3 = view;",
+            "    return new Unbinder() {",
+            "      @Override public void unbind() {",
+            "        target.thing1 = null;",
+            "        target.thing2 = null;",
+            "        target.thing3 = null;",
+            "      }",
+            "    };",
             "  }",
-            "  public static void reset(test.Test target) {",
+            "  @Override public void inject(Finder finder, final T target, Object source, int[] ids) {",
+            "    View view;",
+            "    for (int id : ids) {",
+            "      if (id == 1) {",
+            "        view = finder.findById(source, 1);",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '1' for field 'thing1', field 'thing2', and field 'thing3' was not found. If this view is optional add '@Optional' annotation.\");",
+            "        }",
+            "        target.thing1 = view;",
+            "        target.thing2 = view;",
+            "        target.thing3 = view;",
+            "      }",
+            "    }",
+            "  }",
+            "  @Override public void reset(T target) {",
             "    target.thing1 = null;",
             "    target.thing2 = null;",
             "    target.thing3 = null;",
@@ -129,13 +178,85 @@ public class InjectViewTest {
             "package test;",
             "import android.view.View;",
             "import butterknife.ButterKnife.Finder;",
-            "public class Test$$ViewInjector {",
-            "  public static void inject(Finder finder, final test.Test target, Object source) {",
+            "import butterknife.ButterKnife.Injector;",
+            "import butterknife.ButterKnife.Unbinder;",
+            "public class Test$$ViewInjector<T extends test.Test> extends Injector<T> {",
+            "  public static final Test$$ViewInjector<test.Test> INSTANCE = "
+                + "new Test$$ViewInjector<test.Test>();",
+            "  @Override public Unbinder inject(Finder finder, final T target, Object source) {",
             "    View view;",
             "    view = finder.findById(source, 1);",
             "    target.view = view;",
+            "    return new Unbinder() {",
+            "      @Override public void unbind() {",
+            "        target.view = null;",
+            "      }",
+            "    };",
+            "  }",
+            "  @Override public void inject(Finder finder, final T target, Object source, int[] ids) {",
+            "    View view;",
+            "    for (int id : ids) {",
+            "      if (id == 1) {",
+            "        view = finder.findById(source, 1);",
+            "        target.view = view;",
+            "      }",
+            "    }",
+            "  }",
+            "  @Override public void reset(T target) {",
+            "    target.view = null;",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .processedWith(butterknifeProcessors())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+
+  @Test public void runtimeRetainedVariants() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import butterknife.reflect.InjectView;",
+        "import butterknife.reflect.Optional;",
+        "public class Test extends Activity {",
+        "  @Optional @InjectView(1) View view;",
+        "}"
+    ));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/Test$$ViewInjector",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import butterknife.ButterKnife.Finder;",
+            "import butterknife.ButterKnife.Injector;",
+            "import butterknife.ButterKnife.Unbinder;",
+            "public class Test$$ViewInjector<T extends test.Test> extends Injector<T> {",
+            "  public static final Test$$ViewInjector<test.Test> INSTANCE = "
+                + "new Test$$ViewInjector<test.Test>();",
+            "  @Override public Unbinder inject(Finder finder, final T target, Object source) {",
+            "    View view;",
+            "    view = finder.findById(source, 1);",
+            "    target.view = view;",
+            "    return new Unbinder() {",
+            "      @Override public void unbind() {",
+            "        target.view = null;",
+            "      }",
+            "    };",
+            "  }",
+            "  @Override public void inject(Finder finder, final T target, Object source, int[] ids) {",
+            "    View view;",
+            "    for (int id : ids) {",
+            "      if (id == 1) {",
+            "        view = finder.findById(source, 1);",
+            "        target.view = view;",
+            "      }",
+            "    }",
             "  }",
-            "  public static void reset(test.Test target) {",
+            "  @Override public void reset(T target) {",
             "    target.view = null;",
             "  }",
             "}"
@@ -170,16 +291,37 @@ public class InjectViewTest {
             "package test;",
             "import android.view.View;",
             "import butterknife.ButterKnife.Finder;",
-            "public class Test$$ViewInjector {",
-            "  public static void inject(Finder finder, final test.Test target, Object source) {",
+            "import butterknife.ButterKnife.Injector;",
+            "import butterknife.ButterKnife.Unbinder;",
+            "public class Test$$ViewInjector<T extends test.Test> extends Injector<T> {",
+            "  public static final Test$$ViewInjector<test.Test> INSTANCE = "
+                + "new Test$$ViewInjector<test.Test>();",
+            "  @Override public Unbinder inject(Finder finder, final T target, Object source) {",
             "    View view;",
             "    view = finder.findById(source, 1);",
             "    if (view == null) {",
             "      throw new IllegalStateException(\"Required view with id '1' for field 'view' was not found. If this view is optional add '@Optional' annotation.\");",
             "    }",
             "    target.view = view;",
+            "    return new Unbinder() {",
+            "      @Override public void unbind() {",
+            "        target.view = null;",
+            "      }",
+            "    };",
             "  }",
-            "  public static void reset(test.Test target) {",
+            "  @Override public void inject(Finder finder, final T target, Object source, int[] ids) {",
+            "    View view;",
+            "    for (int id : ids) {",
+            "      if (id == 1) {",
+            "        view = finder.findById(source, 1);",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '1' for field 'view' was not found. If this view is optional add '@Optional' annotation.\");",
+            "        }",
+            "        target.view = view;",
+            "      }",
+            "    }",
+            "  }",
+            "  @Override public void reset(T target) {",
             "    target.view = null;",
             "  }",
             "}"
@@ -190,18 +332,41 @@ public class InjectViewTest {
             "package test;",
             "import android.view.View;",
             "import butterknife.ButterKnife.Finder;",
-            "public class TestOne$$ViewInjector {",
-            "  public static void inject(Finder finder, final test.TestOne target, Object source) {",
-            "    test.Test$$ViewInjector.inject(finder, target, source);",
+            "import butterknife.ButterKnife.Injector;",
+            "import butterknife.ButterKnife.Unbinder;",
+            "public class TestOne$$ViewInjector<T extends test.TestOne> extends test.Test$$ViewInjector<T> {",
+            "  public static final TestOne$$ViewInjector<test.TestOne> INSTANCE = "
+                + "new TestOne$$ViewInjector<test.TestOne>();",
+            "  @Override public Unbinder inject(Finder finder, final T target, Object source) {",
+            "    final Unbinder parentUnbinder = super.inject(finder, target, source);",
             "    View view;",
-            "    view = finder.findById(source, 1);",
+            "    view = ((test.Test) target).view;",
             "    if (view == null) {",
             "      throw new IllegalStateException(\"Required view with id '1' for field 'thing' was not found. If this view is optional add '@Optional' annotation.\");",
             "    }",
             "    target.thing = view;",
+            "    return new Unbinder() {",
+            "      @Override public void unbind() {",
+            "        parentUnbinder.unbind();",
+            "        target.thing = null;",
+            "      }",
+            "    };",
             "  }",
-            "  public static void reset(test.TestOne target) {",
-            "    test.Test$$ViewInjector.reset(target);",
+            "  @Override public void inject(Finder finder, final T target, Object source, int[] ids) {",
+            "    super.inject(finder, target, source, ids);",
+            "    View view;",
+            "    for (int id : ids) {",
+            "      if (id == 1) {",
+            "        view = ((test.Test) target).view;",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '1' for field 'thing' was not found. If this view is optional add '@Optional' annotation.\");",
+            "        }",
+            "        target.thing = view;",
+            "      }",
+            "    }",
+            "  }",
+            "  @Override public void reset(T target) {",
+            "    super.reset(target);",
             "    target.thing = null;",
             "  }",
             "}"
@@ -236,16 +401,37 @@ public class InjectViewTest {
             "package test;",
             "import android.view.View;",
             "import butterknife.ButterKnife.Finder;",
-            "public class Test$$ViewInjector {",
-            "  public static void inject(Finder finder, final test.Test target, Object source) {",
+            "import butterknife.ButterKnife.Injector;",
+            "import butterknife.ButterKnife.Unbinder;",
+            "public class Test$$ViewInjector<T extends test.Test> extends Injector<T> {",
+            "  public static final Test$$ViewInjector<test.Test> INSTANCE = "
+                + "new Test$$ViewInjector<test.Test>();",
+            "  @Override public Unbinder inject(Finder finder, final T target, Object source) {",
             "    View view;",
             "    view = finder.findById(source, 1);",
             "    if (view == null) {",
             "      throw new IllegalStateException(\"Required view with id '1' for field 'view' was not found. If this view is optional add '@Optional' annotation.\");",
             "    }",
             "    target.view = view;",
+            "    return new Unbinder() {",
+            "      @Override public void unbind() {",
+            "        target.view = null;",
+            "      }",
+            "    };",
             "  }",
-            "  public static void reset(test.Test target) {",
+            "  @Override public void inject(Finder finder, final T target, Object source, int[] ids) {",
+            "    View view;",
+            "    for (int id : ids) {",
+            "      if (id == 1) {",
+            "        view = finder.findById(source, 1);",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '1' for field 'view' was not found. If this view is optional add '@Optional' annotation.\");",
+            "        }",
+            "        target.view = view;",
+            "      }",
+            "    }",
+            "  }",
+            "  @Override public void reset(T target) {",
             "    target.view = null;",
             "  }",
             "}"
@@ -256,18 +442,41 @@ public class InjectViewTest {
             "package test;",
             "import android.view.View;",
             "import butterknife.ButterKnife.Finder;",
-            "public class TestOne$$ViewInjector {",
-            "  public static void inject(Finder finder, final test.TestOne target, Object source) {",
-            "    test.Test$$ViewInjector.inject(finder, target, source);",
+            "import butterknife.ButterKnife.Injector;",
+            "import butterknife.ButterKnife.Unbinder;",
+            "public class TestOne$$ViewInjector<T extends test.TestOne> extends test.Test$$ViewInjector<T> {",
+            "  public static final TestOne$$ViewInjector<test.TestOne> INSTANCE = "
+                + "new TestOne$$ViewInjector<test.TestOne>();",
+            "  @Override public Unbinder inject(Finder finder, final T target, Object source) {",
+            "    final Unbinder parentUnbinder = super.inject(finder, target, source);",
             "    View view;",
-            "    view = finder.findById(source, 1);",
+            "    view = ((test.Test) target).view;",
             "    if (view == null) {",
             "      throw new IllegalStateException(\"Required view with id '1' for field 'thing' was not found. If this view is optional add '@Optional' annotation.\");",
             "    }",
             "    target.thing = view;",
+            "    return new Unbinder() {",
+            "      @Override public void unbind() {",
+            "        parentUnbinder.unbind();",
+            "        target.thing = null;",
+            "      }",
+            "    };",
             "  }",
-            "  public static void reset(test.TestOne target) {",
-            "    test.Test$$ViewInjector.reset(target);",
+            "  @Override public void inject(Finder finder, final T target, Object source, int[] ids) {",
+            "    super.inject(finder, target, source, ids);",
+            "    View view;",
+            "    for (int id : ids) {",
+            "      if (id == 1) {",
+            "        view = ((test.Test) target).view;",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '1' for field 'thing' was not found. If this view is optional add '@Optional' annotation.\");",
+            "        }",
+            "        target.thing = view;",
+            "      }",
+            "    }",
+            "  }",
+            "  @Override public void reset(T target) {",
+            "    super.reset(target);",
             "    target.thing = null;",
             "  }",
             "}"
@@ -280,6 +489,199 @@ public class InjectViewTest {
         .generatesSources(expectedSource1, expectedSource2);
   }
 
+  @Test public void superclassInOtherPackage() {
+    JavaFileObject source1 = JavaFileObjects.forSourceString("base.Base", Joiner.on('\n').join(
+        "package base;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import butterknife.InjectView;",
+        "public class Base extends Activity {",
+        "  @InjectView(1) public View publicView;",
+        "  @InjectView(2) View packageView;",
+        "}"
+    ));
+    JavaFileObject source2 = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.view.View;",
+        "import butterknife.InjectView;",
+        "public class Test extends base.Base {",
+        "  @InjectView(1) View thing1;",
+        "  @InjectView(2) View thing2;",
+        "}"
+    ));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/Test$$ViewInjector",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import butterknife.ButterKnife.Finder;",
+            "import butterknife.ButterKnife.Injector;",
+            "import butterknife.ButterKnife.Unbinder;",
+            "public class Test$$ViewInjector<T extends test.Test> extends base.Base$$ViewInjector<T> {",
+            "  public static final Test$$ViewInjector<test.Test> INSTANCE = "
+                + "new Test$$ViewInjector<test.Test>();",
+            "  @Override public Unbinder inject(Finder finder, final T target, Object source) {",
+            "    final Unbinder parentUnbinder = super.inject(finder, target, source);",
+            "    View view;",
+            "    view = ((base.Base) target).publicView;",
+            "    if (view == null) {",
+            "      throw new IllegalStateException(\"Required view with id '1' for field 'thing1' was not found. If this view is optional add '@Optional' annotation.\");",
+            "    }",
+            "    target.thing1 = view;",
+            "    view = finder.findById(source, 2);",
+            "    if (view == null) {",
+            "      throw new IllegalStateException(\"Required view with id '2' for field 'thing2' was not found. If this view is optional add '@Optional' annotation.\");",
+            "    }",
+            "    target.thing2 = view;",
+            "    return new Unbinder() {",
+            "      @Override public void unbind() {",
+            "        parentUnbinder.unbind();",
+            "        target.thing1 = null;",
+            "        target.thing2 = null;",
+            "      }",
+            "    };",
+            "  }",
+            "  @Override public void inject(Finder finder, final T target, Object source, int[] ids) {",
+            "    super.inject(finder, target, source, ids);",
+            "    View view;",
+            "    for (int id : ids) {",
+            "      if (id == 1) {",
+            "        view = ((base.Base) target).publicView;",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '1' for field 'thing1' was not found. If this view is optional add '@Optional' annotation.\");",
+            "        }",
+            "        target.thing1 = view;",
+            "      } else if (id == 2) {",
+            "        view = finder.findById(source, 2);",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '2' for field 'thing2' was not found. If this view is optional add '@Optional' annotation.\");",
+            "        }",
+            "        target.thing2 = view;",
+            "      }",
+            "    }",
+            "  }",
+            "  @Override public void reset(T target) {",
+            "    super.reset(target);",
+            "    target.thing1 = null;",
+            "    target.thing2 = null;",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSources()).that(Arrays.asList(source1, source2))
+        .processedWith(butterknifeProcessors())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+
+  @Test public void flattenedSuperclasses() {
+    JavaFileObject source1 = JavaFileObjects.forSourceString("base.Base", Joiner.on('\n').join(
+        "package base;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import butterknife.InjectView;",
+        "public class Base extends Activity {",
+        "  @InjectView(1) View base;",
+        "}"
+    ));
+    JavaFileObject source2 = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.view.View;",
+        "import butterknife.InjectView;",
+        "import butterknife.OnClick;",
+        "public class Test extends base.Base {",
+        "  @InjectView(2) View thing;",
+        "  @OnClick(2) void parentClick() {}",
+        "}",
+        "class TestOne extends Test {",
+        "  @InjectView(2) View thing;",
+        "  @InjectView(3) View other;",
+        "  @OnClick(2) void childClick() {}",
+        "}"
+    ));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/TestOne$$ViewInjector",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import butterknife.ButterKnife.Finder;",
+            "import butterknife.ButterKnife.Injector;",
+            "import butterknife.ButterKnife.Unbinder;",
+            "public class TestOne$$ViewInjector<T extends test.TestOne> extends base.Base$$ViewInjector<T> {",
+            "  public static final TestOne$$ViewInjector<test.TestOne> INSTANCE = "
+                + "new TestOne$$ViewInjector<test.TestOne>();",
+            "  @Override public Unbinder inject(Finder finder, final T target, Object source) {",
+            "    final Unbinder parentUnbinder = super.inject(finder, target, source);",
+            "    View view;",
+            "    view = finder.findById(source, 2);",
+            "    if (view == null) {",
+            "      throw new IllegalStateException(\"Required view with id '2' for field 'thing', field 'thing', and method 'childClick' was not found. If this view is optional add '@Optional' annotation.\");",
+            "    }",
+            "    ((test.Test) target).thing = view;",
+            "    target.thing = view;",
+            "    view.setOnClickListener(new View.OnClickListener() {",
+            "      @Override public void onClick(View view) {",
+            "        target.childClick();",
+            "      }",
+            "    });",
+            "    final View listenerView1 = view;",
+            "    view = finder.findById(source, 3);",
+            "    if (view == null) {",
+            "      throw new IllegalStateException(\"Required view with id '3' for field 'other' was not found. If this view is optional add '@Optional' annotation.\");",
+            "    }",
+            "    target.other = view;",
+            "    return new Unbinder() {",
+            "      @Override public void unbind() {",
+            "        parentUnbinder.unbind();",
+            "        ((test.Test) target).thing = null;",
+            "        target.thing = null;",
+            "        target.other = null;",
+            "        listenerView1.setOnClickListener(null);",
+            "      }",
+            "    };",
+            "  }",
+            "  @Override public void inject(Finder finder, final T target, Object source, int[] ids) {",
+            "    super.inject(finder, target, source, ids);",
+            "    View view;",
+            "    for (int id : ids) {",
+            "      if (id == 2) {",
+            "        view = finder.findById(source, 2);",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '2' for field 'thing', field 'thing', and method 'childClick' was not found. If this view is optional add '@Optional' annotation.\");",
+            "        }",
+            "        ((test.Test) target).thing = view;",
+            "        target.thing = view;",
+            "        view.setOnClickListener(new View.OnClickListener() {",
+            "          @Override public void onClick(View view) {",
+            "            target.childClick();",
+            "          }",
+            "        });",
+            "      } else if (id == 3) {",
+            "        view = finder.findById(source, 3);",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '3' for field 'other' was not found. If this view is optional add '@Optional' annotation.\");",
+            "        }",
+            "        target.other = view;",
+            "      }",
+            "    }",
+            "  }",
+            "  @Override public void reset(T target) {",
+            "    super.reset(target);",
+            "    ((test.Test) target).thing = null;",
+            "    target.thing = null;",
+            "    target.other = null;",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSources()).that(Arrays.asList(source1, source2))
+        .processedWith(butterknifeProcessors("butterknife.flatten=true"))
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+
   @Test public void failsIfInPrivateClass() {
     JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
         "package test;",
@@ -379,4 +781,447 @@ public class InjectViewTest {
                 "test.Test.thing"))
         .in(source).onLine(6);
   }
+
+  @Test public void plan() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import android.widget.Button;",
+        "import butterknife.InjectView;",
+        "import butterknife.OnClick;",
+        "import butterknife.Optional;",
+        "public class Test extends Activity {",
+        "  @InjectView(1) Button button;",
+        "  @OnClick(1) void doStuff(Button button) {}",
+        "}",
+        "class TestOne extends Test {",
+        "  @Optional @InjectView(2) View thing;",
+        "  @Optional @OnClick(3) void doOtherStuff() {}",
+        "}"
+    ));
+
+    JavaFileObject expectedSource1 = JavaFileObjects.forSourceString("test/Test$$ViewInjector",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import butterknife.PlanInjector;",
+            "public class Test$$ViewInjector<T extends test.Test> extends PlanInjector<T> {",
+            "  private static final int[] PLAN = {",
+            "      1, FIELDS | LISTENER | REQUIRED",
+            "  };",
+            "  private static final String[] MESSAGES = {",
+            "      \"Required view with id '1' for field 'button' and method 'doStuff' was not "
+                + "found. If this view is optional add '@Optional' annotation.\"",
+            "  };",
+            "  public static final Test$$ViewInjector<test.Test> INSTANCE = "
+                + "new Test$$ViewInjector<test.Test>();",
+            "  public Test$$ViewInjector() {",
+            "    super(PLAN, MESSAGES, null);",
+            "  }",
+            "  @Override protected void bind(T target, int row, View view) {",
+            "    switch (row) {",
+            "      case 0:",
+            "        target.button = (android.widget.Button) view;",
+            "        return;",
+            "    }",
+            "  }",
+            "  @Override protected void click(T target, int row, View view) {",
+            "    switch (row) {",
+            "      case 0:",
+            "        target.doStuff((android.widget.Button) view);",
+            "        return;",
+            "    }",
+            "  }",
+            "}"
+        ));
+
+    JavaFileObject expectedSource2 = JavaFileObjects.forSourceString("test/TestOne$$ViewInjector",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import butterknife.PlanInjector;",
+            "public class TestOne$$ViewInjector<T extends test.TestOne> extends PlanInjector<T> {",
+            "  private static final int[] PLAN = {",
+            "      2, FIELDS,",
+            "      3, LISTENER",
+            "  };",
+            "  private static final String[] MESSAGES = {",
+            "      null,",
+            "      null",
+            "  };",
+            "  public static final TestOne$$ViewInjector<test.TestOne> INSTANCE = "
+                + "new TestOne$$ViewInjector<test.TestOne>();",
+            "  public TestOne$$ViewInjector() {",
+            "    super(PLAN, MESSAGES, new test.Test$$ViewInjector<T>());",
+            "  }",
+            "  @Override protected void bind(T target, int row, View view) {",
+            "    switch (row) {",
+            "      case 0:",
+            "        target.thing = view;",
+            "        return;",
+            "    }",
+            "  }",
+            "  @Override protected void click(T target, int row, View view) {",
+            "    switch (row) {",
+            "      case 1:",
+            "        target.doOtherStuff();",
+            "        return;",
+            "    }",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .processedWith(butterknifeProcessors("butterknife.plan=true"))
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource1, expectedSource2);
+  }
+
+  @Test public void unplannedSubclassOfPlan() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import butterknife.InjectString;",
+        "import butterknife.InjectView;",
+        "public class Test extends Activity {",
+        "  @InjectView(1) View thing;",
+        "}",
+        "class TestOne extends Test {",
+        "  @InjectString(2) String label;",
+        "}"
+    ));
+
+    ASSERT.about(javaSource()).that(source)
+        .processedWith(butterknifeProcessors("butterknife.plan=true"))
+        .compilesWithoutError();
+  }
+
+  @Test public void stub() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import android.view.ViewStub;",
+        "import android.widget.TextView;",
+        "import butterknife.InStub;",
+        "import butterknife.InjectView;",
+        "import butterknife.Optional;",
+        "public class Test extends Activity {",
+        "  @InjectView(1) ViewStub stub;",
+        "  @InStub(1) @InjectView(2) TextView details;",
+        "  @Optional @InStub(1) @InjectView(3) View more;",
+        "}"
+    ));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/Test$$ViewInjector",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import android.view.ViewStub;",
+            "import butterknife.ButterKnife;",
+            "import butterknife.ButterKnife.Finder;",
+            "import butterknife.ButterKnife.Injector;",
+            "import butterknife.ButterKnife.StubInjection;",
+            "import butterknife.ButterKnife.Unbinder;",
+            "public class Test$$ViewInjector<T extends test.Test> extends Injector<T> {",
+            "  public static final Test$$ViewInjector<test.Test> INSTANCE = "
+                + "new Test$$ViewInjector<test.Test>();",
+            "  @Override public Unbinder inject(Finder finder, final T target, Object source) {",
+            "    View view;",
+            "    view = finder.findById(source, 1);",
+            "    if (view == null) {",
+            "      throw new IllegalStateException(\"Required view with id '1' for field 'stub' was not found. If this view is optional add '@Optional' annotation.\");",
+            "    }",
+            "    target.stub = (android.view.ViewStub) view;",
+            "    final ViewStub stubView1 = ButterKnife.injectStub(finder, source, 1, new StubInjection() {",
+            "      @Override public void inject(Finder finder, Object source) {",
+            "        View view;",
+            "        view = finder.findById(source, 2);",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '2' for field 'details' was not found. If this view is optional add '@Optional' annotation.\");",
+            "        }",
+            "        target.details = (android.widget.TextView) view;",
+            "        view = finder.findById(source, 3);",
+            "        target.more = view;",
+            "      }",
+            "    });",
+            "    return new Unbinder() {",
+            "      @Override public void unbind() {",
+            "        target.stub = null;",
+            "        target.details = null;",
+            "        target.more = null;",
+            "        if (stubView1 != null) {",
+            "          stubView1.setOnInflateListener(null);",
+            "        }",
+            "      }",
+            "    };",
+            "  }",
+            "  @Override public void inject(Finder finder, final T target, Object source, int[] ids) {",
+            "    View view;",
+            "    for (int id : ids) {",
+            "      if (id == 1) {",
+            "        view = finder.findById(source, 1);",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '1' for field 'stub' was not found. If this view is optional add '@Optional' annotation.\");",
+            "        }",
+            "        target.stub = (android.view.ViewStub) view;",
+            "      }",
+            "      if (id == 1) {",
+            "        ButterKnife.injectStub(finder, source, 1, new StubInjection() {",
+            "          @Override public void inject(Finder finder, Object source) {",
+            "            View view;",
+            "            view = finder.findById(source, 2);",
+            "            if (view == null) {",
+            "              throw new IllegalStateException(\"Required view with id '2' for field 'details' was not found. If this view is optional add '@Optional' annotation.\");",
+            "            }",
+            "            target.details = (android.widget.TextView) view;",
+            "            view = finder.findById(source, 3);",
+            "            target.more = view;",
+            "          }",
+            "        });",
+            "      }",
+            "    }",
+            "  }",
+            "  @Override public void reset(T target) {",
+            "    target.stub = null;",
+            "    target.details = null;",
+            "    target.more = null;",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .processedWith(butterknifeProcessors())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+
+  @Test public void failsIfInStubWithoutInjectView() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import butterknife.InStub;",
+        "public class Test extends Activity {",
+        "  @InStub(1) View thing;",
+        "}"
+    ));
+
+    ASSERT.about(javaSource()).that(source)
+        .processedWith(butterknifeProcessors())
+        .failsToCompile()
+        .withErrorContaining(
+            "@InStub fields must also be annotated with @InjectView (test.Test.thing).")
+        .in(source).onLine(6);
+  }
+
+  @Test public void container() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import android.view.ViewGroup;",
+        "import butterknife.InContainer;",
+        "import butterknife.InjectView;",
+        "public class Test extends Activity {",
+        "  @InjectView(10) ViewGroup stats;",
+        "  @InContainer(10) @InjectView(1) View visits;",
+        "  @InContainer(20) @InjectView(2) View sales;",
+        "}"
+    ));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/Test$$ViewInjector",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import butterknife.ButterKnife;",
+            "import butterknife.ButterKnife.Finder;",
+            "import butterknife.ButterKnife.Injector;",
+            "import butterknife.ButterKnife.Unbinder;",
+            "public class Test$$ViewInjector<T extends test.Test> extends Injector<T> {",
+            "  public static final Test$$ViewInjector<test.Test> INSTANCE = "
+                + "new Test$$ViewInjector<test.Test>();",
+            "  @Override public Unbinder inject(Finder finder, final T target, Object source) {",
+            "    View view;",
+            "    View container1 = finder.findById(source, 10);",
+            "    View container2 = finder.findById(source, 20);",
+            "    view = container1;",
+            "    if (view == null) {",
+            "      throw new IllegalStateException(\"Required view with id '10' for field 'stats' was not found. If this view is optional add '@Optional' annotation.\");",
+            "    }",
+            "    target.stats = (android.view.ViewGroup) view;",
+            "    view = ButterKnife.findInContainer(finder, source, container1, 1);",
+            "    if (view == null) {",
+            "      throw new IllegalStateException(\"Required view with id '1' for field 'visits' was not found. If this view is optional add '@Optional' annotation.\");",
+            "    }",
+            "    target.visits = view;",
+            "    view = ButterKnife.findInContainer(finder, source, container2, 2);",
+            "    if (view == null) {",
+            "      throw new IllegalStateException(\"Required view with id '2' for field 'sales' was not found. If this view is optional add '@Optional' annotation.\");",
+            "    }",
+            "    target.sales = view;",
+            "    return new Unbinder() {",
+            "      @Override public void unbind() {",
+            "        target.stats = null;",
+            "        target.visits = null;",
+            "        target.sales = null;",
+            "      }",
+            "    };",
+            "  }",
+            "  @Override public void inject(Finder finder, final T target, Object source, int[] ids) {",
+            "    View view;",
+            "    for (int id : ids) {",
+            "      if (id == 10) {",
+            "        view = finder.findById(source, 10);",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '10' for field 'stats' was not found. If this view is optional add '@Optional' annotation.\");",
+            "        }",
+            "        target.stats = (android.view.ViewGroup) view;",
+            "      } else if (id == 1) {",
+            "        view = finder.findById(source, 1);",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '1' for field 'visits' was not found. If this view is optional add '@Optional' annotation.\");",
+            "        }",
+            "        target.visits = view;",
+            "      } else if (id == 2) {",
+            "        view = finder.findById(source, 2);",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '2' for field 'sales' was not found. If this view is optional add '@Optional' annotation.\");",
+            "        }",
+            "        target.sales = view;",
+            "      }",
+            "    }",
+            "  }",
+            "  @Override public void reset(T target) {",
+            "    target.stats = null;",
+            "    target.visits = null;",
+            "    target.sales = null;",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .processedWith(butterknifeProcessors())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+
+  @Test public void failsIfDifferentContainers() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import butterknife.InContainer;",
+        "import butterknife.InjectView;",
+        "public class Test extends Activity {",
+        "  @InContainer(10) @InjectView(1) View thing1;",
+        "  @InContainer(20) @InjectView(1) View thing2;",
+        "}"
+    ));
+
+    ASSERT.about(javaSource()).that(source)
+        .processedWith(butterknifeProcessors())
+        .failsToCompile()
+        .withErrorContaining(
+            "@InjectView fields for ID 1 declare different containers in test.Test.")
+        .in(source).onLine(8);
+  }
+
+  @Test public void holder() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import butterknife.InjectHolder;",
+        "import butterknife.InjectView;",
+        "public class Test extends Activity {",
+        "  static class Header {",
+        "    @InjectView(1) View title;",
+        "  }",
+        "  @InjectHolder(10) Header header;",
+        "}"
+    ));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/Test$$ViewInjector",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import butterknife.ButterKnife.Finder;",
+            "import butterknife.ButterKnife.Injector;",
+            "import butterknife.ButterKnife.Unbinder;",
+            "public class Test$$ViewInjector<T extends test.Test> extends Injector<T> {",
+            "  public static final Test$$ViewInjector<test.Test> INSTANCE = "
+                + "new Test$$ViewInjector<test.Test>();",
+            "  @Override public Unbinder inject(Finder finder, final T target, Object source) {",
+            "    View container1 = finder.findById(source, 10);",
+            "    if (container1 == null) {",
+            "      throw new IllegalStateException(\"Required view with id '10' for holder 'header' was not found. If this view is optional add '@Optional' annotation.\");",
+            "    }",
+            "    if (target.header == null) {",
+            "      target.header = new test.Test.Header();",
+            "    }",
+            "    final Unbinder holderUnbinder1 = test.Test$Header$$ViewInjector.INSTANCE"
+                + ".inject(Finder.VIEW, target.header, container1);",
+            "    return new Unbinder() {",
+            "      @Override public void unbind() {",
+            "        holderUnbinder1.unbind();",
+            "      }",
+            "    };",
+            "  }",
+            "  @Override public void inject(Finder finder, final T target, Object source, int[] ids) {",
+            "    for (int id : ids) {",
+            "      if (id == 10) {",
+            "        View container = finder.findById(source, 10);",
+            "        if (container == null) {",
+            "          throw new IllegalStateException(\"Required view with id '10' for holder 'header' was not found. If this view is optional add '@Optional' annotation.\");",
+            "        }",
+            "        if (target.header == null) {",
+            "          target.header = new test.Test.Header();",
+            "        }",
+            "        test.Test$Header$$ViewInjector.INSTANCE"
+                + ".inject(Finder.VIEW, target.header, container);",
+            "      }",
+            "    }",
+            "  }",
+            "  @Override public void reset(T target) {",
+            "    if (target.header != null) {",
+            "      test.Test$Header$$ViewInjector.INSTANCE.reset(target.header);",
+            "    }",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .processedWith(butterknifeProcessors())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+
+  @Test public void failsIfHolderCannotBeCreated() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import butterknife.InjectHolder;",
+        "public class Test extends Activity {",
+        "  static class Header {",
+        "    Header(String name) {",
+        "    }",
+        "  }",
+        "  @InjectHolder(10) Header header;",
+        "}"
+    ));
+
+    ASSERT.about(javaSource()).that(source)
+        .processedWith(butterknifeProcessors())
+        .failsToCompile()
+        .withErrorContaining("@InjectHolder field types must have an accessible constructor "
+            + "without parameters (test.Test.header).")
+        .in(source).onLine(9);
+  }
 }
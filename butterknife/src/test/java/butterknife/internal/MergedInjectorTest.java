@@ -0,0 +1,177 @@
+package butterknife.internal;
+
+import com.google.common.base.Joiner;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Test;
+
+import javax.tools.JavaFileObject;
+
+import static butterknife.internal.ProcessorTestUtilities.butterknifeProcessors;
+import static com.google.testing.compile.JavaSourceSubjectFactory.javaSource;
+import static org.truth0.Truth.ASSERT;
+
+public class MergedInjectorTest {
+  @Test public void mergesTargetsOfPackage() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import butterknife.InjectString;",
+        "import butterknife.InjectView;",
+        "import butterknife.OnClick;",
+        "public class Test extends Activity {",
+        "  @InjectView(1) View thing;",
+        "  @OnClick(1) void doStuff() {}",
+        "  public static class Child extends Test {",
+        "    @InjectString(2) String title;",
+        "  }",
+        "}"
+    ));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/$$ViewInjectors",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.content.res.Configuration;",
+            "import android.content.res.Resources;",
+            "import android.view.View;",
+            "import butterknife.ButterKnife.Finder;",
+            "import butterknife.ButterKnife.Injector;",
+            "import butterknife.ButterKnife.InjectorGroup;",
+            "import butterknife.ButterKnife.Unbinder;",
+            "import java.lang.ref.WeakReference;",
+            "public class $$ViewInjectors extends Injector<Object> implements InjectorGroup {",
+            "  private static final $$ViewInjectors[] INSTANCES = {",
+            "      new $$ViewInjectors(0),",
+            "      new $$ViewInjectors(1)",
+            "  };",
+            "  private final int index;",
+            "  public $$ViewInjectors() {",
+            "    this(-1);",
+            "  }",
+            "  private $$ViewInjectors(int index) {",
+            "    this.index = index;",
+            "  }",
+            "  @Override public Injector<Object> getInjector(Class<?> targetClass) {",
+            "    String name = targetClass.getName();",
+            "    if (\"test.Test\".equals(name)) {",
+            "      return INSTANCES[0];",
+            "    }",
+            "    if (\"test.Test$Child\".equals(name)) {",
+            "      return INSTANCES[1];",
+            "    }",
+            "    return null;",
+            "  }",
+            "  @Override public Unbinder inject(Finder finder, Object target, Object source) {",
+            "    switch (index) {",
+            "      case 0:",
+            "        return inject$Test(finder, (test.Test) target, source);",
+            "      case 1:",
+            "        return inject$Test$Child(finder, (test.Test.Child) target, source);",
+            "      default:",
+            "        throw new IllegalStateException(\"No target with index \" + index);",
+            "    }",
+            "  }",
+            "  @Override public void inject(Finder finder, Object target, Object source, int[] ids) {",
+            "    switch (index) {",
+            "      case 0:",
+            "        inject$Test(finder, (test.Test) target, source, ids);",
+            "        return;",
+            "      case 1:",
+            "        inject$Test$Child(finder, (test.Test.Child) target, source, ids);",
+            "        return;",
+            "      default:",
+            "        throw new IllegalStateException(\"No target with index \" + index);",
+            "    }",
+            "  }",
+            "  @Override public void reset(Object target) {",
+            "    switch (index) {",
+            "      case 0:",
+            "        reset$Test((test.Test) target);",
+            "        return;",
+            "      case 1:",
+            "        reset$Test$Child((test.Test.Child) target);",
+            "        return;",
+            "      default:",
+            "        throw new IllegalStateException(\"No target with index \" + index);",
+            "    }",
+            "  }",
+            "  public static Unbinder inject$Test(Finder finder, final test.Test target,",
+            "      Object source) {",
+            "    View view;",
+            "    view = finder.findById(source, 1);",
+            "    if (view == null) {",
+            "      throw new IllegalStateException(\"Required view with id '1' for field 'thing' "
+                + "and method 'doStuff' was not found. If this view is optional add '@Optional' "
+                + "annotation.\");",
+            "    }",
+            "    target.thing = view;",
+            "    view.setOnClickListener(new View.OnClickListener() {",
+            "      @Override public void onClick(View view) {",
+            "        target.doStuff();",
+            "      }",
+            "    });",
+            "    final View listenerView1 = view;",
+            "    return new Unbinder() {",
+            "      @Override public void unbind() {",
+            "        target.thing = null;",
+            "        listenerView1.setOnClickListener(null);",
+            "      }",
+            "    };",
+            "  }",
+            "  public static void inject$Test(Finder finder, final test.Test target, Object source,",
+            "      int[] ids) {",
+            "    View view;",
+            "    for (int id : ids) {",
+            "      if (id == 1) {",
+            "        view = finder.findById(source, 1);",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '1' for field "
+                + "'thing' and method 'doStuff' was not found. If this view is optional add "
+                + "'@Optional' annotation.\");",
+            "        }",
+            "        target.thing = view;",
+            "        view.setOnClickListener(new View.OnClickListener() {",
+            "          @Override public void onClick(View view) {",
+            "            target.doStuff();",
+            "          }",
+            "        });",
+            "      }",
+            "    }",
+            "  }",
+            "  public static void reset$Test(test.Test target) {",
+            "    target.thing = null;",
+            "  }",
+            "  private static WeakReference<Resources> cachedResources$Test$Child;",
+            "  private static Configuration cachedConfiguration$Test$Child;",
+            "  private static java.lang.String cachedString2$Test$Child;",
+            "  public static Unbinder inject$Test$Child(Finder finder, final test.Test.Child target,",
+            "      Object source) {",
+            "    final Unbinder parentUnbinder = inject$Test(finder, target, source);",
+            "    Resources res = finder.getContext(source).getResources();",
+            "    if (cachedResources$Test$Child == null || cachedResources$Test$Child.get() != res",
+            "        || !cachedConfiguration$Test$Child.equals(res.getConfiguration())) {",
+            "      cachedString2$Test$Child = res.getString(2);",
+            "      cachedConfiguration$Test$Child = new Configuration(res.getConfiguration());",
+            "      cachedResources$Test$Child = new WeakReference<Resources>(res);",
+            "    }",
+            "    target.title = cachedString2$Test$Child;",
+            "    return parentUnbinder;",
+            "  }",
+            "  public static void inject$Test$Child(Finder finder, final test.Test.Child target,",
+            "      Object source, int[] ids) {",
+            "    inject$Test(finder, target, source, ids);",
+            "  }",
+            "  public static void reset$Test$Child(test.Test.Child target) {",
+            "    reset$Test(target);",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .processedWith(butterknifeProcessors("butterknife.merge=true"))
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+}
@@ -26,8 +26,12 @@ public class OnClickTest {
             "package test;",
             "import android.view.View;",
             "import butterknife.ButterKnife.Finder;",
-            "public class Test$$ViewInjector {",
-            "  public static void inject(Finder finder, final test.Test target, Object source) {",
+            "import butterknife.ButterKnife.Injector;",
+            "import butterknife.ButterKnife.Unbinder;",
+            "public class Test$$ViewInjector<T extends test.Test> extends Injector<T> {",
+            "  public static final Test$$ViewInjector<test.Test> INSTANCE = "
+                + "new Test$$ViewInjector<test.Test>();",
+            "  @Override public Unbinder inject(Finder finder, final T target, Object source) {",
             "    View view;",
             "    view = finder.findById(source, 1);",
             "    if (view == null) {",
@@ -38,8 +42,95 @@ public class OnClickTest {
             "        target.doStuff();",
             "      }",
             "    });",
+            "    final View listenerView1 = view;",
+            "    return new Unbinder() {",
+            "      @Override public void unbind() {",
+            "        listenerView1.setOnClickListener(null);",
+            "      }",
+            "    };",
             "  }",
-            "  public static void reset(test.Test target) {",
+            "  @Override public void inject(Finder finder, final T target, Object source, int[] ids) {",
+            "    View view;",
+            "    for (int id : ids) {",
+            "      if (id == 1) {",
+            "        view = finder.findById(source, 1);",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '1' for method 'doStuff' was not found. If this view is optional add '@Optional' annotation.\");",
+            "        }",
+            "        view.setOnClickListener(new View.OnClickListener() {",
+            "          @Override public void onClick(View view) {",
+            "            target.doStuff();",
+            "          }",
+            "        });",
+            "      }",
+            "    }",
+            "  }",
+            "  @Override public void reset(T target) {",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .processedWith(butterknifeProcessors())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+
+  @Test public void runtimeRetainedVariant() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import butterknife.reflect.OnClick;",
+        "public class Test extends Activity {",
+        "  @OnClick(1) void doStuff() {}",
+        "}"));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/Test$$ViewInjector",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import butterknife.ButterKnife.Finder;",
+            "import butterknife.ButterKnife.Injector;",
+            "import butterknife.ButterKnife.Unbinder;",
+            "public class Test$$ViewInjector<T extends test.Test> extends Injector<T> {",
+            "  public static final Test$$ViewInjector<test.Test> INSTANCE = "
+                + "new Test$$ViewInjector<test.Test>();",
+            "  @Override public Unbinder inject(Finder finder, final T target, Object source) {",
+            "    View view;",
+            "    view = finder.findById(source, 1);",
+            "    if (view == null) {",
+            "      throw new IllegalStateException(\"Required view with id '1' for method 'doStuff' was not found. If this view is optional add '@Optional' annotation.\");",
+            "    }",
+            "    view.setOnClickListener(new View.OnClickListener() {",
+            "      @Override public void onClick(View view) {",
+            "        target.doStuff();",
+            "      }",
+            "    });",
+            "    final View listenerView1 = view;",
+            "    return new Unbinder() {",
+            "      @Override public void unbind() {",
+            "        listenerView1.setOnClickListener(null);",
+            "      }",
+            "    };",
+            "  }",
+            "  @Override public void inject(Finder finder, final T target, Object source, int[] ids) {",
+            "    View view;",
+            "    for (int id : ids) {",
+            "      if (id == 1) {",
+            "        view = finder.findById(source, 1);",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '1' for method 'doStuff' was not found. If this view is optional add '@Optional' annotation.\");",
+            "        }",
+            "        view.setOnClickListener(new View.OnClickListener() {",
+            "          @Override public void onClick(View view) {",
+            "            target.doStuff();",
+            "          }",
+            "        });",
+            "      }",
+            "    }",
+            "  }",
+            "  @Override public void reset(T target) {",
             "  }",
             "}"
         ));
@@ -90,8 +181,12 @@ public class OnClickTest {
             "package test;",
             "import android.view.View;",
             "import butterknife.ButterKnife.Finder;",
-            "public class Test$$ViewInjector {",
-            "  public static void inject(Finder finder, final test.Test target, Object source) {",
+            "import butterknife.ButterKnife.Injector;",
+            "import butterknife.ButterKnife.Unbinder;",
+            "public class Test$$ViewInjector<T extends test.Test> extends Injector<T> {",
+            "  public static final Test$$ViewInjector<test.Test> INSTANCE = "
+                + "new Test$$ViewInjector<test.Test>();",
+            "  @Override public Unbinder inject(Finder finder, final T target, Object source) {",
             "    View view;",
             "    view = finder.findById(source, 0);",
             "    if (view == null) {",
@@ -102,6 +197,7 @@ public class OnClickTest {
             "        target.click0();",
             "      }",
             "    });",
+            "    final View listenerView1 = view;",
             "    view = finder.findById(source, 1);",
             "    if (view == null) {",
             "      throw new IllegalStateException(\"Required view with id '1' for method 'click1' was not found. If this view is optional add '@Optional' annotation.\");",
@@ -111,6 +207,7 @@ public class OnClickTest {
             "        target.click1(view);",
             "      }",
             "    });",
+            "    final View listenerView2 = view;",
             "    view = finder.findById(source, 2);",
             "    if (view == null) {",
             "      throw new IllegalStateException(\"Required view with id '2' for method 'click2' was not found. If this view is optional add '@Optional' annotation.\");",
@@ -120,6 +217,7 @@ public class OnClickTest {
             "        target.click2((android.widget.TextView) view);",
             "      }",
             "    });",
+            "    final View listenerView3 = view;",
             "    view = finder.findById(source, 3);",
             "    if (view == null) {",
             "      throw new IllegalStateException(\"Required view with id '3' for method 'click3' was not found. If this view is optional add '@Optional' annotation.\");",
@@ -129,8 +227,63 @@ public class OnClickTest {
             "        target.click3((android.widget.Button) view);",
             "      }",
             "    });",
+            "    final View listenerView4 = view;",
+            "    return new Unbinder() {",
+            "      @Override public void unbind() {",
+            "        listenerView1.setOnClickListener(null);",
+            "        listenerView2.setOnClickListener(null);",
+            "        listenerView3.setOnClickListener(null);",
+            "        listenerView4.setOnClickListener(null);",
+            "      }",
+            "    };",
             "  }",
-            "  public static void reset(test.Test target) {",
+            "  @Override public void inject(Finder finder, final T target, Object source, int[] ids) {",
+            "    View view;",
+            "    for (int id : ids) {",
+            "      if (id == 0) {",
+            "        view = finder.findById(source, 0);",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '0' for method 'click0' was not found. If this view is optional add '@Optional' annotation.\");",
+            "        }",
+            "        view.setOnClickListener(new View.OnClickListener() {",
+            "          @Override public void onClick(View view) {",
+            "            target.click0();",
+            "          }",
+            "        });",
+            "      } else if (id == 1) {",
+            "        view = finder.findById(source, 1);",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '1' for method 'click1' was not found. If this view is optional add '@Optional' annotation.\");",
+            "        }",
+            "        view.setOnClickListener(new View.OnClickListener() {",
+            "          @Override public void onClick(View view) {",
+            "            target.click1(view);",
+            "          }",
+            "        });",
+            "      } else if (id == 2) {",
+            "        view = finder.findById(source, 2);",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '2' for method 'click2' was not found. If this view is optional add '@Optional' annotation.\");",
+            "        }",
+            "        view.setOnClickListener(new View.OnClickListener() {",
+            "          @Override public void onClick(View view) {",
+            "            target.click2((android.widget.TextView) view);",
+            "          }",
+            "        });",
+            "      } else if (id == 3) {",
+            "        view = finder.findById(source, 3);",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '3' for method 'click3' was not found. If this view is optional add '@Optional' annotation.\");",
+            "        }",
+            "        view.setOnClickListener(new View.OnClickListener() {",
+            "          @Override public void onClick(View view) {",
+            "            target.click3((android.widget.Button) view);",
+            "          }",
+            "        });",
+            "      }",
+            "    }",
+            "  }",
+            "  @Override public void reset(T target) {",
             "  }",
             "}"
         ));
@@ -158,8 +311,12 @@ public class OnClickTest {
             "package test;",
             "import android.view.View;",
             "import butterknife.ButterKnife.Finder;",
-            "public class Test$$ViewInjector {",
-            "  public static void inject(Finder finder, final test.Test target, Object source) {",
+            "import butterknife.ButterKnife.Injector;",
+            "import butterknife.ButterKnife.Unbinder;",
+            "public class Test$$ViewInjector<T extends test.Test> extends Injector<T> {",
+            "  public static final Test$$ViewInjector<test.Test> INSTANCE = "
+                + "new Test$$ViewInjector<test.Test>();",
+            "  @Override public Unbinder inject(Finder finder, final T target, Object source) {",
             "    View view;",
             "    view = finder.findById(source, 1);",
             "    if (view == null) {",
@@ -170,6 +327,7 @@ public class OnClickTest {
             "        target.click();",
             "      }",
             "    });",
+            "    final View listenerView1 = view;",
             "    view = finder.findById(source, 2);",
             "    if (view == null) {",
             "      throw new IllegalStateException(\"Required view with id '2' for method 'click' was not found. If this view is optional add '@Optional' annotation.\");",
@@ -179,6 +337,7 @@ public class OnClickTest {
             "        target.click();",
             "      }",
             "    });",
+            "    final View listenerView2 = view;",
             "    view = finder.findById(source, 3);",
             "    if (view == null) {",
             "      throw new IllegalStateException(\"Required view with id '3' for method 'click' was not found. If this view is optional add '@Optional' annotation.\");",
@@ -188,8 +347,52 @@ public class OnClickTest {
             "        target.click();",
             "      }",
             "    });",
+            "    final View listenerView3 = view;",
+            "    return new Unbinder() {",
+            "      @Override public void unbind() {",
+            "        listenerView1.setOnClickListener(null);",
+            "        listenerView2.setOnClickListener(null);",
+            "        listenerView3.setOnClickListener(null);",
+            "      }",
+            "    };",
             "  }",
-            "  public static void reset(test.Test target) {",
+            "  @Override public void inject(Finder finder, final T target, Object source, int[] ids) {",
+            "    View view;",
+            "    for (int id : ids) {",
+            "      if (id == 1) {",
+            "        view = finder.findById(source, 1);",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '1' for method 'click' was not found. If this view is optional add '@Optional' annotation.\");",
+            "        }",
+            "        view.setOnClickListener(new View.OnClickListener() {",
+            "          @Override public void onClick(View view) {",
+            "            target.click();",
+            "          }",
+            "        });",
+            "      } else if (id == 2) {",
+            "        view = finder.findById(source, 2);",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '2' for method 'click' was not found. If this view is optional add '@Optional' annotation.\");",
+            "        }",
+            "        view.setOnClickListener(new View.OnClickListener() {",
+            "          @Override public void onClick(View view) {",
+            "            target.click();",
+            "          }",
+            "        });",
+            "      } else if (id == 3) {",
+            "        view = finder.findById(source, 3);",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '3' for method 'click' was not found. If this view is optional add '@Optional' annotation.\");",
+            "        }",
+            "        view.setOnClickListener(new View.OnClickListener() {",
+            "          @Override public void onClick(View view) {",
+            "            target.click();",
+            "          }",
+            "        });",
+            "      }",
+            "    }",
+            "  }",
+            "  @Override public void reset(T target) {",
             "  }",
             "}"
         ));
@@ -216,8 +419,12 @@ public class OnClickTest {
             "package test;",
             "import android.view.View;",
             "import butterknife.ButterKnife.Finder;",
-            "public class Test$$ViewInjector {",
-            "  public static void inject(Finder finder, final test.Test target, Object source) {",
+            "import butterknife.ButterKnife.Injector;",
+            "import butterknife.ButterKnife.Unbinder;",
+            "public class Test$$ViewInjector<T extends test.Test> extends Injector<T> {",
+            "  public static final Test$$ViewInjector<test.Test> INSTANCE = "
+                + "new Test$$ViewInjector<test.Test>();",
+            "  @Override public Unbinder inject(Finder finder, final T target, Object source) {",
             "    View view;",
             "    view = finder.findById(source, 1);",
             "    if (view != null) {",
@@ -227,8 +434,31 @@ public class OnClickTest {
             "        }",
             "      });",
             "    }",
+            "    final View listenerView1 = view;",
+            "    return new Unbinder() {",
+            "      @Override public void unbind() {",
+            "        if (listenerView1 != null) {",
+            "          listenerView1.setOnClickListener(null);",
+            "        }",
+            "      }",
+            "    };",
+            "  }",
+            "  @Override public void inject(Finder finder, final T target, Object source, int[] ids) {",
+            "    View view;",
+            "    for (int id : ids) {",
+            "      if (id == 1) {",
+            "        view = finder.findById(source, 1);",
+            "        if (view != null) {",
+            "          view.setOnClickListener(new View.OnClickListener() {",
+            "            @Override public void onClick(View view) {",
+            "              target.doStuff();",
+            "            }",
+            "          });",
+            "        }",
+            "      }",
+            "    }",
             "  }",
-            "  public static void reset(test.Test target) {",
+            "  @Override public void reset(T target) {",
             "  }",
             "}"
         ));
@@ -259,8 +489,12 @@ public class OnClickTest {
             "package test;",
             "import android.view.View;",
             "import butterknife.ButterKnife.Finder;",
-            "public class Test$$ViewInjector {",
-            "  public static void inject(Finder finder, final test.Test target, Object source) {",
+            "import butterknife.ButterKnife.Injector;",
+            "import butterknife.ButterKnife.Unbinder;",
+            "public class Test$$ViewInjector<T extends test.Test> extends Injector<T> {",
+            "  public static final Test$$ViewInjector<test.Test> INSTANCE = "
+                + "new Test$$ViewInjector<test.Test>();",
+            "  @Override public Unbinder inject(Finder finder, final T target, Object source) {",
             "    View view;",
             "    view = finder.findById(source, 1);",
             "    if (view == null) {",
@@ -272,8 +506,32 @@ public class OnClickTest {
             "        target.doStuff();",
             "      }",
             "    });",
+            "    final View listenerView1 = view;",
+            "    return new Unbinder() {",
+            "      @Override public void unbind() {",
+            "        target.view = null;",
+            "        listenerView1.setOnClickListener(null);",
+            "      }",
+            "    };",
+            "  }",
+            "  @Override public void inject(Finder finder, final T target, Object source, int[] ids) {",
+            "    View view;",
+            "    for (int id : ids) {",
+            "      if (id == 1) {",
+            "        view = finder.findById(source, 1);",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '1' for field 'view' was not found. If this view is optional add '@Optional' annotation.\");",
+            "        }",
+            "        target.view = view;",
+            "        view.setOnClickListener(new View.OnClickListener() {",
+            "          @Override public void onClick(View view) {",
+            "            target.doStuff();",
+            "          }",
+            "        });",
+            "      }",
+            "    }",
             "  }",
-            "  public static void reset(test.Test target) {",
+            "  @Override public void reset(T target) {",
             "    target.view = null;",
             "  }",
             "}"
@@ -286,6 +544,80 @@ public class OnClickTest {
         .generatesSources(expectedSource);
   }
 
+  @Test public void superclassFieldReused() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import butterknife.InjectView;",
+        "import butterknife.OnClick;",
+        "public class Test extends Activity {",
+        "  @InjectView(1) View view;",
+        "}",
+        "class TestOne extends Test {",
+        "  @OnClick(1) void doStuff() {}",
+        "}"));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/TestOne$$ViewInjector",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import butterknife.ButterKnife.Finder;",
+            "import butterknife.ButterKnife.Injector;",
+            "import butterknife.ButterKnife.Unbinder;",
+            "public class TestOne$$ViewInjector<T extends test.TestOne> extends test.Test$$ViewInjector<T> {",
+            "  public static final TestOne$$ViewInjector<test.TestOne> INSTANCE = "
+                + "new TestOne$$ViewInjector<test.TestOne>();",
+            "  @Override public Unbinder inject(Finder finder, final T target, Object source) {",
+            "    final Unbinder parentUnbinder = super.inject(finder, target, source);",
+            "    View view;",
+            "    view = ((test.Test) target).view;",
+            "    if (view == null) {",
+            "      throw new IllegalStateException(\"Required view with id '1' for method 'doStuff' was not found. If this view is optional add '@Optional' annotation.\");",
+            "    }",
+            "    view.setOnClickListener(new View.OnClickListener() {",
+            "      @Override public void onClick(View view) {",
+            "        target.doStuff();",
+            "      }",
+            "    });",
+            "    final View listenerView1 = view;",
+            "    return new Unbinder() {",
+            "      @Override public void unbind() {",
+            "        parentUnbinder.unbind();",
+            "        listenerView1.setOnClickListener(null);",
+            "      }",
+            "    };",
+            "  }",
+            "  @Override public void inject(Finder finder, final T target, Object source, int[] ids) {",
+            "    super.inject(finder, target, source, ids);",
+            "    View view;",
+            "    for (int id : ids) {",
+            "      if (id == 1) {",
+            "        view = ((test.Test) target).view;",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '1' for method 'doStuff' was not found. If this view is optional add '@Optional' annotation.\");",
+            "        }",
+            "        view.setOnClickListener(new View.OnClickListener() {",
+            "          @Override public void onClick(View view) {",
+            "            target.doStuff();",
+            "          }",
+            "        });",
+            "      }",
+            "    }",
+            "  }",
+            "  @Override public void reset(T target) {",
+            "    super.reset(target);",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .processedWith(butterknifeProcessors())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+
   @Test public void onClickInjectionFailsIfHasReturnType() {
     JavaFileObject source = JavaFileObjects.forSourceString("test.Test",
         Joiner.on('\n').join(
@@ -411,4 +743,613 @@ public class OnClickTest {
                 "doStuff()", 1))
         .in(source).onLine(6);
   }
+
+  @Test public void onClickInjectionFailsIfMinIntervalNegative() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.app.Activity;",
+            "import butterknife.OnClick;",
+            "public class Test extends Activity {",
+            "  @OnClick(value = 1, minInterval = -1)",
+            "  void doStuff() {",
+            "  }",
+            "}"));
+
+    ASSERT.about(javaSource()).that(source)
+        .processedWith(butterknifeProcessors())
+        .failsToCompile()
+        .withErrorContaining("@OnClick minInterval must not be negative (test.Test.doStuff()).")
+        .in(source).onLine(6);
+  }
+
+  @Test public void throttled() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import butterknife.OnClick;",
+        "import butterknife.Optional;",
+        "public class Test extends Activity {",
+        "  @OnClick(value = 1, minInterval = 500) void doStuff() {}",
+        "  @Optional @OnClick(value = { 2, 3 }, minInterval = 1000,",
+        "      throttle = OnClick.Throttle.TARGET) void submit() {}",
+        "}"));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/Test$$ViewInjector",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.os.SystemClock;",
+            "import android.view.View;",
+            "import butterknife.ButterKnife;",
+            "import butterknife.ButterKnife.Finder;",
+            "import butterknife.ButterKnife.Injector;",
+            "import butterknife.ButterKnife.Unbinder;",
+            "public class Test$$ViewInjector<T extends test.Test> extends Injector<T> {",
+            "  public static final Test$$ViewInjector<test.Test> INSTANCE = "
+                + "new Test$$ViewInjector<test.Test>();",
+            "  @Override public Unbinder inject(Finder finder, final T target, Object source) {",
+            "    View view;",
+            "    final long[] nextTargetClick = ButterKnife.getTargetThrottle(target);",
+            "    view = finder.findById(source, 1);",
+            "    if (view == null) {",
+            "      throw new IllegalStateException(\"Required view with id '1' for method "
+                + "'doStuff' was not found. If this view is optional add '@Optional' "
+                + "annotation.\");",
+            "    }",
+            "    view.setOnClickListener(new View.OnClickListener() {",
+            "      private long nextClick;",
+            "      @Override public void onClick(View view) {",
+            "        long now = SystemClock.uptimeMillis();",
+            "        if (now < nextClick) {",
+            "          return;",
+            "        }",
+            "        nextClick = now + 500;",
+            "        target.doStuff();",
+            "      }",
+            "    });",
+            "    final View listenerView1 = view;",
+            "    view = finder.findById(source, 2);",
+            "    if (view != null) {",
+            "      view.setOnClickListener(new View.OnClickListener() {",
+            "        @Override public void onClick(View view) {",
+            "          long now = SystemClock.uptimeMillis();",
+            "          if (now < nextTargetClick[0]) {",
+            "            return;",
+            "          }",
+            "          nextTargetClick[0] = now + 1000;",
+            "          target.submit();",
+            "        }",
+            "      });",
+            "    }",
+            "    final View listenerView2 = view;",
+            "    view = finder.findById(source, 3);",
+            "    if (view != null) {",
+            "      view.setOnClickListener(new View.OnClickListener() {",
+            "        @Override public void onClick(View view) {",
+            "          long now = SystemClock.uptimeMillis();",
+            "          if (now < nextTargetClick[0]) {",
+            "            return;",
+            "          }",
+            "          nextTargetClick[0] = now + 1000;",
+            "          target.submit();",
+            "        }",
+            "      });",
+            "    }",
+            "    final View listenerView3 = view;",
+            "    return new Unbinder() {",
+            "      @Override public void unbind() {",
+            "        listenerView1.setOnClickListener(null);",
+            "        if (listenerView2 != null) {",
+            "          listenerView2.setOnClickListener(null);",
+            "        }",
+            "        if (listenerView3 != null) {",
+            "          listenerView3.setOnClickListener(null);",
+            "        }",
+            "      }",
+            "    };",
+            "  }",
+            "  @Override public void inject(Finder finder, final T target, Object source,",
+            "      int[] ids) {",
+            "    View view;",
+            "    final long[] nextTargetClick = ButterKnife.getTargetThrottle(target);",
+            "    for (int id : ids) {",
+            "      if (id == 1) {",
+            "        view = finder.findById(source, 1);",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '1' for method "
+                + "'doStuff' was not found. If this view is optional add '@Optional' "
+                + "annotation.\");",
+            "        }",
+            "        view.setOnClickListener(new View.OnClickListener() {",
+            "          private long nextClick;",
+            "          @Override public void onClick(View view) {",
+            "            long now = SystemClock.uptimeMillis();",
+            "            if (now < nextClick) {",
+            "              return;",
+            "            }",
+            "            nextClick = now + 500;",
+            "            target.doStuff();",
+            "          }",
+            "        });",
+            "      } else if (id == 2) {",
+            "        view = finder.findById(source, 2);",
+            "        if (view != null) {",
+            "          view.setOnClickListener(new View.OnClickListener() {",
+            "            @Override public void onClick(View view) {",
+            "              long now = SystemClock.uptimeMillis();",
+            "              if (now < nextTargetClick[0]) {",
+            "                return;",
+            "              }",
+            "              nextTargetClick[0] = now + 1000;",
+            "              target.submit();",
+            "            }",
+            "          });",
+            "        }",
+            "      } else if (id == 3) {",
+            "        view = finder.findById(source, 3);",
+            "        if (view != null) {",
+            "          view.setOnClickListener(new View.OnClickListener() {",
+            "            @Override public void onClick(View view) {",
+            "              long now = SystemClock.uptimeMillis();",
+            "              if (now < nextTargetClick[0]) {",
+            "                return;",
+            "              }",
+            "              nextTargetClick[0] = now + 1000;",
+            "              target.submit();",
+            "            }",
+            "          });",
+            "        }",
+            "      }",
+            "    }",
+            "  }",
+            "  @Override public void reset(T target) {",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .processedWith(butterknifeProcessors())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+
+  @Test public void background() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.widget.Button;",
+        "import butterknife.OnClick;",
+        "public class Test extends Activity {",
+        "  @OnClick(value = 1, background = true) void save() {}",
+        "  @OnClick(value = 2, background = true, result = \"onLoaded\")",
+        "  String load(Button button) {",
+        "    return null;",
+        "  }",
+        "  void onLoaded(CharSequence text) {}",
+        "}"));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/Test$$ViewInjector",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import butterknife.ButterKnife;",
+            "import butterknife.ButterKnife.Finder;",
+            "import butterknife.ButterKnife.Injector;",
+            "import butterknife.ButterKnife.Unbinder;",
+            "public class Test$$ViewInjector<T extends test.Test> extends Injector<T> {",
+            "  public static final Test$$ViewInjector<test.Test> INSTANCE = "
+                + "new Test$$ViewInjector<test.Test>();",
+            "  @Override public Unbinder inject(Finder finder, final T target, Object source) {",
+            "    View view;",
+            "    view = finder.findById(source, 1);",
+            "    if (view == null) {",
+            "      throw new IllegalStateException(\"Required view with id '1' for method "
+                + "'save' was not found. If this view is optional add '@Optional' "
+                + "annotation.\");",
+            "    }",
+            "    view.setOnClickListener(new View.OnClickListener() {",
+            "      @Override public void onClick(View view) {",
+            "        ButterKnife.executeClick(new Runnable() {",
+            "          @Override public void run() {",
+            "            target.save();",
+            "          }",
+            "        });",
+            "      }",
+            "    });",
+            "    final View listenerView1 = view;",
+            "    view = finder.findById(source, 2);",
+            "    if (view == null) {",
+            "      throw new IllegalStateException(\"Required view with id '2' for method "
+                + "'load' was not found. If this view is optional add '@Optional' "
+                + "annotation.\");",
+            "    }",
+            "    view.setOnClickListener(new View.OnClickListener() {",
+            "      @Override public void onClick(final View view) {",
+            "        ButterKnife.executeClick(new Runnable() {",
+            "          @Override public void run() {",
+            "            final java.lang.String result = target.load((android.widget.Button) view);",
+            "            ButterKnife.postToMainThread(new Runnable() {",
+            "              @Override public void run() {",
+            "                target.onLoaded(result);",
+            "              }",
+            "            });",
+            "          }",
+            "        });",
+            "      }",
+            "    });",
+            "    final View listenerView2 = view;",
+            "    return new Unbinder() {",
+            "      @Override public void unbind() {",
+            "        listenerView1.setOnClickListener(null);",
+            "        listenerView2.setOnClickListener(null);",
+            "      }",
+            "    };",
+            "  }",
+            "  @Override public void inject(Finder finder, final T target, Object source,",
+            "      int[] ids) {",
+            "    View view;",
+            "    for (int id : ids) {",
+            "      if (id == 1) {",
+            "        view = finder.findById(source, 1);",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '1' for method "
+                + "'save' was not found. If this view is optional add '@Optional' "
+                + "annotation.\");",
+            "        }",
+            "        view.setOnClickListener(new View.OnClickListener() {",
+            "          @Override public void onClick(View view) {",
+            "            ButterKnife.executeClick(new Runnable() {",
+            "              @Override public void run() {",
+            "                target.save();",
+            "              }",
+            "            });",
+            "          }",
+            "        });",
+            "      } else if (id == 2) {",
+            "        view = finder.findById(source, 2);",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '2' for method "
+                + "'load' was not found. If this view is optional add '@Optional' "
+                + "annotation.\");",
+            "        }",
+            "        view.setOnClickListener(new View.OnClickListener() {",
+            "          @Override public void onClick(final View view) {",
+            "            ButterKnife.executeClick(new Runnable() {",
+            "              @Override public void run() {",
+            "                final java.lang.String result = target.load((android.widget.Button) view);",
+            "                ButterKnife.postToMainThread(new Runnable() {",
+            "                  @Override public void run() {",
+            "                    target.onLoaded(result);",
+            "                  }",
+            "                });",
+            "              }",
+            "            });",
+            "          }",
+            "        });",
+            "      }",
+            "    }",
+            "  }",
+            "  @Override public void reset(T target) {",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .processedWith(butterknifeProcessors())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+
+  @Test public void onClickInjectionFailsIfResultWithoutBackground() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.app.Activity;",
+            "import butterknife.OnClick;",
+            "public class Test extends Activity {",
+            "  @OnClick(value = 1, result = \"done\")",
+            "  void doStuff() {",
+            "  }",
+            "  void done() {",
+            "  }",
+            "}"));
+
+    ASSERT.about(javaSource()).that(source)
+        .processedWith(butterknifeProcessors())
+        .failsToCompile()
+        .withErrorContaining("@OnClick result requires background = true (test.Test.doStuff()).")
+        .in(source).onLine(6);
+  }
+
+  @Test public void onClickInjectionFailsIfResultMethodNotFound() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.app.Activity;",
+            "import butterknife.OnClick;",
+            "public class Test extends Activity {",
+            "  @OnClick(value = 1, background = true, result = \"done\")",
+            "  int doStuff() {",
+            "    return 0;",
+            "  }",
+            "  private void done(int result) {",
+            "  }",
+            "}"));
+
+    ASSERT.about(javaSource()).that(source)
+        .processedWith(butterknifeProcessors())
+        .failsToCompile()
+        .withErrorContaining(
+            "@OnClick result method done(int) not found in test.Test. It must not be private or "
+                + "static.")
+        .in(source).onLine(6);
+  }
+
+  @Test public void checksOff() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import butterknife.InjectView;",
+        "import butterknife.OnClick;",
+        "import butterknife.Optional;",
+        "public class Test extends Activity {",
+        "  @InjectView(2) View thing;",
+        "  @OnClick(1) void click1() {}",
+        "  @Optional @OnClick(2) void click2() {}",
+        "}"
+    ));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/Test$$ViewInjector",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import butterknife.ButterKnife.Finder;",
+            "import butterknife.ButterKnife.Injector;",
+            "import butterknife.ButterKnife.Unbinder;",
+            "public class Test$$ViewInjector<T extends test.Test> extends Injector<T> {",
+            "  public static final Test$$ViewInjector<test.Test> INSTANCE = "
+                + "new Test$$ViewInjector<test.Test>();",
+            "  @Override public Unbinder inject(Finder finder, final T target, Object source) {",
+            "    View view;",
+            "    view = finder.findById(source, 2);",
+            "    target.thing = view;",
+            "    if (view != null) {",
+            "      view.setOnClickListener(new View.OnClickListener() {",
+            "        @Override public void onClick(View view) {",
+            "          target.click2();",
+            "        }",
+            "      });",
+            "    }",
+            "    final View listenerView1 = view;",
+            "    view = finder.findById(source, 1);",
+            "    view.setOnClickListener(new View.OnClickListener() {",
+            "      @Override public void onClick(View view) {",
+            "        target.click1();",
+            "      }",
+            "    });",
+            "    final View listenerView2 = view;",
+            "    return new Unbinder() {",
+            "      @Override public void unbind() {",
+            "        target.thing = null;",
+            "        if (listenerView1 != null) {",
+            "          listenerView1.setOnClickListener(null);",
+            "        }",
+            "        listenerView2.setOnClickListener(null);",
+            "      }",
+            "    };",
+            "  }",
+            "  @Override public void inject(Finder finder, final T target, Object source, int[] ids) {",
+            "    View view;",
+            "    for (int id : ids) {",
+            "      if (id == 2) {",
+            "        view = finder.findById(source, 2);",
+            "        target.thing = view;",
+            "        if (view != null) {",
+            "          view.setOnClickListener(new View.OnClickListener() {",
+            "            @Override public void onClick(View view) {",
+            "              target.click2();",
+            "            }",
+            "          });",
+            "        }",
+            "      } else if (id == 1) {",
+            "        view = finder.findById(source, 1);",
+            "        view.setOnClickListener(new View.OnClickListener() {",
+            "          @Override public void onClick(View view) {",
+            "            target.click1();",
+            "          }",
+            "        });",
+            "      }",
+            "    }",
+            "  }",
+            "  @Override public void reset(T target) {",
+            "    target.thing = null;",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .processedWith(butterknifeProcessors("butterknife.checks=off"))
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+
+  @Test public void timing() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.widget.Button;",
+        "import butterknife.InjectView;",
+        "import butterknife.OnClick;",
+        "public class Test extends Activity {",
+        "  @InjectView(1) Button thing;",
+        "  @OnClick(1) void doStuff() {}",
+        "}"
+    ));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/Test$$ViewInjector",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import butterknife.ButterKnife;",
+            "import butterknife.ButterKnife.Finder;",
+            "import butterknife.ButterKnife.Injector;",
+            "import butterknife.ButterKnife.Unbinder;",
+            "public class Test$$ViewInjector<T extends test.Test> extends Injector<T> {",
+            "  public static final Test$$ViewInjector<test.Test> INSTANCE = "
+                + "new Test$$ViewInjector<test.Test>();",
+            "  @Override public Unbinder inject(Finder finder, final T target, Object source) {",
+            "    View view;",
+            "    long start;",
+            "    start = System.nanoTime();",
+            "    view = finder.findById(source, 1);",
+            "    ButterKnife.reportTiming(test.Test.class, 1, \"findById\",",
+            "        System.nanoTime() - start);",
+            "    if (view == null) {",
+            "      throw new IllegalStateException(\"Required view with id '1' for field 'thing' "
+                + "and method 'doStuff' was not found. If this view is optional add '@Optional' "
+                + "annotation.\");",
+            "    }",
+            "    start = System.nanoTime();",
+            "    target.thing = (android.widget.Button) view;",
+            "    ButterKnife.reportTiming(test.Test.class, 1, \"field 'thing'\",",
+            "        System.nanoTime() - start);",
+            "    start = System.nanoTime();",
+            "    view.setOnClickListener(new View.OnClickListener() {",
+            "      @Override public void onClick(View view) {",
+            "        target.doStuff();",
+            "      }",
+            "    });",
+            "    ButterKnife.reportTiming(test.Test.class, 1, \"method 'doStuff'\",",
+            "        System.nanoTime() - start);",
+            "    final View listenerView1 = view;",
+            "    return new Unbinder() {",
+            "      @Override public void unbind() {",
+            "        target.thing = null;",
+            "        listenerView1.setOnClickListener(null);",
+            "      }",
+            "    };",
+            "  }",
+            "  @Override public void inject(Finder finder, final T target, Object source, int[] ids) {",
+            "    View view;",
+            "    long start;",
+            "    for (int id : ids) {",
+            "      if (id == 1) {",
+            "        start = System.nanoTime();",
+            "        view = finder.findById(source, 1);",
+            "        ButterKnife.reportTiming(test.Test.class, 1, \"findById\",",
+            "            System.nanoTime() - start);",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '1' for field 'thing' "
+                + "and method 'doStuff' was not found. If this view is optional add '@Optional' "
+                + "annotation.\");",
+            "        }",
+            "        start = System.nanoTime();",
+            "        target.thing = (android.widget.Button) view;",
+            "        ButterKnife.reportTiming(test.Test.class, 1, \"field 'thing'\",",
+            "            System.nanoTime() - start);",
+            "        start = System.nanoTime();",
+            "        view.setOnClickListener(new View.OnClickListener() {",
+            "          @Override public void onClick(View view) {",
+            "            target.doStuff();",
+            "          }",
+            "        });",
+            "        ButterKnife.reportTiming(test.Test.class, 1, \"method 'doStuff'\",",
+            "            System.nanoTime() - start);",
+            "      }",
+            "    }",
+            "  }",
+            "  @Override public void reset(T target) {",
+            "    target.thing = null;",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .processedWith(butterknifeProcessors("butterknife.timing=true"))
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+
+  @Test public void watchdog() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.widget.Button;",
+        "import butterknife.OnClick;",
+        "public class Test extends Activity {",
+        "  @OnClick(1) void doStuff(Button button) {}",
+        "}"
+    ));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/Test$$ViewInjector",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import butterknife.ButterKnife;",
+            "import butterknife.ButterKnife.Finder;",
+            "import butterknife.ButterKnife.Injector;",
+            "import butterknife.ButterKnife.Unbinder;",
+            "public class Test$$ViewInjector<T extends test.Test> extends Injector<T> {",
+            "  public static final Test$$ViewInjector<test.Test> INSTANCE = "
+                + "new Test$$ViewInjector<test.Test>();",
+            "  @Override public Unbinder inject(Finder finder, final T target, Object source) {",
+            "    View view;",
+            "    view = finder.findById(source, 1);",
+            "    if (view == null) {",
+            "      throw new IllegalStateException(\"Required view with id '1' for method "
+                + "'doStuff' was not found. If this view is optional add '@Optional' "
+                + "annotation.\");",
+            "    }",
+            "    view.setOnClickListener(new View.OnClickListener() {",
+            "      @Override public void onClick(View view) {",
+            "        long clickStart = System.nanoTime();",
+            "        target.doStuff((android.widget.Button) view);",
+            "        ButterKnife.reportClick(test.Test.class, \"doStuff\",",
+            "            System.nanoTime() - clickStart);",
+            "      }",
+            "    });",
+            "    final View listenerView1 = view;",
+            "    return new Unbinder() {",
+            "      @Override public void unbind() {",
+            "        listenerView1.setOnClickListener(null);",
+            "      }",
+            "    };",
+            "  }",
+            "  @Override public void inject(Finder finder, final T target, Object source, int[] ids) {",
+            "    View view;",
+            "    for (int id : ids) {",
+            "      if (id == 1) {",
+            "        view = finder.findById(source, 1);",
+            "        if (view == null) {",
+            "          throw new IllegalStateException(\"Required view with id '1' for method "
+                + "'doStuff' was not found. If this view is optional add '@Optional' "
+                + "annotation.\");",
+            "        }",
+            "        view.setOnClickListener(new View.OnClickListener() {",
+            "          @Override public void onClick(View view) {",
+            "            long clickStart = System.nanoTime();",
+            "            target.doStuff((android.widget.Button) view);",
+            "            ButterKnife.reportClick(test.Test.class, \"doStuff\",",
+            "                System.nanoTime() - clickStart);",
+            "          }",
+            "        });",
+            "      }",
+            "    }",
+            "  }",
+            "  @Override public void reset(T target) {",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .processedWith(butterknifeProcessors("butterknife.watchdog=true"))
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
 }
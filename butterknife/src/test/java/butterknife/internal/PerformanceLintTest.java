@@ -0,0 +1,97 @@
+package butterknife.internal;
+
+import com.google.common.base.Joiner;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Test;
+
+import javax.tools.JavaFileObject;
+
+import static butterknife.internal.ProcessorTestUtilities.butterknifeProcessors;
+import static com.google.testing.compile.JavaSourceSubjectFactory.javaSource;
+import static org.truth0.Truth.ASSERT;
+
+public class PerformanceLintTest {
+  private static final JavaFileObject HOLDER = JavaFileObjects.forSourceString("test.Test",
+      Joiner.on('\n').join(
+          "package test;",
+          "import android.view.View;",
+          "import butterknife.InjectString;",
+          "import butterknife.InjectView;",
+          "import butterknife.OnClick;",
+          "import butterknife.Optional;",
+          "public class Test {",
+          "  static class ViewHolder {",
+          "    @InjectView(1) View one;",
+          "    @Optional @InjectView(2) View two;",
+          "    @Optional @InjectString(3) String three;",
+          "    @OnClick({ 1, 2, 4 }) void click() {}",
+          "  }",
+          "}"
+      ));
+
+  @Test public void defaultThresholdsCompile() {
+    ASSERT.about(javaSource()).that(HOLDER)
+        .processedWith(butterknifeProcessors("butterknife.lint.errors=true"))
+        .compilesWithoutError();
+  }
+
+  @Test public void invalidThresholdIsReported() {
+    ASSERT.about(javaSource()).that(HOLDER)
+        .processedWith(butterknifeProcessors("butterknife.lint.holderBindings=many"))
+        .failsToCompile()
+        .withErrorContaining("Option butterknife.lint.holderBindings must be a number but was "
+            + "'many'. Using the default of 15.");
+  }
+
+  @Test public void holderBindings() {
+    ASSERT.about(javaSource()).that(HOLDER)
+        .processedWith(butterknifeProcessors("butterknife.lint.errors=true",
+            "butterknife.lint.holderBindings=5"))
+        .failsToCompile()
+        .withErrorContaining("Holder test.Test.ViewHolder has 6 bindings, more than 5.")
+        .in(HOLDER).onLine(8);
+  }
+
+  @Test public void holderClickIds() {
+    ASSERT.about(javaSource()).that(HOLDER)
+        .processedWith(butterknifeProcessors("butterknife.lint.errors=true",
+            "butterknife.lint.holderClickIds=2"))
+        .failsToCompile()
+        .withErrorContaining(
+            "@OnClick method click of holder test.Test.ViewHolder is bound to 3 IDs, more than 2.")
+        .in(HOLDER).onLine(12);
+  }
+
+  @Test public void optionals() {
+    ASSERT.about(javaSource()).that(HOLDER)
+        .processedWith(butterknifeProcessors("butterknife.lint.errors=true",
+            "butterknife.lint.optionals=1"))
+        .failsToCompile()
+        .withErrorContaining("test.Test.ViewHolder has 2 @Optional bindings, more than 1.")
+        .in(HOLDER).onLine(8);
+  }
+
+  @Test public void chainDepth() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import butterknife.InjectView;",
+        "public class Test extends Activity {",
+        "  static class A extends Test {}",
+        "  static class B extends A {",
+        "    @InjectView(1) View thing;",
+        "  }",
+        "}"
+    ));
+
+    ASSERT.about(javaSource()).that(source)
+        .processedWith(butterknifeProcessors("butterknife.lint.errors=true",
+            "butterknife.lint.chainDepth=2"))
+        .failsToCompile()
+        .withErrorContaining("test.Test.B has 2 ancestors but none of them is injected in this "
+            + "compilation.")
+        .in(source).onLine(7);
+  }
+}
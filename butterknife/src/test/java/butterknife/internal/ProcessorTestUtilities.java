@@ -1,8 +1,24 @@
 package butterknife.internal;
 
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
+import javax.annotation.processing.Completion;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
 import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
 
 final class ProcessorTestUtilities {
   static Iterable<? extends Processor> butterknifeProcessors() {
@@ -10,4 +26,90 @@ final class ProcessorTestUtilities {
         new InjectViewProcessor()
     );
   }
+
+  /** Processors which see each {@code name=value} option as if it were passed with {@code -A}. */
+  static Iterable<? extends Processor> butterknifeProcessors(String... options) {
+    final Map<String, String> optionMap = new LinkedHashMap<String, String>();
+    for (String option : options) {
+      int equals = option.indexOf('=');
+      optionMap.put(option.substring(0, equals), option.substring(equals + 1));
+    }
+    return Arrays.asList(
+        new OptionsProcessor(new InjectViewProcessor(), optionMap)
+    );
+  }
+
+  private static final class OptionsProcessor implements Processor {
+    private final Processor delegate;
+    private final Map<String, String> options;
+
+    OptionsProcessor(Processor delegate, Map<String, String> options) {
+      this.delegate = delegate;
+      this.options = options;
+    }
+
+    @Override public void init(ProcessingEnvironment env) {
+      delegate.init(new OptionsProcessingEnvironment(env, options));
+    }
+
+    @Override public Set<String> getSupportedOptions() {
+      return delegate.getSupportedOptions();
+    }
+
+    @Override public Set<String> getSupportedAnnotationTypes() {
+      return delegate.getSupportedAnnotationTypes();
+    }
+
+    @Override public SourceVersion getSupportedSourceVersion() {
+      return delegate.getSupportedSourceVersion();
+    }
+
+    @Override public boolean process(Set<? extends TypeElement> annotations,
+        RoundEnvironment env) {
+      return delegate.process(annotations, env);
+    }
+
+    @Override public Iterable<? extends Completion> getCompletions(Element element,
+        AnnotationMirror annotation, ExecutableElement member, String userText) {
+      return delegate.getCompletions(element, annotation, member, userText);
+    }
+  }
+
+  private static final class OptionsProcessingEnvironment implements ProcessingEnvironment {
+    private final ProcessingEnvironment delegate;
+    private final Map<String, String> options;
+
+    OptionsProcessingEnvironment(ProcessingEnvironment delegate, Map<String, String> options) {
+      this.delegate = delegate;
+      this.options = options;
+    }
+
+    @Override public Map<String, String> getOptions() {
+      return options;
+    }
+
+    @Override public Messager getMessager() {
+      return delegate.getMessager();
+    }
+
+    @Override public Filer getFiler() {
+      return delegate.getFiler();
+    }
+
+    @Override public Elements getElementUtils() {
+      return delegate.getElementUtils();
+    }
+
+    @Override public Types getTypeUtils() {
+      return delegate.getTypeUtils();
+    }
+
+    @Override public SourceVersion getSourceVersion() {
+      return delegate.getSourceVersion();
+    }
+
+    @Override public Locale getLocale() {
+      return delegate.getLocale();
+    }
+  }
 }